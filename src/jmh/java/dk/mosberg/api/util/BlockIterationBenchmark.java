@@ -0,0 +1,105 @@
+package dk.mosberg.api.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Compares walking a shape with a new {@link BlockPos} per position against the reused
+ * {@link BlockPos.Mutable} of the {@link BlockHelper} iteration helpers.
+ *
+ * <p>
+ * Run with the {@code gc} profiler (enabled in the build) and compare {@code gc.alloc.rate.norm}:
+ * the allocating variants grow with the number of positions, the helper variants stay constant.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * ./gradlew jmh -Pjmh.includes=BlockIterationBenchmark
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BlockIterationBenchmark {
+    private final BlockHelper helper = new BlockHelper();
+
+    @Param({"8", "32"})
+    private int radius;
+
+    @Benchmark
+    public void boxAllocating(Blackhole blackhole) {
+        for (int y = -radius; y <= radius; y++) {
+            for (int z = -radius; z <= radius; z++) {
+                for (int x = -radius; x <= radius; x++) {
+                    blackhole.consume(new BlockPos(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void boxMutable(Blackhole blackhole) {
+        helper.forEachInBox(-radius, -radius, -radius, radius, radius, radius, pos -> {
+            blackhole.consume(pos);
+            return true;
+        });
+    }
+
+    @Benchmark
+    public void sphereAllocating(Blackhole blackhole) {
+        int radiusSquared = radius * radius;
+        for (int y = -radius; y <= radius; y++) {
+            for (int z = -radius; z <= radius; z++) {
+                for (int x = -radius; x <= radius; x++) {
+                    BlockPos pos = new BlockPos(x, y, z);
+                    if (pos.getSquaredDistance(BlockPos.ORIGIN) <= radiusSquared) {
+                        blackhole.consume(pos);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void sphereMutable(Blackhole blackhole) {
+        helper.forEachInSphere(0, 0, 0, radius, pos -> {
+            blackhole.consume(pos);
+            return true;
+        });
+    }
+
+    @Benchmark
+    public void spiralAllocating(Blackhole blackhole) {
+        blackhole.consume(new BlockPos(0, 0, 0));
+        for (int ring = 1; ring <= radius; ring++) {
+            for (int x = -ring; x <= ring; x++) {
+                blackhole.consume(new BlockPos(x, 0, -ring));
+                blackhole.consume(new BlockPos(x, 0, ring));
+            }
+            for (int z = -ring + 1; z < ring; z++) {
+                blackhole.consume(new BlockPos(-ring, 0, z));
+                blackhole.consume(new BlockPos(ring, 0, z));
+            }
+        }
+    }
+
+    @Benchmark
+    public void spiralMutable(Blackhole blackhole) {
+        helper.forEachInSpiral(0, 0, 0, radius, pos -> {
+            blackhole.consume(pos);
+            return true;
+        });
+    }
+}
@@ -2,7 +2,14 @@ package dk.mosberg.api;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import dk.mosberg.api.command.AsyncCommands;
 import dk.mosberg.api.command.MosbergCommands;
+import dk.mosberg.api.config.ConfigManager;
+import dk.mosberg.api.debug.MemoryDiagnostics;
+import dk.mosberg.api.edit.BlockEditEngine;
+import dk.mosberg.api.edit.EditHistory;
+import dk.mosberg.api.entity.EntityCensus;
+import dk.mosberg.api.entity.EntityRemovalQueue;
 import dk.mosberg.api.registry.MosbergAttributes;
 import dk.mosberg.api.registry.MosbergBlockEntities;
 import dk.mosberg.api.registry.MosbergBlocks;
@@ -24,6 +31,8 @@ import dk.mosberg.api.registry.MosbergStatusEffects;
 import dk.mosberg.api.registry.MosbergTags;
 import dk.mosberg.api.registry.MosbergVillagers;
 import dk.mosberg.api.registry.MosbergWorldGen;
+import dk.mosberg.api.world.ColumnCache;
+import dk.mosberg.api.world.WorldStats;
 import net.fabricmc.api.ModInitializer;
 
 public class MosbergApi implements ModInitializer {
@@ -34,6 +43,9 @@ public class MosbergApi implements ModInitializer {
 	public void onInitialize() {
 		LOGGER.info("Initializing MosbergAPI");
 
+		// Configuration lifecycle (hot reload, shutdown)
+		ConfigManager.initialize();
+
 		// Initialize registries in dependency order
 		// Core registries first
 		MosbergDataComponents.initialize(); // Data components (needed for items)
@@ -75,6 +87,14 @@ public class MosbergApi implements ModInitializer {
 
 		// Command registration
 		MosbergCommands.register(); // Commands
+		BlockEditEngine.initialize(); // Tick-budgeted bulk block edits
+		EditHistory.initialize(); // Block edit undo/redo
+		EntityCensus.initialize(); // Live entity counts
+		EntityRemovalQueue.initialize(); // Tick-budgeted entity removal
+		WorldStats.initialize(); // Chunk load and density statistics
+		MemoryDiagnostics.initialize(); // GC history and allocation rate
+		AsyncCommands.initialize(); // Off-thread command jobs
+		ColumnCache.initialize(); // Cached column heights and sky visibility
 
 		// Central registry (general purpose helper)
 		MosbergRegistries.initialize();
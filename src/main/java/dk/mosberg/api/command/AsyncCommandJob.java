@@ -0,0 +1,114 @@
+package dk.mosberg.api.command;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A command computation running off the server thread.
+ *
+ * <p>
+ * Computations should call {@link #checkCancelled()} between units of work so that cancelling the
+ * job stops them promptly; cancelling also interrupts the worker thread. Once cancelled, a job's
+ * result is never delivered to its command source.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class AsyncCommandJob {
+    private final int id;
+    private final String source;
+    private final String description;
+    private final long startMillis = System.currentTimeMillis();
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private volatile Thread worker;
+    private volatile boolean cancelled;
+
+    AsyncCommandJob(int id, @NotNull String source, @NotNull String description) {
+        this.id = id;
+        this.source = source;
+        this.description = description;
+    }
+
+    /**
+     * Gets the id used to cancel the job by command.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the key of the command source that started the job.
+     */
+    @NotNull
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets a short description of what the job computes.
+     */
+    @NotNull
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Gets how long the job has been running.
+     *
+     * @return The age in milliseconds
+     */
+    public long getAgeMillis() {
+        return System.currentTimeMillis() - startMillis;
+    }
+
+    /**
+     * Gets a future completed when the job finished, failed or was cancelled.
+     */
+    @NotNull
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    /**
+     * Checks whether the job was cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws if the job was cancelled. Meant to be called by the computation.
+     *
+     * @throws CancellationException if the job was cancelled
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Command job " + id + " was cancelled");
+        }
+    }
+
+    /**
+     * Cancels the job, interrupting its worker thread.
+     *
+     * @return true if the job was still running
+     */
+    public boolean cancel() {
+        if (future.isDone()) {
+            return false;
+        }
+
+        cancelled = true;
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        return future.cancel(false);
+    }
+
+    void setWorker(Thread worker) {
+        this.worker = worker;
+    }
+}
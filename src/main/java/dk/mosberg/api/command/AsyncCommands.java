@@ -0,0 +1,241 @@
+package dk.mosberg.api.command;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.mojang.brigadier.context.CommandContext;
+import dk.mosberg.api.config.ConfigManager;
+import dk.mosberg.api.config.IntConfigHandle;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+/**
+ * Runs command computations on virtual threads and delivers their results on the server thread.
+ *
+ * <p>
+ * A job takes a snapshot on the server thread, computes on a virtual thread from that snapshot
+ * alone, and hands the result back to the server thread, where it may touch the world and reply
+ * to the command source. The snapshot must be immutable or exclusively owned by the job, since
+ * the world keeps changing while the computation runs.
+ *
+ * <p>
+ * Each command source, keyed by entity UUID or source name, may start one job every
+ * {@code commands.command_cooldown_seconds} seconds; 0 disables the limit. Running jobs are listed
+ * and cancelled with {@code /mosbergapi jobs}, and all are cancelled when the server stops.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * AsyncCommands.submit(context, "count blocks",
+ *         () -> copySections(world), (sections, job) -> countBlocks(sections, job),
+ *         (ctx, count) -> ctx.getSource().sendFeedback(() -> Text.literal(count + " blocks"),
+ *                 false));
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class AsyncCommands {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncCommands.class);
+    private static final IntConfigHandle COOLDOWN_SECONDS =
+            ConfigManager.intHandle("mosbergapi", "commands.command_cooldown_seconds");
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("MosbergAPI Command ", 0).factory());
+    private static final Map<Integer, AsyncCommandJob> JOBS = new ConcurrentHashMap<>();
+    private static final Map<String, Long> LAST_START = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    private AsyncCommands() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Cancels every job when the server stops.
+     */
+    public static void initialize() {
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            cancelAll();
+            LAST_START.clear();
+        });
+    }
+
+    /**
+     * Starts a job for a command. Must be called on the server thread.
+     *
+     * @param <S> The snapshot type
+     * @param <R> The result type
+     * @param context The command context to reply to
+     * @param description A short description, shown in the job list
+     * @param snapshot Captures the input on the server thread
+     * @param compute Computes the result from the snapshot on a virtual thread
+     * @param deliver Handles the result on the server thread
+     * @return The job
+     * @throws IllegalStateException if the source is still on cooldown
+     */
+    @NotNull
+    public static <S, R> AsyncCommandJob submit(
+            @NotNull CommandContext<ServerCommandSource> context, @NotNull String description,
+            @NotNull Supplier<S> snapshot, @NotNull Computation<S, R> compute,
+            @NotNull BiConsumer<CommandContext<ServerCommandSource>, R> deliver) {
+        if (context == null)
+            throw new NullPointerException("Context cannot be null");
+        if (description == null)
+            throw new NullPointerException("Description cannot be null");
+        if (snapshot == null)
+            throw new NullPointerException("Snapshot cannot be null");
+        if (compute == null)
+            throw new NullPointerException("Computation cannot be null");
+        if (deliver == null)
+            throw new NullPointerException("Deliver cannot be null");
+
+        ServerCommandSource source = context.getSource();
+        MinecraftServer server = source.getServer();
+        String key = sourceKey(source);
+        long remaining = getCooldownRemaining(key);
+        if (remaining > 0)
+            throw new IllegalStateException(
+                    "Please wait " + (remaining + 999) / 1000 + "s before starting another job");
+
+        S input = snapshot.get();
+        AsyncCommandJob job = new AsyncCommandJob(NEXT_ID.getAndIncrement(), key, description);
+        JOBS.put(job.getId(), job);
+        LAST_START.put(key, System.currentTimeMillis());
+        job.getFuture().whenComplete((ignored, error) -> JOBS.remove(job.getId()));
+
+        EXECUTOR.execute(() -> {
+            job.setWorker(Thread.currentThread());
+            try {
+                job.checkCancelled();
+                R result = compute.compute(input, job);
+                server.execute(() -> {
+                    if (job.isCancelled()) {
+                        return;
+                    }
+                    try {
+                        deliver.accept(context, result);
+                    } finally {
+                        job.getFuture().complete(null);
+                    }
+                });
+            } catch (CancellationException | InterruptedException e) {
+                job.cancel();
+            } catch (Exception e) {
+                LOGGER.error("Command job '{}' failed", description, e);
+                server.execute(() -> source.sendError(Text
+                        .literal("§c[MosbergAPI] " + description + " failed: " + e.getMessage())));
+                job.getFuture().completeExceptionally(e);
+            } finally {
+                job.setWorker(null);
+                Thread.interrupted();
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Gets the running jobs, oldest first.
+     *
+     * @return A snapshot of the jobs
+     */
+    @NotNull
+    public static List<AsyncCommandJob> getJobs() {
+        List<AsyncCommandJob> jobs = new ArrayList<>(JOBS.values());
+        jobs.sort(Comparator.comparingInt(AsyncCommandJob::getId));
+        return jobs;
+    }
+
+    /**
+     * Gets a running job.
+     *
+     * @param id The job id
+     * @return The job, or null if it is not running
+     */
+    @Nullable
+    public static AsyncCommandJob getJob(int id) {
+        return JOBS.get(id);
+    }
+
+    /**
+     * Cancels every running job.
+     *
+     * @return The number of jobs cancelled
+     */
+    public static int cancelAll() {
+        int cancelled = 0;
+        for (AsyncCommandJob job : getJobs()) {
+            if (job.cancel()) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Gets how long a command source must wait before starting another job.
+     *
+     * @param source The command source
+     * @return The remaining cooldown in milliseconds, 0 if none
+     */
+    public static long getCooldownRemaining(@NotNull ServerCommandSource source) {
+        if (source == null)
+            throw new NullPointerException("Source cannot be null");
+
+        return getCooldownRemaining(sourceKey(source));
+    }
+
+    /**
+     * Gets the key jobs and cooldowns of a command source are tracked under.
+     *
+     * @param source The command source
+     * @return The entity UUID, or the source name if no entity runs the command
+     */
+    @NotNull
+    public static String sourceKey(@NotNull ServerCommandSource source) {
+        Entity entity = source.getEntity();
+        return entity != null ? entity.getUuidAsString() : source.getName();
+    }
+
+    private static long getCooldownRemaining(@NotNull String key) {
+        long cooldown = COOLDOWN_SECONDS.get() * 1000L;
+        Long last = LAST_START.get(key);
+        if (cooldown <= 0 || last == null) {
+            return 0;
+        }
+        return Math.max(0, last + cooldown - System.currentTimeMillis());
+    }
+
+    /**
+     * The off-thread part of an asynchronous command.
+     *
+     * @param <S> The snapshot type
+     * @param <R> The result type
+     */
+    @FunctionalInterface
+    public interface Computation<S, R> {
+        /**
+         * Computes the result. Runs on a virtual thread and must not touch the world.
+         *
+         * @param snapshot The input captured on the server thread
+         * @param job The job, to check for cancellation
+         * @return The result
+         * @throws Exception if the computation fails
+         */
+        R compute(S snapshot, @NotNull AsyncCommandJob job) throws Exception;
+    }
+}
@@ -1,5 +1,7 @@
 package dk.mosberg.api.command;
 
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,7 +17,8 @@ import net.minecraft.text.Text;
  *
  * <p>
  * Provides common functionality for all commands including permission checking, error handling, and
- * message formatting.
+ * message formatting. Handlers doing heavy read-only work can run it off the server thread with
+ * {@link #executeAsync}.
  *
  * @author Mosberg
  * @version 1.0.0
@@ -94,4 +97,35 @@ public abstract class MosbergCommand {
             @NotNull String message) {
         context.getSource().sendFeedback(() -> Text.literal("§e[MosbergAPI] " + message), false);
     }
+
+    /**
+     * Runs the heavy part of a command on a virtual thread, replying on the server thread.
+     *
+     * <p>
+     * The snapshot is taken immediately on the server thread and must not be shared with the
+     * world afterwards. If the source is still on its {@code commands.command_cooldown_seconds}
+     * cooldown, an error is sent instead.
+     *
+     * @param <S> The snapshot type
+     * @param <R> The result type
+     * @param context The command context
+     * @param description A short description, shown in {@code /mosbergapi jobs}
+     * @param snapshot Captures the input on the server thread
+     * @param compute Computes the result from the snapshot
+     * @param deliver Sends the result, on the server thread
+     * @return 1 if the job was started, 0 otherwise
+     * @see AsyncCommands
+     */
+    protected <S, R> int executeAsync(@NotNull CommandContext<ServerCommandSource> context,
+            @NotNull String description, @NotNull Supplier<S> snapshot,
+            @NotNull AsyncCommands.Computation<S, R> compute,
+            @NotNull BiConsumer<CommandContext<ServerCommandSource>, R> deliver) {
+        try {
+            AsyncCommands.submit(context, description, snapshot, compute, deliver);
+            return 1;
+        } catch (IllegalStateException e) {
+            sendError(context, e.getMessage());
+            return 0;
+        }
+    }
 }
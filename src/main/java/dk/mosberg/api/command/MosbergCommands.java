@@ -12,6 +12,7 @@ import dk.mosberg.api.command.commands.DebugCommand;
 import dk.mosberg.api.command.commands.EntityCommand;
 import dk.mosberg.api.command.commands.HelpCommand;
 import dk.mosberg.api.command.commands.ItemCommand;
+import dk.mosberg.api.command.commands.JobsCommand;
 import dk.mosberg.api.command.commands.RegistryCommand;
 import dk.mosberg.api.command.commands.WorldCommand;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
@@ -48,6 +49,7 @@ public class MosbergCommands {
         COMMANDS.add(new BlockCommand());
         COMMANDS.add(new WorldCommand());
         COMMANDS.add(new DebugCommand());
+        COMMANDS.add(new JobsCommand());
         COMMANDS.add(new HelpCommand());
 
         // Register with Fabric API
@@ -1,10 +1,16 @@
 package dk.mosberg.api.command.commands;
 
+import java.util.concurrent.CancellationException;
 import org.jetbrains.annotations.NotNull;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import dk.mosberg.api.command.MosbergCommand;
+import dk.mosberg.api.edit.BlockEdit;
+import dk.mosberg.api.edit.BlockEditEngine;
+import dk.mosberg.api.edit.Clipboard;
+import dk.mosberg.api.edit.EditHistory;
+import dk.mosberg.api.edit.EditJob;
 import dk.mosberg.api.util.MosbergHelper;
 import net.minecraft.block.BlockState;
 import net.minecraft.command.CommandRegistryAccess;
@@ -12,6 +18,8 @@ import net.minecraft.command.argument.BlockStateArgumentType;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.BlockRotation;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
 
 /**
@@ -22,10 +30,23 @@ import net.minecraft.util.math.BlockPos;
  * <li>{@code /mosbergapi block set <x> <y> <z> <block>} - Set a block</li>
  * <li>{@code /mosbergapi block get <x> <y> <z>} - Get block information</li>
  * <li>{@code /mosbergapi block fill <x1> <y1> <z1> <x2> <y2> <z2> <block>} - Fill area with
- * blocks</li>
- * <li>{@code /mosbergapi block break <x> <y> <z>} - Break a block</li>
+ * blocks, spread across ticks by the {@link BlockEditEngine}</li>
+ * <li>{@code /mosbergapi block break <x> <y> <z>} - Break a block without drops</li>
+ * <li>{@code /mosbergapi block copy <x1> <y1> <z1> <x2> <y2> <z2>} - Copy an area to your clipboard,
+ * relative to your position</li>
+ * <li>{@code /mosbergapi block paste [<x> <y> <z>]} - Paste your clipboard at your position or the
+ * given one</li>
+ * <li>{@code /mosbergapi block rotate <degrees>} - Rotate your clipboard by a multiple of 90
+ * degrees, clockwise seen from above</li>
+ * <li>{@code /mosbergapi block undo} - Undo your most recent set, fill or break</li>
+ * <li>{@code /mosbergapi block redo} - Redo your most recently undone edit</li>
  * </ul>
  *
+ * <p>
+ * Set, fill, break and paste are recorded in the executor's {@link EditHistory}. Because undoing a
+ * break restores the block, breaking drops no items; otherwise break and undo would duplicate
+ * them.
+ *
  * @author Mosberg
  * @version 1.0.0
  * @since 1.0.0
@@ -105,7 +126,59 @@ public class BlockCommand extends MosbergCommand {
                                                                                                 .then(CommandManager
                                                                                                                 .argument("z", IntegerArgumentType
                                                                                                                                 .integer())
-                                                                                                                .executes(this::breakBlock)))))));
+                                                                                                                .executes(this::breakBlock)))))
+                                                .then(CommandManager.literal("copy")
+                                                                .then(CommandManager.argument("x1",
+                                                                                IntegerArgumentType
+                                                                                                .integer())
+                                                                                .then(CommandManager
+                                                                                                .argument("y1", IntegerArgumentType
+                                                                                                                .integer())
+                                                                                                .then(CommandManager
+                                                                                                                .argument("z1", IntegerArgumentType
+                                                                                                                                .integer())
+                                                                                                                .then(CommandManager
+                                                                                                                                .argument("x2", IntegerArgumentType
+                                                                                                                                                .integer())
+                                                                                                                                .then(CommandManager
+                                                                                                                                                .argument("y2", IntegerArgumentType
+                                                                                                                                                                .integer())
+                                                                                                                                                .then(CommandManager
+                                                                                                                                                                .argument("z2", IntegerArgumentType
+                                                                                                                                                                                .integer())
+                                                                                                                                                                .executes(this::copy))))))))
+                                                .then(CommandManager.literal("paste")
+                                                                .executes(context -> paste(context,
+                                                                                BlockPos.ofFloored(context
+                                                                                                .getSource()
+                                                                                                .getPosition())))
+                                                                .then(CommandManager.argument("x",
+                                                                                IntegerArgumentType
+                                                                                                .integer())
+                                                                                .then(CommandManager
+                                                                                                .argument("y", IntegerArgumentType
+                                                                                                                .integer())
+                                                                                                .then(CommandManager
+                                                                                                                .argument("z", IntegerArgumentType
+                                                                                                                                .integer())
+                                                                                                                .executes(context -> paste(
+                                                                                                                                context,
+                                                                                                                                new BlockPos(IntegerArgumentType
+                                                                                                                                                .getInteger(context, "x"),
+                                                                                                                                                IntegerArgumentType
+                                                                                                                                                                .getInteger(context, "y"),
+                                                                                                                                                IntegerArgumentType
+                                                                                                                                                                .getInteger(context, "z"))))))))
+                                                .then(CommandManager.literal("rotate")
+                                                                .then(CommandManager.argument(
+                                                                                "degrees",
+                                                                                IntegerArgumentType
+                                                                                                .integer())
+                                                                                .executes(this::rotate)))
+                                                .then(CommandManager.literal("undo")
+                                                                .executes(this::undo))
+                                                .then(CommandManager.literal("redo")
+                                                                .executes(this::redo))));
         }
 
         private int setBlock(CommandContext<ServerCommandSource> context) {
@@ -118,6 +191,8 @@ public class BlockCommand extends MosbergCommand {
                                         .getBlockState();
 
                         BlockPos pos = new BlockPos(x, y, z);
+                        EditHistory.of(context.getSource()).record(world, new BlockBox(pos),
+                                        "set " + x + ", " + y + ", " + z);
                         MosbergHelper.BLOCK.setBlockState(world, pos, state);
 
                         sendSuccess(context, "Set block at " + x + ", " + y + ", " + z + " to "
@@ -163,20 +238,37 @@ public class BlockCommand extends MosbergCommand {
                         BlockState state = BlockStateArgumentType.getBlockState(context, "block")
                                         .getBlockState();
 
-                        BlockPos pos1 = new BlockPos(Math.min(x1, x2), Math.min(y1, y2),
-                                        Math.min(z1, z2));
-                        BlockPos pos2 = new BlockPos(Math.max(x1, x2), Math.max(y1, y2),
-                                        Math.max(z1, z2));
+                        BlockBox box = BlockBox.create(new BlockPos(x1, y1, z1),
+                                        new BlockPos(x2, y2, z2));
+                        String blockName = state.getBlock().getName().getString();
 
-                        int count = 0;
-                        for (BlockPos pos : BlockPos.iterate(pos1, pos2)) {
-                                MosbergHelper.BLOCK.setBlockState(world, pos, state);
-                                count++;
-                        }
+                        EditJob job = EditHistory.of(context.getSource()).submit(world,
+                                        BlockEdit.fill(box, state), "fill with " + blockName);
+                        sendInfo(context, "Filling " + job.getVolume() + " blocks with " + blockName
+                                        + " across " + job.getTotalSections() + " sections...");
 
-                        sendSuccess(context, "Filled " + count + " blocks with "
-                                        + state.getBlock().getName().getString());
-                        return count;
+                        job.onProgress(running -> sendInfo(context, String.format(
+                                        "Fill progress: %.0f%% (%d blocks changed)",
+                                        running.getProgress() * 100, running.getChangedBlocks())));
+                        job.getFuture().whenComplete((done, error) -> {
+                                if (error != null) {
+                                        sendError(context, "Failed to fill blocks: "
+                                                        + error.getMessage());
+                                } else if (done.isCancelled()) {
+                                        sendError(context, "Fill cancelled after "
+                                                        + done.getChangedBlocks() + " blocks");
+                                } else {
+                                        sendSuccess(context, "Filled " + done.getChangedBlocks()
+                                                        + " blocks with " + blockName + " in "
+                                                        + done.getTicks() + " ticks");
+                                        if (done.getSkippedSections() > 0) {
+                                                sendError(context, "Skipped "
+                                                                + done.getSkippedSections()
+                                                                + " sections in unloaded chunks");
+                                        }
+                                }
+                        });
+                        return (int) Math.min(job.getVolume(), Integer.MAX_VALUE);
                 } catch (Exception e) {
                         sendError(context, "Failed to fill blocks: " + e.getMessage());
                         return 0;
@@ -191,7 +283,10 @@ public class BlockCommand extends MosbergCommand {
                         int z = IntegerArgumentType.getInteger(context, "z");
 
                         BlockPos pos = new BlockPos(x, y, z);
-                        MosbergHelper.BLOCK.breakBlock(world, pos, true);
+                        EditHistory.of(context.getSource()).record(world, new BlockBox(pos),
+                                        "break " + x + ", " + y + ", " + z);
+                        // No drops: undo restores the block, so drops would duplicate items
+                        MosbergHelper.BLOCK.breakBlock(world, pos, false);
 
                         sendSuccess(context, "Broke block at " + x + ", " + y + ", " + z);
                         return 1;
@@ -200,4 +295,160 @@ public class BlockCommand extends MosbergCommand {
                         return 0;
                 }
         }
+
+        private int copy(CommandContext<ServerCommandSource> context) {
+                try {
+                        ServerCommandSource source = context.getSource();
+                        int x1 = IntegerArgumentType.getInteger(context, "x1");
+                        int y1 = IntegerArgumentType.getInteger(context, "y1");
+                        int z1 = IntegerArgumentType.getInteger(context, "z1");
+                        int x2 = IntegerArgumentType.getInteger(context, "x2");
+                        int y2 = IntegerArgumentType.getInteger(context, "y2");
+                        int z2 = IntegerArgumentType.getInteger(context, "z2");
+
+                        BlockBox box = BlockBox.create(new BlockPos(x1, y1, z1),
+                                        new BlockPos(x2, y2, z2));
+                        EditHistory history = EditHistory.of(source);
+                        long volume = (long) box.getBlockCountX() * box.getBlockCountY()
+                                        * box.getBlockCountZ();
+                        sendInfo(context, "Copying " + volume + " blocks...");
+
+                        Clipboard.copyAsync(source.getWorld(), box,
+                                        BlockPos.ofFloored(source.getPosition()))
+                                        .whenComplete((clipboard, error) -> {
+                                                if (error instanceof CancellationException) {
+                                                        sendError(context, "Copy cancelled");
+                                                } else if (error != null) {
+                                                        sendError(context, "Failed to copy blocks: "
+                                                                        + error.getMessage());
+                                                } else {
+                                                        history.setClipboard(clipboard);
+                                                        reportCopy(context, clipboard);
+                                                }
+                                        });
+                        return (int) Math.min(volume, Integer.MAX_VALUE);
+                } catch (Exception e) {
+                        sendError(context, "Failed to copy blocks: " + e.getMessage());
+                        return 0;
+                }
+        }
+
+        private void reportCopy(CommandContext<ServerCommandSource> context,
+                        Clipboard clipboard) {
+                sendSuccess(context, "Copied " + clipboard.getVolume() + " blocks ("
+                                + clipboard.getPaletteSize() + " distinct states"
+                                + (clipboard.isMapped() ? ", memory-mapped" : "") + ")");
+                if (clipboard.getBlockEntityCount() > 0) {
+                        sendError(context, clipboard.getBlockEntityCount()
+                                        + " block entities were copied without their contents;"
+                                        + " containers, signs and spawners will paste empty");
+                }
+        }
+
+        private int paste(CommandContext<ServerCommandSource> context, BlockPos origin) {
+                try {
+                        ServerCommandSource source = context.getSource();
+                        EditHistory history = EditHistory.of(source);
+                        Clipboard clipboard = history.getClipboard();
+                        if (clipboard == null) {
+                                sendError(context, "Your clipboard is empty");
+                                return 0;
+                        }
+
+                        EditJob job = history.submit(source.getWorld(), clipboard.toEdit(origin),
+                                        "paste at " + origin.toShortString());
+                        sendInfo(context, "Pasting " + job.getVolume() + " blocks across "
+                                        + job.getTotalSections() + " sections...");
+                        reportReplay(context, job, "Paste", "Pasted clipboard at "
+                                        + origin.toShortString());
+                        return clipboard.getVolume();
+                } catch (Exception e) {
+                        sendError(context, "Failed to paste blocks: " + e.getMessage());
+                        return 0;
+                }
+        }
+
+        private int rotate(CommandContext<ServerCommandSource> context) {
+                try {
+                        EditHistory history = EditHistory.of(context.getSource());
+                        Clipboard clipboard = history.getClipboard();
+                        if (clipboard == null) {
+                                sendError(context, "Your clipboard is empty");
+                                return 0;
+                        }
+
+                        int degrees = IntegerArgumentType.getInteger(context, "degrees");
+                        BlockRotation rotation = switch (Math.floorMod(degrees, 360)) {
+                                case 0 -> BlockRotation.NONE;
+                                case 90 -> BlockRotation.CLOCKWISE_90;
+                                case 180 -> BlockRotation.CLOCKWISE_180;
+                                case 270 -> BlockRotation.COUNTERCLOCKWISE_90;
+                                default -> null;
+                        };
+                        if (rotation == null) {
+                                sendError(context, "Rotation must be a multiple of 90 degrees");
+                                return 0;
+                        }
+
+                        history.setClipboard(clipboard.rotate(rotation));
+                        sendSuccess(context, "Rotated clipboard by " + degrees + " degrees");
+                        return 1;
+                } catch (Exception e) {
+                        sendError(context, "Failed to rotate clipboard: " + e.getMessage());
+                        return 0;
+                }
+        }
+
+        private int undo(CommandContext<ServerCommandSource> context) {
+                try {
+                        EditHistory history = EditHistory.of(context.getSource());
+                        String description = history.peekUndo();
+                        EditJob job = history.undo(context.getSource().getServer());
+                        if (job == null) {
+                                sendError(context, "Nothing to undo");
+                                return 0;
+                        }
+
+                        reportReplay(context, job, "Undo", "Undid " + description);
+                        return 1;
+                } catch (Exception e) {
+                        sendError(context, "Failed to undo: " + e.getMessage());
+                        return 0;
+                }
+        }
+
+        private int redo(CommandContext<ServerCommandSource> context) {
+                try {
+                        EditHistory history = EditHistory.of(context.getSource());
+                        String description = history.peekRedo();
+                        EditJob job = history.redo(context.getSource().getServer());
+                        if (job == null) {
+                                sendError(context, "Nothing to redo");
+                                return 0;
+                        }
+
+                        reportReplay(context, job, "Redo", "Redid " + description);
+                        return 1;
+                } catch (Exception e) {
+                        sendError(context, "Failed to redo: " + e.getMessage());
+                        return 0;
+                }
+        }
+
+        private void reportReplay(CommandContext<ServerCommandSource> context, EditJob job,
+                        String action, String doneMessage) {
+                job.onProgress(running -> sendInfo(context, String.format("%s progress: %.0f%%",
+                                action, running.getProgress() * 100)));
+                job.getFuture().whenComplete((done, error) -> {
+                        if (error != null) {
+                                sendError(context, action + " failed: " + error.getMessage());
+                        } else if (done.isCancelled()) {
+                                sendError(context, action + " cancelled after "
+                                                + done.getChangedBlocks() + " blocks");
+                        } else {
+                                sendSuccess(context, doneMessage + " (" + done.getChangedBlocks()
+                                                + " blocks changed)");
+                        }
+                });
+        }
 }
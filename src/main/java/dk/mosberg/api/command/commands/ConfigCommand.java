@@ -1,11 +1,17 @@
 package dk.mosberg.api.command.commands;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import org.jetbrains.annotations.NotNull;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import dk.mosberg.api.command.MosbergCommand;
+import dk.mosberg.api.config.ConfigChangeEvent;
 import dk.mosberg.api.config.ConfigManager;
+import dk.mosberg.api.config.ConfigMetrics;
 import net.minecraft.command.CommandRegistryAccess;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
@@ -15,12 +21,17 @@ import net.minecraft.server.command.ServerCommandSource;
  *
  * <h2>Usage</h2>
  * <ul>
- * <li>{@code /mosbergapi config reload [config]} - Reload configuration(s)</li>
+ * <li>{@code /mosbergapi config reload [config]} - Reload configuration(s); reloading all also
+ * reloads world and dimension overlays</li>
  * <li>{@code /mosbergapi config save [config]} - Save configuration(s)</li>
  * <li>{@code /mosbergapi config reset <config>} - Reset configuration to defaults</li>
  * <li>{@code /mosbergapi config get <key>} - Get configuration value</li>
  * <li>{@code /mosbergapi config set <key> <value>} - Set configuration value</li>
  * <li>{@code /mosbergapi config list} - List all configurations</li>
+ * <li>{@code /mosbergapi config preset list} - List presets in the {@code presets} directory</li>
+ * <li>{@code /mosbergapi config preset apply <preset>} - Apply a preset as one transaction</li>
+ * <li>{@code /mosbergapi config stats [count]} - Show config timings and the most read keys</li>
+ * <li>{@code /mosbergapi config stats enable|disable|reset} - Control config metrics</li>
  * </ul>
  *
  * @author Mosberg
@@ -96,12 +107,37 @@ public class ConfigCommand extends MosbergCommand {
                                                                         StringArgumentType
                                                                                 .greedyString())
                                                                 .executes(this::set))))
+                                .then(CommandManager.literal("stats")
+                                        .executes(context -> stats(context, 10))
+                                        .then(CommandManager
+                                                .argument("count",
+                                                        IntegerArgumentType.integer(1, 100))
+                                                .executes(context -> stats(context,
+                                                        IntegerArgumentType.getInteger(context,
+                                                                "count"))))
+                                        .then(CommandManager.literal("enable")
+                                                .executes(context -> setMetrics(context, true)))
+                                        .then(CommandManager.literal("disable")
+                                                .executes(context -> setMetrics(context, false)))
+                                        .then(CommandManager.literal("reset")
+                                                .executes(this::resetMetrics)))
+                                .then(CommandManager.literal("preset")
+                                        .then(CommandManager.literal("list")
+                                                .executes(this::listPresets))
+                                        .then(CommandManager.literal("apply").then(CommandManager
+                                                .argument("preset", StringArgumentType.word())
+                                                .suggests((context, builder) -> {
+                                                    ConfigManager.listPresets("mosbergapi")
+                                                            .forEach(builder::suggest);
+                                                    return builder.buildFuture();
+                                                }).executes(this::applyPreset))))
                                 .then(CommandManager.literal("list").executes(this::list))));
     }
 
     private int reloadAll(CommandContext<ServerCommandSource> context) {
         sendInfo(context, "Reloading all configurations...");
         boolean success = ConfigManager.reloadAll("mosbergapi");
+        success &= ConfigManager.loadOverlays("mosbergapi", context.getSource().getServer());
 
         if (success) {
             sendSuccess(context, "Successfully reloaded all configurations");
@@ -179,7 +215,12 @@ public class ConfigCommand extends MosbergCommand {
 
         // Try to parse as boolean, number, or string
         Object parsedValue = parseValue(value);
-        ConfigManager.set("mosbergapi", key, parsedValue);
+        try {
+            ConfigManager.set("mosbergapi", key, parsedValue);
+        } catch (IllegalArgumentException e) {
+            sendError(context, e.getMessage());
+            return 0;
+        }
 
         sendSuccess(context, "Set " + key + " = " + value);
         return 1;
@@ -197,6 +238,79 @@ public class ConfigCommand extends MosbergCommand {
         return 1;
     }
 
+    private int listPresets(CommandContext<ServerCommandSource> context) {
+        List<String> presets = ConfigManager.listPresets("mosbergapi");
+        if (presets.isEmpty()) {
+            sendInfo(context, "No presets found in "
+                    + ConfigManager.getModConfigDirectory("mosbergapi").resolve("presets"));
+            return 0;
+        }
+
+        sendInfo(context, "Available presets:");
+        for (String preset : presets) {
+            sendInfo(context, "  - " + preset);
+        }
+        return presets.size();
+    }
+
+    private int applyPreset(CommandContext<ServerCommandSource> context) {
+        String preset = StringArgumentType.getString(context, "preset");
+
+        Map<String, ConfigChangeEvent.Change> changes;
+        try {
+            changes = ConfigManager.applyPreset("mosbergapi", preset);
+        } catch (IOException | IllegalArgumentException e) {
+            sendError(context, "Failed to apply preset " + preset + ": " + e.getMessage());
+            return 0;
+        }
+
+        sendSuccess(context, "Applied preset " + preset + " (" + changes.size() + " changed)");
+        changes.forEach((key, change) -> sendInfo(context,
+                "  " + key + ": " + change.oldValue() + " -> " + change.newValue()));
+        return Math.max(changes.size(), 1);
+    }
+
+    private int stats(CommandContext<ServerCommandSource> context, int count) {
+        if (!ConfigMetrics.isEnabled()) {
+            sendInfo(context, "Config metrics are disabled; use /mosbergapi config stats enable");
+        }
+
+        sendInfo(context, "Loads: " + formatTiming(ConfigMetrics.getLoadStats()));
+        sendInfo(context, "Saves: " + formatTiming(ConfigMetrics.getSaveStats()));
+        sendInfo(context, "Listeners: " + formatTiming(ConfigMetrics.getListenerStats()));
+
+        List<ConfigMetrics.KeyStats> hottest = ConfigMetrics.topReads(count);
+        if (hottest.isEmpty()) {
+            sendInfo(context, "No config reads recorded");
+            return 1;
+        }
+
+        sendInfo(context, "Top " + hottest.size() + " keys by reads:");
+        int rank = 1;
+        for (ConfigMetrics.KeyStats stats : hottest) {
+            sendInfo(context, String.format("  %d. %s:%s - %d reads, %d misses", rank++,
+                    stats.modId(), stats.key(), stats.reads(), stats.misses()));
+        }
+        return hottest.size();
+    }
+
+    private int setMetrics(CommandContext<ServerCommandSource> context, boolean enabled) {
+        ConfigMetrics.setEnabled(enabled);
+        sendSuccess(context, "Config metrics " + (enabled ? "enabled" : "disabled"));
+        return 1;
+    }
+
+    private int resetMetrics(CommandContext<ServerCommandSource> context) {
+        ConfigMetrics.reset();
+        sendSuccess(context, "Config metrics reset");
+        return 1;
+    }
+
+    private String formatTiming(ConfigMetrics.TimingStats stats) {
+        return String.format("%d (avg %.3f ms, max %.3f ms)", stats.count(),
+                stats.averageMillis(), stats.maxMillis());
+    }
+
     private Object parseValue(String value) {
         // Try boolean
         if (value.equalsIgnoreCase("true"))
@@ -1,10 +1,17 @@
 package dk.mosberg.api.command.commands;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import dk.mosberg.api.command.MosbergCommand;
 import dk.mosberg.api.config.ConfigManager;
+import dk.mosberg.api.debug.AllocationSampler;
+import dk.mosberg.api.debug.MemoryDiagnostics;
+import dk.mosberg.api.debug.TickProfiler;
 import net.minecraft.command.CommandRegistryAccess;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
@@ -15,9 +22,18 @@ import net.minecraft.server.command.ServerCommandSource;
  * <h2>Usage</h2>
  * <ul>
  * <li>{@code /mosbergapi debug toggle} - Toggle debug mode</li>
- * <li>{@code /mosbergapi debug memory} - Show memory usage</li>
- * <li>{@code /mosbergapi debug gc} - Run garbage collection</li>
+ * <li>{@code /mosbergapi debug memory} - Show heap and off-heap pools, allocation rate and
+ * collector totals</li>
+ * <li>{@code /mosbergapi debug memory gc} - Show recent garbage collections</li>
+ * <li>{@code /mosbergapi debug memory allocations <seconds>} - Sample allocations with JDK Flight
+ * Recorder and attribute them to MosbergAPI call sites</li>
+ * <li>{@code /mosbergapi debug memory allocations stop} - Stop allocation sampling early</li>
+ * <li>{@code /mosbergapi debug gc confirm} - Force a full garbage collection, pausing the
+ * server</li>
  * <li>{@code /mosbergapi debug info} - Show system information</li>
+ * <li>{@code /mosbergapi debug profile <seconds>} - Sample the server thread and report where
+ * tick time goes, writing a collapsed-stack file under {@code config/mosbergapi/profiles/}</li>
+ * <li>{@code /mosbergapi debug profile stop} - Stop a running profile early</li>
  * </ul>
  *
  * @author Mosberg
@@ -45,48 +61,142 @@ public class DebugCommand extends MosbergCommand {
                 CommandManager.literal("mosbergapi").requires(source -> hasPermission(source))
                         .then(CommandManager.literal("debug")
                                 .then(CommandManager.literal("toggle").executes(this::toggle))
-                                .then(CommandManager.literal("memory").executes(this::memory))
-                                .then(CommandManager.literal("gc").executes(this::gc))
-                                .then(CommandManager.literal("info").executes(this::info))));
+                                .then(CommandManager.literal("memory").executes(this::memory)
+                                        .then(CommandManager.literal("gc")
+                                                .executes(this::gcHistory))
+                                        .then(CommandManager.literal("allocations")
+                                                .then(CommandManager.literal("stop")
+                                                        .executes(this::stopAllocations))
+                                                .then(CommandManager
+                                                        .argument("seconds",
+                                                                IntegerArgumentType.integer(1,
+                                                                        600))
+                                                        .executes(this::allocations))))
+                                .then(CommandManager.literal("gc").executes(this::gcWarning)
+                                        .then(CommandManager.literal("confirm")
+                                                .executes(this::gc)))
+                                .then(CommandManager.literal("info").executes(this::info))
+                                .then(CommandManager.literal("profile")
+                                        .then(CommandManager.literal("stop")
+                                                .executes(this::stopProfile))
+                                        .then(CommandManager
+                                                .argument("seconds",
+                                                        IntegerArgumentType.integer(1, 600))
+                                                .executes(this::profile)))));
     }
 
     private int toggle(CommandContext<ServerCommandSource> context) {
         boolean current = ConfigManager.getBoolean("mosbergapi", "debug_mode");
         ConfigManager.set("mosbergapi", "debug_mode", !current);
-        ConfigManager.save("mosbergapi", "main");
+        ConfigManager.saveAsync("mosbergapi", "main");
 
         sendSuccess(context, "Debug mode: " + (!current ? "ON" : "OFF"));
         return 1;
     }
 
     private int memory(CommandContext<ServerCommandSource> context) {
-        Runtime runtime = Runtime.getRuntime();
-        long maxMemory = runtime.maxMemory() / 1024 / 1024;
-        long totalMemory = runtime.totalMemory() / 1024 / 1024;
-        long freeMemory = runtime.freeMemory() / 1024 / 1024;
-        long usedMemory = totalMemory - freeMemory;
-
-        sendInfo(context, "Memory Usage:");
-        sendInfo(context, "  Used: " + usedMemory + " MB");
-        sendInfo(context, "  Free: " + freeMemory + " MB");
-        sendInfo(context, "  Total: " + totalMemory + " MB");
-        sendInfo(context, "  Max: " + maxMemory + " MB");
-        sendInfo(context, "  Usage: " + (usedMemory * 100 / maxMemory) + "%");
+        sendInfo(context, "Memory Pools:");
+        for (MemoryDiagnostics.PoolUsage pool : MemoryDiagnostics.getPools()) {
+            sendInfo(context, String.format("  %s %s: %s used, %s committed, %s max",
+                    pool.heap() ? "[heap]" : "[non-heap]", pool.name(), megabytes(pool.used()),
+                    megabytes(pool.committed()), megabytes(pool.max())));
+        }
+        for (MemoryDiagnostics.BufferUsage buffer : MemoryDiagnostics.getBufferPools()) {
+            sendInfo(context, String.format("  [buffer] %s: %s used by %d buffers",
+                    buffer.name(), megabytes(buffer.used()), buffer.count()));
+        }
 
+        MemoryDiagnostics.AllocationRate rate = MemoryDiagnostics.getAllocationRate();
+        if (rate.totalBytesPerSecond() >= 0) {
+            sendInfo(context, String.format("Allocation Rate: %s/s total, %s/s server thread",
+                    megabytes(rate.totalBytesPerSecond()),
+                    megabytes(rate.serverBytesPerSecond())));
+        } else {
+            sendInfo(context, "Allocation Rate: not measured yet");
+        }
+
+        sendInfo(context, "Collectors:");
+        for (MemoryDiagnostics.CollectorTotals collector : MemoryDiagnostics.getCollectors()) {
+            sendInfo(context, String.format("  %s: %d collections, %d ms", collector.name(),
+                    collector.count(), collector.timeMillis()));
+        }
+
+        return 1;
+    }
+
+    private int gcHistory(CommandContext<ServerCommandSource> context) {
+        List<MemoryDiagnostics.GcEvent> history = MemoryDiagnostics.getGcHistory();
+        if (history.isEmpty()) {
+            sendInfo(context, "No garbage collections recorded yet");
+            return 1;
+        }
+
+        long now = System.currentTimeMillis();
+        sendInfo(context, "Recent Garbage Collections:");
+        for (MemoryDiagnostics.GcEvent event : history.subList(0, Math.min(10,
+                history.size()))) {
+            sendInfo(context, String.format("  %ds ago %s (%s): %d ms, freed %s",
+                    (now - event.timestamp()) / 1000, event.collector(), event.cause(),
+                    event.durationMillis(), megabytes(event.freed())));
+        }
+        return 1;
+    }
+
+    private int allocations(CommandContext<ServerCommandSource> context) {
+        int seconds = IntegerArgumentType.getInteger(context, "seconds");
+        try {
+            AllocationSampler.start(context.getSource().getServer(), seconds)
+                    .thenAccept(report -> sendAllocations(context, report));
+        } catch (IllegalStateException e) {
+            sendError(context, e.getMessage());
+            return 0;
+        }
+
+        sendInfo(context, "Sampling allocations for " + seconds + " seconds...");
+        return 1;
+    }
+
+    private int stopAllocations(CommandContext<ServerCommandSource> context) {
+        if (!AllocationSampler.stop()) {
+            sendError(context, "Allocations are not being sampled");
+            return 0;
+        }
+        sendInfo(context, "Stopping allocation sampling...");
         return 1;
     }
 
+    private void sendAllocations(CommandContext<ServerCommandSource> context,
+            AllocationSampler.Report report) {
+        sendSuccess(context, String.format("Allocations: %s sampled, %s in MosbergAPI",
+                megabytes(report.totalBytes()), megabytes(report.apiBytes())));
+        for (AllocationSampler.Site site : report.sites().subList(0,
+                Math.min(10, report.sites().size()))) {
+            sendInfo(context, "  - " + site.frame() + ": " + megabytes(site.bytes()));
+        }
+    }
+
+    private int gcWarning(CommandContext<ServerCommandSource> context) {
+        sendError(context, "A full garbage collection pauses the server until it finishes. "
+                + "Run '/mosbergapi debug gc confirm' to force one anyway.");
+        return 0;
+    }
+
     private int gc(CommandContext<ServerCommandSource> context) {
-        sendInfo(context, "Running garbage collection...");
-        long before = Runtime.getRuntime().freeMemory();
-        System.gc();
-        long after = Runtime.getRuntime().freeMemory();
-        long freed = (after - before) / 1024 / 1024;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        long start = System.nanoTime();
+        memory.gc();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long freed = before - memory.getHeapMemoryUsage().getUsed();
 
-        sendSuccess(context, "Freed " + freed + " MB of memory");
+        sendSuccess(context, "Freed " + megabytes(freed) + " in " + millis + " ms");
         return 1;
     }
 
+    private static String megabytes(long bytes) {
+        return bytes < 0 ? "-" : String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
     private int info(CommandContext<ServerCommandSource> context) {
         sendInfo(context, "System Information:");
         sendInfo(context, "  Java Version: " + System.getProperty("java.version"));
@@ -96,4 +206,60 @@ public class DebugCommand extends MosbergCommand {
 
         return 1;
     }
+
+    private int profile(CommandContext<ServerCommandSource> context) {
+        int seconds = IntegerArgumentType.getInteger(context, "seconds");
+        try {
+            TickProfiler.start(context.getSource().getServer(), seconds)
+                    .whenComplete((report, error) -> {
+                        if (error != null) {
+                            sendError(context, "Profiling failed: " + error.getMessage());
+                        } else {
+                            sendReport(context, report);
+                        }
+                    });
+        } catch (IllegalStateException e) {
+            sendError(context, e.getMessage());
+            return 0;
+        }
+
+        sendInfo(context, "Profiling the server thread for " + seconds + " seconds...");
+        return 1;
+    }
+
+    private int stopProfile(CommandContext<ServerCommandSource> context) {
+        if (!TickProfiler.stop()) {
+            sendError(context, "No profile is being recorded");
+            return 0;
+        }
+        sendInfo(context, "Stopping profile...");
+        return 1;
+    }
+
+    private void sendReport(CommandContext<ServerCommandSource> context,
+            TickProfiler.Report report) {
+        sendSuccess(context, String.format("Profile complete: %d samples, server busy %.1f%%",
+                report.samples(), report.busyPercent()));
+        sendSection(context, report, "Worlds", report.worlds());
+        sendSection(context, report, "Mods", report.mods());
+        sendSection(context, report, "Entity types", report.entityTypes());
+        sendSection(context, report, "Block entity types", report.blockEntityTypes());
+        sendSection(context, report, "Chunks", report.chunks());
+        if (report.stackFile() != null) {
+            sendInfo(context, "Collapsed stacks: " + report.stackFile());
+        }
+    }
+
+    private void sendSection(CommandContext<ServerCommandSource> context,
+            TickProfiler.Report report, String title, List<TickProfiler.Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        sendInfo(context, title + ":");
+        for (TickProfiler.Entry entry : entries.subList(0, Math.min(5, entries.size()))) {
+            sendInfo(context, String.format("  - %s: %.1f%%", entry.name(),
+                    report.percentOfTick(entry)));
+        }
+    }
 }
@@ -1,10 +1,15 @@
 package dk.mosberg.api.command.commands;
 
+import java.util.Collection;
 import org.jetbrains.annotations.NotNull;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import dk.mosberg.api.command.MosbergCommand;
+import dk.mosberg.api.entity.EntityCensus;
+import dk.mosberg.api.entity.EntityRemovalQueue;
+import dk.mosberg.api.entity.RemovalJob;
 import dk.mosberg.api.util.MosbergHelper;
 import net.minecraft.command.CommandRegistryAccess;
 import net.minecraft.command.argument.EntityArgumentType;
@@ -28,12 +33,23 @@ import net.minecraft.util.math.Vec3d;
  * <ul>
  * <li>{@code /mosbergapi entity spawn <type> [x] [y] [z]} - Spawn an entity</li>
  * <li>{@code /mosbergapi entity kill <selector>} - Kill entities</li>
+ * <li>{@code /mosbergapi entity kill <selector> batched|discard} - Kill non-player entities, or
+ * discard them without drops, spread across ticks by the {@link EntityRemovalQueue}</li>
+ * <li>{@code /mosbergapi entity kill within <radius> [type]} - Kill non-player entities near
+ * you</li>
  * <li>{@code /mosbergapi entity teleport <entity> <x> <y> <z>} - Teleport entity</li>
  * <li>{@code /mosbergapi entity heal <entity> [amount]} - Heal an entity</li>
- * <li>{@code /mosbergapi entity count [type]} - Count entities</li>
- * <li>{@code /mosbergapi entity list} - List nearby entities</li>
+ * <li>{@code /mosbergapi entity count [type] [radius]} - Count entities in the world or near
+ * you</li>
+ * <li>{@code /mosbergapi entity list [radius]} - List nearby entities</li>
+ * <li>{@code /mosbergapi entity census [count]} - Show the most common types and most crowded
+ * chunks</li>
  * </ul>
  *
+ * <p>
+ * World-wide counts come from the live {@link EntityCensus}; radius queries only visit the entity
+ * sections they overlap.
+ *
  * @author Mosberg
  * @version 1.0.0
  * @since 1.0.0
@@ -68,9 +84,23 @@ public class EntityCommand extends MosbergCommand {
                                                                 .executes(
                                                                         this::spawnAtPosition))))))
                         .then(CommandManager.literal("kill")
+                                .then(CommandManager.literal("within").then(CommandManager
+                                        .argument("radius", IntegerArgumentType.integer(1, 512))
+                                        .executes(context -> killWithin(context, null))
+                                        .then(CommandManager
+                                                .argument("type",
+                                                        RegistryEntryReferenceArgumentType
+                                                                .registryEntry(registryAccess,
+                                                                        RegistryKeys.ENTITY_TYPE))
+                                                .executes(context -> killWithin(context,
+                                                        getEntityType(context))))))
                                 .then(CommandManager
                                         .argument("entities", EntityArgumentType.entities())
-                                        .executes(this::kill)))
+                                        .executes(this::kill)
+                                        .then(CommandManager.literal("batched")
+                                                .executes(context -> killBatched(context, true)))
+                                        .then(CommandManager.literal("discard")
+                                                .executes(context -> killBatched(context, false)))))
                         .then(CommandManager.literal("teleport").then(CommandManager
                                 .argument("entity", EntityArgumentType.entity())
                                 .then(CommandManager.argument("x", IntegerArgumentType.integer())
@@ -94,8 +124,22 @@ public class EntityCommand extends MosbergCommand {
                                         .argument("type",
                                                 RegistryEntryReferenceArgumentType.registryEntry(
                                                         registryAccess, RegistryKeys.ENTITY_TYPE))
-                                        .executes(this::countType)))
-                        .then(CommandManager.literal("list").executes(this::list))));
+                                        .executes(this::countType)
+                                        .then(CommandManager
+                                                .argument("radius",
+                                                        IntegerArgumentType.integer(1, 512))
+                                                .executes(this::countTypeWithin))))
+                        .then(CommandManager.literal("census")
+                                .executes(context -> census(context, 10))
+                                .then(CommandManager
+                                        .argument("count", IntegerArgumentType.integer(1, 100))
+                                        .executes(context -> census(context, IntegerArgumentType
+                                                .getInteger(context, "count")))))
+                        .then(CommandManager.literal("list").executes(context -> list(context, 32))
+                                .then(CommandManager
+                                        .argument("radius", IntegerArgumentType.integer(1, 512))
+                                        .executes(context -> list(context, IntegerArgumentType
+                                                .getInteger(context, "radius")))))));
     }
 
     private int spawnAtExecutor(CommandContext<ServerCommandSource> context) {
@@ -198,34 +242,82 @@ public class EntityCommand extends MosbergCommand {
         }
     }
 
+    private int killBatched(CommandContext<ServerCommandSource> context, boolean kill) {
+        try {
+            var entities = EntityArgumentType.getEntities(context, "entities");
+            return submitRemoval(context, entities, kill, "");
+        } catch (Exception e) {
+            sendError(context, "Failed to kill entities: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private int killWithin(CommandContext<ServerCommandSource> context,
+            EntityType<?> entityType) {
+        try {
+            ServerWorld world = context.getSource().getWorld();
+            int radius = IntegerArgumentType.getInteger(context, "radius");
+            var entities = MosbergHelper.ENTITY.getEntitiesInRadius(world,
+                    context.getSource().getPosition(), radius, entityType, Integer.MAX_VALUE);
+
+            return submitRemoval(context, entities, true, " within " + radius + " blocks");
+        } catch (Exception e) {
+            sendError(context, "Failed to kill entities: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private int submitRemoval(CommandContext<ServerCommandSource> context,
+            Collection<? extends Entity> entities, boolean kill, String where) {
+        RemovalJob job = EntityRemovalQueue.submit(entities, kill);
+        String action = kill ? "Killed " : "Discarded ";
+
+        sendInfo(context, "Removing " + job.getTotal() + " entities" + where + " across ticks...");
+        job.getFuture().whenComplete((done, error) -> {
+            if (error != null) {
+                sendError(context, "Failed to remove entities: " + error.getMessage());
+            } else if (done.isCancelled()) {
+                sendError(context, "Removal cancelled after " + done.getRemoved() + " entities");
+            } else {
+                sendSuccess(context, action + done.getRemoved() + " entities" + where + " in "
+                        + done.getTicks() + " ticks");
+            }
+        });
+        return job.getTotal();
+    }
+
     private int countAll(CommandContext<ServerCommandSource> context) {
         ServerWorld world = context.getSource().getWorld();
-        int count = 0;
-        for (@SuppressWarnings("unused")
-        Entity entity : world.iterateEntities()) {
-            count++;
-        }
+        int count = MosbergHelper.ENTITY.countEntities(world);
         sendInfo(context, "Total entities in world: " + count);
         return count;
     }
 
     private int countType(CommandContext<ServerCommandSource> context) {
         try {
-            RegistryEntry.Reference<EntityType<?>> entityTypeEntry =
-                    RegistryEntryReferenceArgumentType.getRegistryEntry(context, "type",
-                            RegistryKeys.ENTITY_TYPE);
-            EntityType<?> entityType = entityTypeEntry.value();
+            EntityType<?> entityType = getEntityType(context);
             ServerWorld world = context.getSource().getWorld();
 
-            int count = 0;
-            for (Entity entity : world.iterateEntities()) {
-                if (entity.getType() == entityType) {
-                    count++;
-                }
-            }
+            int count = MosbergHelper.ENTITY.countEntities(world, entityType);
+            sendInfo(context, "Found " + count + " entities of type "
+                    + EntityType.getId(entityType));
+            return count;
+        } catch (Exception e) {
+            sendError(context, "Failed to count entities: " + e.getMessage());
+            return 0;
+        }
+    }
 
+    private int countTypeWithin(CommandContext<ServerCommandSource> context) {
+        try {
+            EntityType<?> entityType = getEntityType(context);
+            ServerWorld world = context.getSource().getWorld();
+            int radius = IntegerArgumentType.getInteger(context, "radius");
+
+            int count = MosbergHelper.ENTITY.countEntitiesInRadius(world,
+                    context.getSource().getPosition(), radius, entityType);
             sendInfo(context, "Found " + count + " entities of type "
-                    + entityTypeEntry.registryKey().getValue());
+                    + EntityType.getId(entityType) + " within " + radius + " blocks");
             return count;
         } catch (Exception e) {
             sendError(context, "Failed to count entities: " + e.getMessage());
@@ -233,25 +325,22 @@ public class EntityCommand extends MosbergCommand {
         }
     }
 
-    private int list(CommandContext<ServerCommandSource> context) {
+    private int list(CommandContext<ServerCommandSource> context, int radius) {
         ServerWorld world = context.getSource().getWorld();
         Vec3d pos = context.getSource().getPosition();
 
-        sendInfo(context, "Nearby entities (within 32 blocks):");
-        int count = 0;
-        for (Entity entity : world.iterateEntities()) {
-            double distance = entity.squaredDistanceTo(pos);
-            if (distance <= 32 * 32) {
-                String info = String.format("  - %s at (%.1f, %.1f, %.1f)",
-                        entity.getType().getName().getString(), entity.getX(), entity.getY(),
-                        entity.getZ());
-                sendInfo(context, info);
-                count++;
-                if (count >= 20) {
-                    sendInfo(context, "  ... (showing first 20)");
-                    break;
-                }
-            }
+        sendInfo(context, "Nearby entities (within " + radius + " blocks):");
+        var entities = MosbergHelper.ENTITY.getEntitiesInRadius(world, pos, radius, null, 21);
+        int count = Math.min(entities.size(), 20);
+        for (int i = 0; i < count; i++) {
+            Entity entity = entities.get(i);
+            String info = String.format("  - %s at (%.1f, %.1f, %.1f)",
+                    entity.getType().getName().getString(), entity.getX(), entity.getY(),
+                    entity.getZ());
+            sendInfo(context, info);
+        }
+        if (entities.size() > 20) {
+            sendInfo(context, "  ... (showing first 20)");
         }
 
         if (count == 0) {
@@ -259,4 +348,29 @@ public class EntityCommand extends MosbergCommand {
         }
         return count;
     }
+
+    private int census(CommandContext<ServerCommandSource> context, int limit) {
+        ServerWorld world = context.getSource().getWorld();
+        int total = EntityCensus.getTotal(world);
+
+        sendInfo(context, "Entity census for " + world.getRegistryKey().getValue() + ": " + total
+                + " entities");
+        sendInfo(context, "Top types:");
+        for (EntityCensus.TypeCount entry : EntityCensus.getTopTypes(world, limit)) {
+            sendInfo(context, "  - " + EntityType.getId(entry.type()) + ": " + entry.count());
+        }
+        sendInfo(context, "Most crowded chunks:");
+        for (EntityCensus.ChunkCount entry : EntityCensus.getHottestChunks(world, limit)) {
+            sendInfo(context, String.format("  - [%d, %d] (blocks %d, %d): %d", entry.pos().x,
+                    entry.pos().z, entry.pos().getStartX(), entry.pos().getStartZ(),
+                    entry.count()));
+        }
+        return total;
+    }
+
+    private static EntityType<?> getEntityType(CommandContext<ServerCommandSource> context)
+            throws CommandSyntaxException {
+        return RegistryEntryReferenceArgumentType
+                .getRegistryEntry(context, "type", RegistryKeys.ENTITY_TYPE).value();
+    }
 }
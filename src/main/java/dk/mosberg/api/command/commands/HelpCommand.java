@@ -51,6 +51,7 @@ public class HelpCommand extends MosbergCommand {
         sendInfo(context, "§e/mosbergapi block §7- Block utilities");
         sendInfo(context, "§e/mosbergapi world §7- World utilities");
         sendInfo(context, "§e/mosbergapi debug §7- Debug tools");
+        sendInfo(context, "§e/mosbergapi jobs §7- List and cancel jobs and entity removals");
         sendInfo(context, "§7Use §e/mosbergapi help <command> §7for more info");
 
         return 1;
@@ -0,0 +1,104 @@
+package dk.mosberg.api.command.commands;
+
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import dk.mosberg.api.command.AsyncCommandJob;
+import dk.mosberg.api.command.AsyncCommands;
+import dk.mosberg.api.command.MosbergCommand;
+import dk.mosberg.api.entity.EntityRemovalQueue;
+import dk.mosberg.api.entity.RemovalJob;
+import net.minecraft.command.CommandRegistryAccess;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+
+/**
+ * Command for inspecting and cancelling asynchronous command jobs and batched entity removals.
+ *
+ * <h2>Usage</h2>
+ * <ul>
+ * <li>{@code /mosbergapi jobs} - List running jobs and entity removals</li>
+ * <li>{@code /mosbergapi jobs cancel <id>} - Cancel a job</li>
+ * <li>{@code /mosbergapi jobs cancel removals} - Cancel every entity removal</li>
+ * <li>{@code /mosbergapi jobs cancel all} - Cancel every job and entity removal</li>
+ * </ul>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class JobsCommand extends MosbergCommand {
+
+    @Override
+    @NotNull
+    public String getName() {
+        return "jobs";
+    }
+
+    @Override
+    public void register(@NotNull CommandDispatcher<ServerCommandSource> dispatcher,
+            @NotNull CommandRegistryAccess registryAccess,
+            @NotNull CommandManager.RegistrationEnvironment environment) {
+        dispatcher.register(CommandManager.literal("mosbergapi")
+                .requires(source -> hasPermission(source))
+                .then(CommandManager.literal("jobs").executes(this::list)
+                        .then(CommandManager.literal("cancel")
+                                .then(CommandManager.literal("all").executes(this::cancelAll))
+                                .then(CommandManager.literal("removals")
+                                        .executes(this::cancelRemovals))
+                                .then(CommandManager.argument("id", IntegerArgumentType.integer(1))
+                                        .executes(this::cancel)))));
+    }
+
+    private int list(CommandContext<ServerCommandSource> context) {
+        List<AsyncCommandJob> jobs = AsyncCommands.getJobs();
+        List<RemovalJob> removals = EntityRemovalQueue.getJobs();
+        if (jobs.isEmpty() && removals.isEmpty()) {
+            sendInfo(context, "No command jobs are running");
+            return 1;
+        }
+
+        if (!jobs.isEmpty()) {
+            sendInfo(context, "Running command jobs:");
+            for (AsyncCommandJob job : jobs) {
+                sendInfo(context, String.format("  #%d %s (%.1fs)", job.getId(),
+                        job.getDescription(), job.getAgeMillis() / 1000.0));
+            }
+        }
+        if (!removals.isEmpty()) {
+            sendInfo(context, "Running entity removals (cancel with 'jobs cancel removals'):");
+            for (RemovalJob removal : removals) {
+                sendInfo(context, String.format("  %s %d/%d entities (%d ticks)",
+                        removal.isKill() ? "Killing" : "Discarding", removal.getRemoved(),
+                        removal.getTotal(), removal.getTicks()));
+            }
+        }
+        return jobs.size() + removals.size();
+    }
+
+    private int cancel(CommandContext<ServerCommandSource> context) {
+        int id = IntegerArgumentType.getInteger(context, "id");
+        AsyncCommandJob job = AsyncCommands.getJob(id);
+        if (job == null || !job.cancel()) {
+            sendError(context, "No running job with id " + id);
+            return 0;
+        }
+
+        sendSuccess(context, "Cancelled job #" + id + ": " + job.getDescription());
+        return 1;
+    }
+
+    private int cancelAll(CommandContext<ServerCommandSource> context) {
+        int cancelled = AsyncCommands.cancelAll() + EntityRemovalQueue.cancelAll();
+        sendSuccess(context, "Cancelled " + cancelled + " jobs");
+        return cancelled;
+    }
+
+    private int cancelRemovals(CommandContext<ServerCommandSource> context) {
+        int cancelled = EntityRemovalQueue.cancelAll();
+        sendSuccess(context, "Cancelled " + cancelled + " entity removals");
+        return cancelled;
+    }
+}
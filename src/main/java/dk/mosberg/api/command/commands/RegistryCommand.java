@@ -1,15 +1,24 @@
 package dk.mosberg.api.command.commands;
 
+import java.util.Map;
+import java.util.function.IntFunction;
 import org.jetbrains.annotations.NotNull;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import dk.mosberg.api.command.MosbergCommand;
+import dk.mosberg.api.registry.RegistryIndex;
 import net.minecraft.command.CommandRegistryAccess;
 import net.minecraft.registry.Registries;
 import net.minecraft.registry.Registry;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.ClickEvent;
+import net.minecraft.text.HoverEvent;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
 
 /**
@@ -17,17 +26,28 @@ import net.minecraft.util.Identifier;
  *
  * <h2>Usage</h2>
  * <ul>
- * <li>{@code /mosbergapi registry list <type>} - List all entries in a registry</li>
- * <li>{@code /mosbergapi registry count <type>} - Count entries in a registry</li>
- * <li>{@code /mosbergapi registry search <type> <query>} - Search registry entries</li>
+ * <li>{@code /mosbergapi registry list <type> [page]} - List the entries of a registry, one page
+ * at a time</li>
+ * <li>{@code /mosbergapi registry count <type>} - Count entries in a registry, per namespace</li>
+ * <li>{@code /mosbergapi registry search <type> <query>} - Search registry entries; a query with
+ * {@code :} matches an identifier prefix such as {@code minecraft:oak_}, anything else a
+ * substring</li>
+ * <li>{@code /mosbergapi registry search page <page> <type> <query>} - Show another page of
+ * results</li>
  * <li>{@code /mosbergapi registry info <type> <id>} - Get info about a registry entry</li>
  * </ul>
  *
+ * <p>
+ * Listings and searches are served from a {@link RegistryIndex}, built and queried off the server
+ * thread, and sent as one message per page with clickable links to the neighbouring pages and to
+ * each entry's info.
+ *
  * @author Mosberg
  * @version 1.0.0
  * @since 1.0.0
  */
 public class RegistryCommand extends MosbergCommand {
+    private static final int PAGE_SIZE = 10;
 
     @Override
     @NotNull
@@ -54,7 +74,11 @@ public class RegistryCommand extends MosbergCommand {
                                                     builder.suggest("potions");
                                                     builder.suggest("effects");
                                                     return builder.buildFuture();
-                                                }).executes(this::list)))
+                                                }).executes(this::list)
+                                                .then(CommandManager
+                                                        .argument("page",
+                                                                IntegerArgumentType.integer(1))
+                                                        .executes(this::listPage))))
                                 .then(CommandManager.literal("count")
                                         .then(CommandManager
                                                 .argument("type", StringArgumentType.word())
@@ -69,6 +93,22 @@ public class RegistryCommand extends MosbergCommand {
                                                     return builder.buildFuture();
                                                 }).executes(this::count)))
                                 .then(CommandManager.literal("search")
+                                        // Paging sits before the type, so no query is shadowed
+                                        .then(CommandManager.literal("page").then(CommandManager
+                                                .argument("page", IntegerArgumentType.integer(1))
+                                                .then(CommandManager
+                                                        .argument("type",
+                                                                StringArgumentType.word())
+                                                        .suggests((context, builder) -> {
+                                                            builder.suggest("blocks");
+                                                            builder.suggest("items");
+                                                            builder.suggest("entities");
+                                                            return builder.buildFuture();
+                                                        }).then(CommandManager
+                                                                .argument("query",
+                                                                        StringArgumentType
+                                                                                .greedyString())
+                                                                .executes(this::searchPage)))))
                                         .then(CommandManager
                                                 .argument("type", StringArgumentType.word())
                                                 .suggests((context, builder) -> {
@@ -76,12 +116,12 @@ public class RegistryCommand extends MosbergCommand {
                                                     builder.suggest("items");
                                                     builder.suggest("entities");
                                                     return builder.buildFuture();
-                                                }).then(
-                                                        CommandManager
-                                                                .argument("query",
-                                                                        StringArgumentType
-                                                                                .greedyString())
-                                                                .executes(this::search))))
+                                                })
+                                                .then(CommandManager
+                                                        .argument("query",
+                                                                StringArgumentType
+                                                                        .greedyString())
+                                                        .executes(this::search))))
                                 .then(CommandManager.literal("info")
                                         .then(CommandManager
                                                 .argument("type", StringArgumentType.word())
@@ -99,6 +139,14 @@ public class RegistryCommand extends MosbergCommand {
     }
 
     private int list(CommandContext<ServerCommandSource> context) {
+        return list(context, 1);
+    }
+
+    private int listPage(CommandContext<ServerCommandSource> context) {
+        return list(context, IntegerArgumentType.getInteger(context, "page"));
+    }
+
+    private int list(CommandContext<ServerCommandSource> context, int page) {
         String type = StringArgumentType.getString(context, "type");
         Registry<?> registry = getRegistry(type);
 
@@ -107,17 +155,10 @@ public class RegistryCommand extends MosbergCommand {
             return 0;
         }
 
-        sendInfo(context, "Listing " + type + " registry (showing first 20):");
-        int count = 0;
-        for (Identifier id : registry.getIds()) {
-            if (count++ >= 20) {
-                sendInfo(context, "  ... and " + (registry.size() - 20) + " more");
-                break;
-            }
-            sendInfo(context, "  - " + id);
-        }
-
-        return 1;
+        return executeAsync(context, "list " + type, () -> registry,
+                (snapshot, job) -> RegistryIndex.of(snapshot).all(),
+                (ctx, result) -> sendPage(ctx, type, "Listing " + type + " registry", result,
+                        page, next -> "/mosbergapi registry list " + type + " " + next));
     }
 
     private int count(CommandContext<ServerCommandSource> context) {
@@ -129,13 +170,27 @@ public class RegistryCommand extends MosbergCommand {
             return 0;
         }
 
-        sendSuccess(context, type + " registry contains " + registry.size() + " entries");
-        return 1;
+        return executeAsync(context, "count " + type, () -> registry,
+                (snapshot, job) -> RegistryIndex.of(snapshot), (ctx, index) -> {
+                    sendSuccess(ctx, type + " registry contains " + index.size() + " entries");
+                    for (Map.Entry<String, Integer> entry : index.getNamespaceCounts()
+                            .entrySet()) {
+                        sendInfo(ctx, "  - " + entry.getKey() + ": " + entry.getValue());
+                    }
+                });
     }
 
     private int search(CommandContext<ServerCommandSource> context) {
+        return search(context, 1);
+    }
+
+    private int searchPage(CommandContext<ServerCommandSource> context) {
+        return search(context, IntegerArgumentType.getInteger(context, "page"));
+    }
+
+    private int search(CommandContext<ServerCommandSource> context, int page) {
         String type = StringArgumentType.getString(context, "type");
-        String query = StringArgumentType.getString(context, "query").toLowerCase();
+        String query = StringArgumentType.getString(context, "query");
         Registry<?> registry = getRegistry(type);
 
         if (registry == null) {
@@ -143,26 +198,55 @@ public class RegistryCommand extends MosbergCommand {
             return 0;
         }
 
-        sendInfo(context, "Searching " + type + " for '" + query + "':");
-        int found = 0;
-        for (Identifier id : registry.getIds()) {
-            if (id.toString().toLowerCase().contains(query)) {
-                sendInfo(context, "  - " + id);
-                found++;
-                if (found >= 20) {
-                    sendInfo(context, "  ... (showing first 20 results)");
-                    break;
-                }
-            }
+        return executeAsync(context, "search " + type + " for '" + query + "'", () -> registry,
+                (snapshot, job) -> RegistryIndex.of(snapshot).search(query), (ctx, result) -> {
+                    if (result.isEmpty()) {
+                        sendError(ctx, "No results found");
+                        return;
+                    }
+                    sendPage(ctx, type, "Found " + result.size() + " results for '" + query
+                            + "'", result, page,
+                            next -> "/mosbergapi registry search page " + next + " " + type + " "
+                                    + query);
+                });
+    }
+
+    private void sendPage(CommandContext<ServerCommandSource> context, String type, String title,
+            RegistryIndex.Result result, int page, IntFunction<String> pageCommand) {
+        int pages = result.pageCount(PAGE_SIZE);
+        int current = Math.min(page, pages);
+
+        MutableText message = Text.literal("§e[MosbergAPI] " + title + " (page " + current + "/"
+                + pages + "):");
+        for (Identifier id : result.page(current - 1, PAGE_SIZE)) {
+            message.append(Text.literal("\n  - ")).append(Text.literal(id.toString())
+                    .styled(style -> style
+                            .withClickEvent(new ClickEvent.RunCommand(
+                                    "/mosbergapi registry info " + type + " " + id))
+                            .withHoverEvent(new HoverEvent.ShowText(
+                                    Text.literal("Show info for " + id)))));
+        }
+
+        if (pages > 1) {
+            message.append(Text.literal("\n  "));
+            message.append(pageLink("« Previous", current > 1, pageCommand, current - 1));
+            message.append(Text.literal(" | "));
+            message.append(pageLink("Next »", current < pages, pageCommand, current + 1));
         }
+        context.getSource().sendFeedback(() -> message, false);
+    }
 
-        if (found == 0) {
-            sendError(context, "No results found");
-            return 0;
+    private static MutableText pageLink(String label, boolean enabled,
+            IntFunction<String> pageCommand, int page) {
+        if (!enabled) {
+            return Text.literal(label).formatted(Formatting.DARK_GRAY);
         }
 
-        sendSuccess(context, "Found " + found + " results");
-        return 1;
+        String command = pageCommand.apply(page);
+        return Text.literal(label).formatted(Formatting.AQUA, Formatting.UNDERLINE)
+                .styled(style -> style.withClickEvent(new ClickEvent.RunCommand(command))
+                        .withHoverEvent(new HoverEvent.ShowText(Text.literal("Go to page "
+                                + page))));
     }
 
     private int info(CommandContext<ServerCommandSource> context) {
@@ -1,15 +1,35 @@
 package dk.mosberg.api.command.commands;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 import org.jetbrains.annotations.NotNull;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import dk.mosberg.api.command.MosbergCommand;
 import dk.mosberg.api.util.WorldHelper;
+import dk.mosberg.api.world.RegionScanResult;
+import dk.mosberg.api.world.RegionScanner;
+import dk.mosberg.api.world.WorldStats;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
 import net.minecraft.command.CommandRegistryAccess;
+import net.minecraft.command.argument.RegistryEntryPredicateArgumentType;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ChunkLevelType;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.ClickEvent;
+import net.minecraft.text.HoverEvent;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.biome.Biome;
 
 /**
  * Command for world utilities and information.
@@ -21,6 +41,13 @@ import net.minecraft.util.math.Vec3d;
  * <li>{@code /mosbergapi world weather <clear|rain|thunder>} - Set weather</li>
  * <li>{@code /mosbergapi world difficulty <peaceful|easy|normal|hard>} - Set difficulty</li>
  * <li>{@code /mosbergapi world seed} - Get world seed</li>
+ * <li>{@code /mosbergapi world stats} - Show chunk, block entity and entity statistics per
+ * dimension</li>
+ * <li>{@code /mosbergapi world stats json} - Export the statistics as one line of JSON</li>
+ * <li>{@code /mosbergapi world scan block <block|#tag> <radius>} - Find and count blocks in the
+ * loaded chunks around you</li>
+ * <li>{@code /mosbergapi world scan biome <biome|#tag> <radius>} - Find and count biome cells in
+ * the loaded chunks around you</li>
  * </ul>
  *
  * @author Mosberg
@@ -28,6 +55,7 @@ import net.minecraft.util.math.Vec3d;
  * @since 1.0.0
  */
 public class WorldCommand extends MosbergCommand {
+    private static final int MAX_SCAN_POSITIONS = 10;
 
     @Override
     @NotNull
@@ -44,7 +72,26 @@ public class WorldCommand extends MosbergCommand {
                 .then(CommandManager.literal("world")
                         .then(CommandManager.literal("info").executes(this::info))
                         .then(CommandManager.literal("seed").executes(this::seed))
-                        .then(CommandManager.literal("dimension").executes(this::dimension))));
+                        .then(CommandManager.literal("dimension").executes(this::dimension))
+                        .then(CommandManager.literal("stats").executes(this::stats)
+                                .then(CommandManager.literal("json").executes(this::statsJson)))
+                        .then(CommandManager.literal("scan")
+                                .then(CommandManager.literal("block").then(CommandManager
+                                        .argument("block", RegistryEntryPredicateArgumentType
+                                                .registryEntryPredicate(registryAccess,
+                                                        RegistryKeys.BLOCK))
+                                        .then(CommandManager
+                                                .argument("radius",
+                                                        IntegerArgumentType.integer(1, 4096))
+                                                .executes(this::scanBlocks))))
+                                .then(CommandManager.literal("biome").then(CommandManager
+                                        .argument("biome", RegistryEntryPredicateArgumentType
+                                                .registryEntryPredicate(registryAccess,
+                                                        RegistryKeys.BIOME))
+                                        .then(CommandManager
+                                                .argument("radius",
+                                                        IntegerArgumentType.integer(1, 4096))
+                                                .executes(this::scanBiomes)))))));
     }
 
     private int info(CommandContext<ServerCommandSource> context) {
@@ -82,4 +129,102 @@ public class WorldCommand extends MosbergCommand {
 
         return 1;
     }
+
+    private int stats(CommandContext<ServerCommandSource> context) {
+        for (WorldStats.Snapshot stats : WorldStats.getAll(context.getSource().getServer())) {
+            sendInfo(context, "World Statistics: " + stats.dimension());
+            StringBuilder levels = new StringBuilder();
+            for (Map.Entry<ChunkLevelType, Integer> entry : stats.chunksByLevel().entrySet()) {
+                levels.append(levels.isEmpty() ? "" : ", ")
+                        .append(entry.getKey().name().toLowerCase(Locale.ROOT)).append(' ')
+                        .append(entry.getValue());
+            }
+            sendInfo(context, "  Loaded Chunks: " + stats.loadedChunks() + " (" + levels + ")");
+            sendInfo(context, String.format("  Block Entities: %d (%.2f per chunk)",
+                    stats.blockEntities(), stats.blockEntitiesPerChunk()));
+            sendInfo(context, String.format("  Entities: %d (%.2f per chunk)", stats.entities(),
+                    stats.entitiesPerChunk()));
+            sendInfo(context, String.format("  Chunks/s: %.1f loaded, %.1f unloaded, %.1f new",
+                    stats.loadsPerSecond(), stats.unloadsPerSecond(),
+                    stats.generationsPerSecond()));
+        }
+        return 1;
+    }
+
+    private int statsJson(CommandContext<ServerCommandSource> context) {
+        String json = WorldStats.toJson(context.getSource().getServer()).toString();
+        context.getSource().sendFeedback(() -> Text.literal(json)
+                .styled(style -> style.withClickEvent(new ClickEvent.CopyToClipboard(json))
+                        .withHoverEvent(new HoverEvent.ShowText(
+                                Text.literal("Click to copy")))),
+                false);
+        return 1;
+    }
+
+    private int scanBlocks(CommandContext<ServerCommandSource> context)
+            throws CommandSyntaxException {
+        RegistryEntryPredicateArgumentType.EntryPredicate<Block> predicate =
+                RegistryEntryPredicateArgumentType.getRegistryEntryPredicate(context, "block",
+                        RegistryKeys.BLOCK);
+        int radius = IntegerArgumentType.getInteger(context, "radius");
+        ServerWorld world = context.getSource().getWorld();
+        BlockPos center = BlockPos.ofFloored(context.getSource().getPosition());
+
+        return executeAsync(context, "scan for " + predicate.asString(),
+                () -> RegionScanner.blocks(world, RegionScanner.around(center, radius, world),
+                        state -> predicate.test(state.getRegistryEntry())),
+                (scan, job) -> scan.run(MAX_SCAN_POSITIONS, job::isCancelled),
+                (ctx, result) -> sendScanResult(ctx, predicate.asString(), result,
+                        result.valuesBy(BlockState::getBlock),
+                        block -> block.getName().getString()));
+    }
+
+    private int scanBiomes(CommandContext<ServerCommandSource> context)
+            throws CommandSyntaxException {
+        RegistryEntryPredicateArgumentType.EntryPredicate<Biome> predicate =
+                RegistryEntryPredicateArgumentType.getRegistryEntryPredicate(context, "biome",
+                        RegistryKeys.BIOME);
+        int radius = IntegerArgumentType.getInteger(context, "radius");
+        ServerWorld world = context.getSource().getWorld();
+        BlockPos center = BlockPos.ofFloored(context.getSource().getPosition());
+
+        return executeAsync(context, "scan for " + predicate.asString(),
+                () -> RegionScanner.biomes(world, RegionScanner.around(center, radius, world),
+                        predicate),
+                (scan, job) -> scan.run(MAX_SCAN_POSITIONS, job::isCancelled),
+                (ctx, result) -> sendScanResult(ctx, predicate.asString(), result,
+                        result.values(), RegistryEntry::getIdAsString));
+    }
+
+    private <K> void sendScanResult(CommandContext<ServerCommandSource> context, String target,
+            RegionScanResult<?> result, List<RegionScanResult.ValueCount<K>> values,
+            Function<K, String> names) {
+        sendSuccess(context, String.format(
+                "Found %d matches for %s in %d chunks (%.1f per chunk); %d sections scanned, "
+                        + "%d skipped by palette",
+                result.matches(), target, result.chunks().size(), result.averagePerChunk(),
+                result.sectionsScanned(), result.sectionsSkipped()));
+        if (result.matches() == 0) {
+            return;
+        }
+
+        for (RegionScanResult.ValueCount<K> value : values.subList(0,
+                Math.min(5, values.size()))) {
+            sendInfo(context, "  - " + names.apply(value.value()) + ": " + value.count());
+        }
+        sendInfo(context, "Most matches:");
+        for (RegionScanResult.ChunkCount chunk : result.chunks().subList(0,
+                Math.min(5, result.chunks().size()))) {
+            sendInfo(context, "  - chunk " + chunk.pos().x + ", " + chunk.pos().z + ": "
+                    + chunk.count());
+        }
+        sendInfo(context, "Positions:");
+        for (BlockPos pos : result.positions()) {
+            sendInfo(context, "  - " + pos.toShortString());
+        }
+        if (result.truncated()) {
+            sendInfo(context, "  ... and " + (result.matches() - result.positions().size())
+                    + " more");
+        }
+    }
 }
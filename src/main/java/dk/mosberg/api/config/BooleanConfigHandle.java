@@ -0,0 +1,57 @@
+package dk.mosberg.api.config;
+
+import org.jetbrains.annotations.NotNull;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Compiled, allocation-free handle to a boolean configuration value.
+ *
+ * <p>
+ * Obtain instances through {@link ConfigManager#booleanHandle(String, String)}.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class BooleanConfigHandle extends ConfigHandle {
+    private volatile Cached cached = new Cached(-1L, false);
+
+    BooleanConfigHandle(@NotNull String modId, @NotNull String key) {
+        super(modId, key);
+    }
+
+    /**
+     * Gets the current value.
+     *
+     * @return The configuration value, or false if not found or not a boolean
+     */
+    public boolean get() {
+        long generation = ConfigManager.generation();
+        Cached current = cached;
+        if (current.generation == generation) {
+            return current.value;
+        }
+        return refresh(generation);
+    }
+
+    /**
+     * Gets the value as seen from a world, with its world and dimension overlays applied.
+     *
+     * @param world The world
+     * @return The configuration value, or false if not found
+     */
+    public boolean get(@NotNull ServerWorld world) {
+        Object value = resolve(world);
+        return value instanceof Boolean bool && bool;
+    }
+
+    private boolean refresh(long generation) {
+        Object value = resolve();
+        boolean resolved = value instanceof Boolean bool && bool;
+        cached = new Cached(generation, resolved);
+        return resolved;
+    }
+
+    private record Cached(long generation, boolean value) {
+    }
+}
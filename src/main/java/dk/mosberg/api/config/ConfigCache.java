@@ -0,0 +1,321 @@
+package dk.mosberg.api.config;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Compact binary cache of a mod's parsed configuration files.
+ *
+ * <p>
+ * After {@link ConfigManager#loadAll(String)} parses JSON, the resulting trees are written to
+ * {@code config/mosbergapi/.cache/<modId>.bin} as typed leaf entries together with each source
+ * file's modification time, size and CRC32C. On the next startup the cache is read with a single
+ * memory-mapped read; every file whose fingerprint still matches is restored without touching
+ * the JSON parser, and only changed or new files are parsed again.
+ *
+ * <p>
+ * A file whose modification time changed but whose content hash is identical (for example after a
+ * {@code touch}) is still served from the cache. Any read error simply invalidates the cache.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class ConfigCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigCache.class);
+    private static final int MAGIC = 0x4D424343; // "MBCC"
+    private static final int VERSION = 1;
+
+    private static final byte TAG_BOOLEAN = 'Z';
+    private static final byte TAG_LONG = 'J';
+    private static final byte TAG_DOUBLE = 'D';
+    private static final byte TAG_STRING = 'S';
+    private static final byte TAG_NULL = 'N';
+    private static final byte TAG_EMPTY_OBJECT = 'O';
+    private static final byte TAG_RAW = 'R';
+
+    private ConfigCache() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Identifies the exact source file contents a cached tree was parsed from.
+     *
+     * @param modified The last modification time in milliseconds
+     * @param size The file size in bytes
+     * @param hash The CRC32C of the file contents
+     */
+    record Fingerprint(long modified, long size, int hash) {
+
+        /**
+         * Computes the fingerprint of file contents that were just read.
+         */
+        @NotNull
+        static Fingerprint of(@NotNull BasicFileAttributes attributes, @NotNull byte[] content) {
+            return new Fingerprint(attributes.lastModifiedTime().toMillis(), attributes.size(),
+                    ConfigCache.hash(content));
+        }
+    }
+
+    /**
+     * A cached configuration tree and the fingerprint of its source file.
+     *
+     * @param fingerprint The source file fingerprint
+     * @param json The parsed configuration
+     */
+    record Entry(@NotNull Fingerprint fingerprint, @NotNull JsonObject json) {
+    }
+
+    /**
+     * Reads every still-valid entry for the given configurations.
+     *
+     * @param cacheFile The cache file
+     * @param configDir The directory holding the source JSON files
+     * @param configNames The configurations to look up
+     * @return The valid entries by configuration name; empty if the cache is missing or corrupt
+     */
+    @NotNull
+    static Map<String, Entry> read(@NotNull Path cacheFile, @NotNull Path configDir,
+            @NotNull Collection<String> configNames) {
+        Map<String, Entry> valid = new LinkedHashMap<>();
+        if (!Files.isRegularFile(cacheFile)) {
+            return valid;
+        }
+
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return valid;
+            }
+
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                String configName = readString(buffer);
+                Fingerprint cached =
+                        new Fingerprint(buffer.getLong(), buffer.getLong(), buffer.getInt());
+                JsonObject json = readTree(buffer);
+
+                if (configNames.contains(configName)) {
+                    Fingerprint current =
+                            validate(configDir.resolve(configName + ".json"), cached);
+                    if (current != null) {
+                        valid.put(configName, new Entry(current, json));
+                    }
+                }
+            }
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException
+                | JsonParseException e) {
+            LOGGER.debug("Ignoring unreadable config cache: {}", cacheFile, e);
+            valid.clear();
+        }
+        return valid;
+    }
+
+    /**
+     * Writes the cache, replacing any previous one atomically.
+     *
+     * @param cacheFile The cache file
+     * @param entries The entries to store by configuration name
+     * @throws IOException If the cache cannot be written
+     */
+    static void write(@NotNull Path cacheFile, @NotNull Map<String, Entry> entries)
+            throws IOException {
+        Files.createDirectories(cacheFile.getParent());
+        Path temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                Fingerprint fingerprint = entry.getValue().fingerprint();
+                writeString(out, entry.getKey());
+                out.writeLong(fingerprint.modified());
+                out.writeLong(fingerprint.size());
+                out.writeInt(fingerprint.hash());
+                writeTree(out, entry.getValue().json());
+            }
+        }
+
+        try {
+            Files.move(temp, cacheFile, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Computes the CRC32C of file contents.
+     */
+    static int hash(@NotNull byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Checks a cached fingerprint against the file on disk.
+     *
+     * @return The current fingerprint if the contents are unchanged, otherwise null
+     */
+    private static Fingerprint validate(@NotNull Path file, @NotNull Fingerprint cached)
+            throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attributes.size() != cached.size()) {
+            return null;
+        }
+        if (attributes.lastModifiedTime().toMillis() == cached.modified()) {
+            return cached;
+        }
+
+        // Touched but possibly unchanged: compare contents before giving up on the entry
+        Fingerprint current = Fingerprint.of(attributes, Files.readAllBytes(file));
+        return current.hash() == cached.hash() ? current : null;
+    }
+
+    private static void writeTree(@NotNull DataOutputStream out, @NotNull JsonObject json)
+            throws IOException {
+        List<String> path = new ArrayList<>();
+        List<Object[]> leaves = new ArrayList<>();
+        collectLeaves(json, path, leaves);
+
+        out.writeInt(leaves.size());
+        for (Object[] leaf : leaves) {
+            String[] segments = (String[]) leaf[0];
+            JsonElement element = (JsonElement) leaf[1];
+
+            out.writeShort(segments.length);
+            for (String segment : segments) {
+                writeString(out, segment);
+            }
+            writeLeaf(out, element);
+        }
+    }
+
+    private static void collectLeaves(@NotNull JsonObject json, @NotNull List<String> path,
+            @NotNull List<Object[]> leaves) {
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            path.add(entry.getKey());
+            JsonElement element = entry.getValue();
+            if (element.isJsonObject() && !element.getAsJsonObject().isEmpty()) {
+                collectLeaves(element.getAsJsonObject(), path, leaves);
+            } else {
+                leaves.add(new Object[] {path.toArray(String[]::new), element});
+            }
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private static void writeLeaf(@NotNull DataOutputStream out, @NotNull JsonElement element)
+            throws IOException {
+        if (element.isJsonNull()) {
+            out.writeByte(TAG_NULL);
+        } else if (element.isJsonObject()) {
+            out.writeByte(TAG_EMPTY_OBJECT);
+        } else if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.writeByte(TAG_BOOLEAN);
+                out.writeBoolean(primitive.getAsBoolean());
+            } else if (primitive.isNumber()) {
+                String number = primitive.getAsString();
+                try {
+                    long value = Long.parseLong(number);
+                    out.writeByte(TAG_LONG);
+                    out.writeLong(value);
+                } catch (NumberFormatException e) {
+                    out.writeByte(TAG_DOUBLE);
+                    out.writeDouble(primitive.getAsDouble());
+                }
+            } else {
+                out.writeByte(TAG_STRING);
+                writeString(out, primitive.getAsString());
+            }
+        } else {
+            out.writeByte(TAG_RAW);
+            writeString(out, element.toString());
+        }
+    }
+
+    @NotNull
+    private static JsonObject readTree(@NotNull ByteBuffer buffer) {
+        JsonObject root = new JsonObject();
+        int leafCount = buffer.getInt();
+        for (int i = 0; i < leafCount; i++) {
+            int segmentCount = buffer.getShort();
+            JsonObject parent = root;
+            for (int s = 0; s < segmentCount - 1; s++) {
+                String segment = readString(buffer);
+                JsonElement child = parent.get(segment);
+                if (child == null || !child.isJsonObject()) {
+                    child = new JsonObject();
+                    parent.add(segment, child);
+                }
+                parent = child.getAsJsonObject();
+            }
+            parent.add(readString(buffer), readLeaf(buffer));
+        }
+        return root;
+    }
+
+    @NotNull
+    private static JsonElement readLeaf(@NotNull ByteBuffer buffer) {
+        byte tag = buffer.get();
+        return switch (tag) {
+            case TAG_BOOLEAN -> new JsonPrimitive(buffer.get() != 0);
+            case TAG_LONG -> new JsonPrimitive(buffer.getLong());
+            case TAG_DOUBLE -> new JsonPrimitive(buffer.getDouble());
+            case TAG_STRING -> new JsonPrimitive(readString(buffer));
+            case TAG_NULL -> JsonNull.INSTANCE;
+            case TAG_EMPTY_OBJECT -> new JsonObject();
+            case TAG_RAW -> JsonParser.parseString(readString(buffer));
+            default -> throw new IllegalArgumentException("Unknown cache tag: " + tag);
+        };
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String value)
+            throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @NotNull
+    private static String readString(@NotNull ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
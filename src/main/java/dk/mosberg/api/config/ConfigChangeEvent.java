@@ -0,0 +1,120 @@
+package dk.mosberg.api.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A batch of configuration changes delivered to a subscriber.
+ *
+ * <p>
+ * One event is produced per published change: a single {@code set}, a {@code reset}, or a whole
+ * {@code reload}/{@code reloadAll}. Each subscriber receives only the changes matching its key
+ * pattern, so a subscription to {@code entities.*} sees every changed entity setting of a reload
+ * in one callback.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class ConfigChangeEvent {
+    private final String modId;
+    private final Map<String, Change> changes;
+
+    ConfigChangeEvent(@NotNull String modId, @NotNull Map<String, Change> changes) {
+        this.modId = modId;
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * Gets the mod whose configuration changed.
+     *
+     * @return The mod identifier
+     */
+    @NotNull
+    public String getModId() {
+        return modId;
+    }
+
+    /**
+     * Gets all changes in this batch, keyed by full configuration key.
+     *
+     * @return An unmodifiable map of changes, in publication order
+     */
+    @NotNull
+    public Map<String, Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Checks whether a key changed in this batch.
+     *
+     * @param key The configuration key
+     * @return true if the key changed
+     */
+    public boolean contains(@NotNull String key) {
+        return changes.containsKey(key);
+    }
+
+    /**
+     * Gets the new value of a changed key.
+     *
+     * @param key The configuration key
+     * @return The new value, or null if the key did not change or was removed
+     */
+    @Nullable
+    public Object getNewValue(@NotNull String key) {
+        Change change = changes.get(key);
+        return change != null ? change.newValue() : null;
+    }
+
+    /**
+     * Restricts this event to the keys matching a pattern.
+     *
+     * @param pattern An exact key, a prefix ending in {@code .*}, or {@code *}
+     * @return The filtered event, or null if no key matches
+     */
+    @Nullable
+    ConfigChangeEvent filter(@NotNull String pattern) {
+        if ("*".equals(pattern)) {
+            return this;
+        }
+
+        Map<String, Change> matching = new LinkedHashMap<>();
+        for (Map.Entry<String, Change> entry : changes.entrySet()) {
+            if (matches(pattern, entry.getKey())) {
+                matching.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return matching.isEmpty() ? null : new ConfigChangeEvent(modId, matching);
+    }
+
+    /**
+     * Checks whether a key matches a subscription pattern.
+     */
+    static boolean matches(@NotNull String pattern, @NotNull String key) {
+        if ("*".equals(pattern)) {
+            return true;
+        }
+        if (pattern.endsWith(".*")) {
+            return key.startsWith(pattern.substring(0, pattern.length() - 1));
+        }
+        return pattern.equals(key);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigChangeEvent[" + modId + ": " + changes.keySet() + "]";
+    }
+
+    /**
+     * A single changed value.
+     *
+     * @param oldValue The previous value, or null if the key was added
+     * @param newValue The new value, or null if the key was removed
+     */
+    public record Change(@Nullable Object oldValue, @Nullable Object newValue) {
+    }
+}
@@ -0,0 +1,91 @@
+package dk.mosberg.api.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Base class for compiled configuration handles.
+ *
+ * <p>
+ * A handle splits its dot-separated key into a config name and a path exactly once, when it is
+ * created. Subclasses cache the resolved value together with the {@link ConfigManager} generation
+ * it was read at, so reading an up-to-date handle is two volatile loads with no string splitting,
+ * map lookups or allocation. Re-resolving after a change is a single lookup in the flattened
+ * {@link ConfigSnapshot}. Any change published through {@code set}, {@code load},
+ * {@code reload} or {@code reset} advances the generation and the next read re-resolves.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public abstract class ConfigHandle {
+    private final String modId;
+    private final String key;
+    final String configName;
+    final String[] path;
+    final String flatKey;
+
+    ConfigHandle(@NotNull String modId, @NotNull String key) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+        if (key == null)
+            throw new NullPointerException("Key cannot be null");
+
+        String[] parts = key.split("\\.", 2);
+        this.modId = modId;
+        this.key = key;
+        this.configName = parts.length > 1 ? parts[0] : ConfigManager.MAIN_CONFIG;
+        this.path = (parts.length > 1 ? parts[1] : key).split("\\.");
+        this.flatKey = ConfigSnapshot.flatKey(configName, parts.length > 1 ? parts[1] : key);
+    }
+
+    /**
+     * Gets the mod identifier this handle reads from.
+     *
+     * @return The mod identifier
+     */
+    @NotNull
+    public String getModId() {
+        return modId;
+    }
+
+    /**
+     * Gets the full configuration key this handle was compiled from.
+     *
+     * @return The dot-separated configuration key
+     */
+    @NotNull
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Resolves the raw value against the current configuration state.
+     *
+     * @return The raw value, or null if neither the config nor its defaults contain the key
+     */
+    @Nullable
+    final Object resolve() {
+        return ConfigManager.resolve(modId, flatKey, configName, path);
+    }
+
+    /**
+     * Resolves the raw value as seen from a world. Overlay lookups are a single lookup in the
+     * dimension's precomputed table and are not cached by the handle.
+     *
+     * @param world The world
+     * @return The raw value, or null if the key is unknown
+     */
+    @Nullable
+    final Object resolve(@NotNull ServerWorld world) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+        return ConfigManager.resolve(modId, flatKey, configName, path, world);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + modId + ":" + key + "]";
+    }
+}
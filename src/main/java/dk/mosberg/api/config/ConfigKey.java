@@ -0,0 +1,106 @@
+package dk.mosberg.api.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compiled, typed handle to a configuration value of any supported type.
+ *
+ * <p>
+ * Supported types are {@link String}, {@link Boolean}, {@link Integer}, {@link Long},
+ * {@link Float} and {@link Double}; numeric values are converted to the requested boxed type. For
+ * numbers and booleans read on hot paths prefer {@link IntConfigHandle}, {@link DoubleConfigHandle}
+ * and {@link BooleanConfigHandle}, which avoid boxing entirely.
+ *
+ * @param <T> The value type
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * private static final ConfigKey<String> MOTD =
+ *         ConfigManager.key("mymod", "messages.motd", String.class, "Welcome!");
+ *
+ * String motd = MOTD.get();
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class ConfigKey<T> extends ConfigHandle {
+    private final Class<T> type;
+    private final T fallback;
+    private volatile Cached<T> cached;
+
+    ConfigKey(@NotNull String modId, @NotNull String key, @NotNull Class<T> type,
+            @NotNull T fallback) {
+        super(modId, key);
+        if (type == null)
+            throw new NullPointerException("Type cannot be null");
+        if (fallback == null)
+            throw new NullPointerException("Fallback cannot be null");
+
+        this.type = type;
+        this.fallback = fallback;
+        this.cached = new Cached<>(-1L, fallback);
+    }
+
+    /**
+     * Gets the current value.
+     *
+     * @return The configuration value, or the fallback if not found or of the wrong type
+     */
+    @NotNull
+    public T get() {
+        long generation = ConfigManager.generation();
+        Cached<T> current = cached;
+        if (current.generation == generation) {
+            return current.value;
+        }
+        return refresh(generation);
+    }
+
+    /**
+     * Gets the value type of this key.
+     *
+     * @return The value type
+     */
+    @NotNull
+    public Class<T> getType() {
+        return type;
+    }
+
+    private T refresh(long generation) {
+        T converted = convert(resolve());
+        T resolved = converted != null ? converted : fallback;
+        cached = new Cached<>(generation, resolved);
+        return resolved;
+    }
+
+    @Nullable
+    private T convert(@Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+        if (value instanceof Number number) {
+            if (type == Integer.class)
+                return type.cast(number.intValue());
+            if (type == Long.class)
+                return type.cast(number.longValue());
+            if (type == Double.class)
+                return type.cast(number.doubleValue());
+            if (type == Float.class)
+                return type.cast(number.floatValue());
+        }
+        if (type == String.class) {
+            return type.cast(value.toString());
+        }
+        return null;
+    }
+
+    private record Cached<T>(long generation, T value) {
+    }
+}
@@ -0,0 +1,84 @@
+package dk.mosberg.api.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Subscriber registry for one mod's configuration changes.
+ *
+ * <p>
+ * Any number of subscribers may watch the same key or an overlapping prefix. Subscriptions are held
+ * in a copy-on-write list because they change rarely and are iterated on every dispatch; dispatch
+ * never blocks registration and vice versa.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class ConfigListenerRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigListenerRegistry.class);
+
+    private final String modId;
+    private final List<ConfigSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    ConfigListenerRegistry(@NotNull String modId) {
+        this.modId = modId;
+    }
+
+    @NotNull
+    ConfigSubscription add(@NotNull String pattern, @NotNull Consumer<ConfigChangeEvent> listener,
+            @Nullable Executor executor) {
+        ConfigSubscription subscription = new ConfigSubscription(this, pattern, listener, executor);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    void remove(@NotNull ConfigSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Delivers a change set to every subscriber with at least one matching key.
+     * Synchronous subscribers run on the calling thread.
+     *
+     * @param changes The changed keys with their old and new values
+     */
+    void dispatch(@NotNull Map<String, ConfigChangeEvent.Change> changes) {
+        if (changes.isEmpty() || subscriptions.isEmpty()) {
+            return;
+        }
+
+        ConfigChangeEvent event = new ConfigChangeEvent(modId, changes);
+        for (ConfigSubscription subscription : subscriptions) {
+            ConfigChangeEvent filtered = event.filter(subscription.getPattern());
+            if (filtered == null) {
+                continue;
+            }
+
+            Executor executor = subscription.getExecutor();
+            if (executor == null) {
+                deliver(subscription, filtered);
+            } else {
+                executor.execute(() -> deliver(subscription, filtered));
+            }
+        }
+    }
+
+    private void deliver(@NotNull ConfigSubscription subscription,
+            @NotNull ConfigChangeEvent event) {
+        long start = System.nanoTime();
+        try {
+            subscription.getListener().accept(event);
+        } catch (Exception e) {
+            LOGGER.error("Error in change listener for pattern: {}", subscription.getPattern(), e);
+        }
+        ConfigMetrics.recordListener(start);
+    }
+}
@@ -1,20 +1,46 @@
 package dk.mosberg.api.config;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.world.World;
 
 /**
  * Comprehensive configuration manager for MosbergAPI.
@@ -39,12 +65,30 @@ import net.fabricmc.loader.api.FabricLoader;
  * <h2>Features</h2>
  * <ul>
  * <li>Type-safe configuration access with default values</li>
- * <li>Hot-reloading of configurations without server restart</li>
- * <li>Configuration validation and error recovery</li>
- * <li>Change listeners for dynamic updates</li>
+ * <li>Compiled handles ({@link IntConfigHandle}, {@link ConfigKey}) for allocation-free hot-path
+ * reads</li>
+ * <li>Hot-reloading of configurations without server restart, optionally driven by a filesystem
+ * watcher ({@link #startWatching(String, Executor)})</li>
+ * <li>Schema validation inferred from defaults, with range, enum and pattern constraints; invalid
+ * values are reported together and repaired on load</li>
+ * <li>Change subscriptions for exact keys or whole subtrees ({@code entities.*}), delivered as
+ * one batched event per change, synchronously or on an executor</li>
+ * <li>Coalesced background saving with atomic file replacement</li>
+ * <li>Atomic multi-key transactions and file-based presets
+ * ({@link #transaction(String, Consumer)}, {@link #applyPreset(String, String)})</li>
  * <li>Per-mod configuration support</li>
+ * <li>Optional read, load, save and listener metrics ({@link ConfigMetrics})</li>
+ * <li>Per-world and per-dimension overlays resolved through a precomputed table
+ * ({@link #getInt(String, String, ServerWorld)})</li>
  * </ul>
  *
+ * <h2>Threading</h2>
+ * <p>
+ * Each mod's configuration is held in an immutable snapshot published through a volatile
+ * reference. Getters may be called from any thread (server thread, worldgen and chunk workers)
+ * without locking and always observe a fully applied state; writers copy the affected
+ * configuration, modify the copy and swap in a new snapshot under a per-mod lock.
+ *
  * @example
  *
  *          <pre>{@code
@@ -63,6 +107,11 @@ import net.fabricmc.loader.api.FabricLoader;
  * ConfigManager.addChangeListener("mymod", "custom_config.enabled", value -> {
  *          LOGGER.info("Config changed: {}", value);
  *          });
+ *
+ * // Listen for a whole subtree, batched per reload
+ * ConfigManager.subscribe("mymod", "custom_config.*", event -> {
+ *          LOGGER.info("Changed: {}", event.getChanges().keySet());
+ *          });
  * }</pre>
  *
  * @author Mosberg
@@ -74,11 +123,26 @@ public class ConfigManager {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final Path CONFIG_DIR =
             FabricLoader.getInstance().getConfigDir().resolve("mosbergapi");
+    private static final Path CACHE_DIR = CONFIG_DIR.resolve(".cache");
+
+    private static final Map<String, ModState> STATES = new ConcurrentHashMap<>();
+    private static final Map<String, ConfigListenerRegistry> LISTENERS =
+            new ConcurrentHashMap<>();
+    private static final Map<String, ConfigWatcher> WATCHERS = new ConcurrentHashMap<>();
+    private static final ConfigSaveQueue SAVE_QUEUE = new ConfigSaveQueue();
+    private static final long FLUSH_TIMEOUT_MILLIS = 10_000L;
+
+    /**
+     * Size and checksum of the content last saved to each config file, so the watcher can tell the
+     * API's own saves from edits made on disk.
+     */
+    private static final Map<Path, Long> WRITTEN = new ConcurrentHashMap<>();
 
-    private static final Map<String, Map<String, JsonObject>> CONFIGS = new HashMap<>();
-    private static final Map<String, Map<String, JsonObject>> DEFAULTS = new HashMap<>();
-    private static final Map<String, Map<String, Consumer<Object>>> CHANGE_LISTENERS =
-            new HashMap<>();
+    /**
+     * Advanced after every snapshot publication; handles compare against it to decide whether their
+     * cached value is still current.
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
 
     // Core configuration keys
     public static final String MAIN_CONFIG = "main";
@@ -112,6 +176,7 @@ public class ConfigManager {
         setDefault("mosbergapi", "log_registry_events", true);
         setDefault("mosbergapi", "enable_auto_save", true);
         setDefault("mosbergapi", "auto_save_interval_ticks", 6000);
+        setDefault("mosbergapi", "hot_reload", false);
 
         // Registry configuration
         register("mosbergapi", REGISTRY_CONFIG);
@@ -131,6 +196,7 @@ public class ConfigManager {
         setDefault("mosbergapi", "entities.enable_custom_ai", true);
         setDefault("mosbergapi", "entities.max_entity_count", 200);
         setDefault("mosbergapi", "entities.despawn_distance", 128);
+        setDefault("mosbergapi", "entities.removal_budget_ms", 5);
 
         // Item configuration
         register("mosbergapi", ITEMS_CONFIG);
@@ -143,6 +209,9 @@ public class ConfigManager {
         setDefault("mosbergapi", "blocks.enable_custom_models", true);
         setDefault("mosbergapi", "blocks.animated_textures", true);
         setDefault("mosbergapi", "blocks.tick_rate_multiplier", 1.0);
+        setDefault("mosbergapi", "blocks.edit_budget_ms", 10);
+        setDefault("mosbergapi", "blocks.history_memory_mb", 64);
+        setDefault("mosbergapi", "blocks.history_max_entries", 50);
 
         // Commands configuration
         register("mosbergapi", COMMANDS_CONFIG);
@@ -151,10 +220,48 @@ public class ConfigManager {
         setDefault("mosbergapi", "commands.enable_client_commands", true);
         setDefault("mosbergapi", "commands.command_cooldown_seconds", 0);
 
+        // Constraints
+        defineRange("mosbergapi", "auto_save_interval_ticks", 1, Integer.MAX_VALUE);
+        defineRange("mosbergapi", "world.max_structure_distance", 0, Integer.MAX_VALUE);
+        defineRange("mosbergapi", "entities.spawn_rates_multiplier", 0.0, 100.0);
+        defineRange("mosbergapi", "entities.max_entity_count", 0, Integer.MAX_VALUE);
+        defineRange("mosbergapi", "entities.despawn_distance", 0, Integer.MAX_VALUE);
+        defineRange("mosbergapi", "entities.removal_budget_ms", 1, 1000);
+        defineRange("mosbergapi", "blocks.tick_rate_multiplier", 0.0, 100.0);
+        defineRange("mosbergapi", "blocks.edit_budget_ms", 1, 1000);
+        defineRange("mosbergapi", "blocks.history_memory_mb", 0, 65536);
+        defineRange("mosbergapi", "blocks.history_max_entries", 0, 10000);
+        defineRange("mosbergapi", "commands.min_permission_level", 0, 4);
+        defineRange("mosbergapi", "commands.command_cooldown_seconds", 0, Integer.MAX_VALUE);
+
         // Load all default configs
         loadAll("mosbergapi");
     }
 
+    /**
+     * Hooks the configuration system into the server lifecycle. Loads world and dimension overlays
+     * and starts the filesystem watcher for MosbergAPI's own configs when {@code hot_reload} is
+     * enabled; on shutdown stops all watchers, flushes pending background saves and drops the
+     * overlays.
+     */
+    public static void initialize() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            for (String modId : STATES.keySet()) {
+                loadOverlays(modId, server);
+            }
+            if (getBoolean("mosbergapi", "hot_reload")) {
+                startWatching("mosbergapi", server);
+            }
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            stopWatchingAll();
+            flush();
+            for (String modId : STATES.keySet()) {
+                clearOverlays(modId);
+            }
+        });
+    }
+
     /**
      * Registers a configuration file for a mod.
      *
@@ -173,11 +280,15 @@ public class ConfigManager {
         if (configName == null)
             throw new NullPointerException("Config name cannot be null");
 
-        CONFIGS.computeIfAbsent(modId, k -> new HashMap<>()).putIfAbsent(configName,
-                new JsonObject());
-        DEFAULTS.computeIfAbsent(modId, k -> new HashMap<>()).putIfAbsent(configName,
-                new JsonObject());
-        CHANGE_LISTENERS.computeIfAbsent(modId, k -> new HashMap<>());
+        ModState state = state(modId);
+        synchronized (state) {
+            ConfigSnapshot current = state.snapshot;
+            ConfigSnapshot registered = current.withRegistered(configName);
+            if (registered != current) {
+                publish(state, registered);
+            }
+        }
+        listeners(modId);
 
         LOGGER.debug("Registered config: {} for mod: {}", configName, modId);
     }
@@ -209,14 +320,85 @@ public class ConfigManager {
         String configName = parts.length > 1 ? parts[0] : MAIN_CONFIG;
         String actualKey = parts.length > 1 ? parts[1] : key;
 
-        Map<String, JsonObject> modDefaults = DEFAULTS.get(modId);
-        if (modDefaults == null) {
-            register(modId, configName);
-            modDefaults = DEFAULTS.get(modId);
+        ModState state = state(modId);
+        synchronized (state) {
+            ConfigSnapshot current = state.snapshot.withRegistered(configName);
+            JsonObject defaults = current.defaults(configName).deepCopy();
+            setNestedValue(defaults, actualKey, value);
+            state.schema = state.schema.withDefault(
+                    ConfigSnapshot.flatKey(configName, actualKey), value);
+            publish(state, current.withDefaults(configName, defaults));
         }
+    }
+
+    /**
+     * Constrains a numeric configuration key to an inclusive range. Values outside the range are
+     * clamped when a configuration is loaded and rejected by {@link #set(String, String, Object)}.
+     *
+     * @param modId The mod identifier
+     * @param key The configuration key; must already have a numeric default
+     * @param min The inclusive minimum
+     * @param max The inclusive maximum
+     *
+     * @example
+     *
+     *          <pre>{@code
+     * ConfigManager.setDefault("mymod", "feature.max_value", 100);
+     * ConfigManager.defineRange("mymod", "feature.max_value", 1, 1000);
+     * }</pre>
+     */
+    public static void defineRange(@NotNull String modId, @NotNull String key, double min,
+            double max) {
+        if (min > max)
+            throw new IllegalArgumentException("Minimum cannot exceed maximum for key: " + key);
+
+        defineRule(modId, key, rule -> {
+            if (!rule.isNumeric())
+                throw new IllegalArgumentException("Key is not numeric: " + key);
+            return rule.withRange(min, max);
+        });
+    }
+
+    /**
+     * Restricts a string configuration key to a fixed set of values. Values differing only in case
+     * are repaired on load; anything else falls back to the default.
+     *
+     * @param modId The mod identifier
+     * @param key The configuration key; must already have a string default
+     * @param allowed The allowed values
+     */
+    public static void defineEnum(@NotNull String modId, @NotNull String key,
+            @NotNull String... allowed) {
+        if (allowed == null || allowed.length == 0)
+            throw new IllegalArgumentException("At least one allowed value is required");
+
+        defineRule(modId, key, rule -> {
+            if (rule.type() != ConfigSchema.Type.STRING)
+                throw new IllegalArgumentException("Key is not a string: " + key);
+            return rule.withAllowed(List.of(allowed));
+        });
+    }
 
-        JsonObject config = modDefaults.computeIfAbsent(configName, k -> new JsonObject());
-        setNestedValue(config, actualKey, value);
+    /**
+     * Requires a string configuration key to fully match a regular expression. Non-matching values
+     * fall back to the default on load.
+     *
+     * @param modId The mod identifier
+     * @param key The configuration key; must already have a string default
+     * @param regex The regular expression
+     * @throws java.util.regex.PatternSyntaxException If the expression is invalid
+     */
+    public static void definePattern(@NotNull String modId, @NotNull String key,
+            @NotNull String regex) {
+        if (regex == null)
+            throw new NullPointerException("Pattern cannot be null");
+
+        Pattern pattern = Pattern.compile(regex);
+        defineRule(modId, key, rule -> {
+            if (rule.type() != ConfigSchema.Type.STRING)
+                throw new IllegalArgumentException("Key is not a string: " + key);
+            return rule.withPattern(pattern);
+        });
     }
 
     /**
@@ -277,12 +459,159 @@ public class ConfigManager {
         return false;
     }
 
+    /**
+     * Gets a configuration value as a string, as seen from a world.
+     *
+     * <p>
+     * Values resolve through defaults, the global config, the world overlay and finally the
+     * overlay of the world's dimension (see {@link #loadOverlays(String, MinecraftServer)}).
+     *
+     * @param modId The mod identifier
+     * @param key The configuration key
+     * @param world The world whose dimension overlay applies
+     * @return The configuration value, or empty string if not found
+     */
+    @NotNull
+    public static String getString(@NotNull String modId, @NotNull String key,
+            @NotNull ServerWorld world) {
+        Object value = getValue(modId, key, world);
+        return value != null ? value.toString() : "";
+    }
+
+    /**
+     * Gets a configuration value as an integer, as seen from a world.
+     *
+     * @param modId The mod identifier
+     * @param key The configuration key
+     * @param world The world whose dimension overlay applies
+     * @return The configuration value, or 0 if not found
+     *
+     * @example
+     *
+     *          <pre>{@code
+     * int max = ConfigManager.getInt("mosbergapi", "entities.max_entity_count", world);
+     * }</pre>
+     */
+    public static int getInt(@NotNull String modId, @NotNull String key,
+            @NotNull ServerWorld world) {
+        Object value = getValue(modId, key, world);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        return 0;
+    }
+
+    /**
+     * Gets a configuration value as a double, as seen from a world.
+     *
+     * @param modId The mod identifier
+     * @param key The configuration key
+     * @param world The world whose dimension overlay applies
+     * @return The configuration value, or 0.0 if not found
+     */
+    public static double getDouble(@NotNull String modId, @NotNull String key,
+            @NotNull ServerWorld world) {
+        Object value = getValue(modId, key, world);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return 0.0;
+    }
+
+    /**
+     * Gets a configuration value as a boolean, as seen from a world.
+     *
+     * @param modId The mod identifier
+     * @param key The configuration key
+     * @param world The world whose dimension overlay applies
+     * @return The configuration value, or false if not found
+     */
+    public static boolean getBoolean(@NotNull String modId, @NotNull String key,
+            @NotNull ServerWorld world) {
+        Object value = getValue(modId, key, world);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return false;
+    }
+
+    /**
+     * Creates a compiled handle for an integer configuration value.
+     *
+     * <p>
+     * The key is split once here; subsequent {@link IntConfigHandle#get()} calls return a cached
+     * primitive without allocating until the configuration changes.
+     *
+     * @param modId The mod identifier
+     * @param key The configuration key
+     * @return A handle reading the value, or 0 if not found
+     *
+     * @example
+     *
+     *          <pre>{@code
+     * private static final IntConfigHandle MAX_ENTITIES =
+     *         ConfigManager.intHandle("mosbergapi", "entities.max_entity_count");
+     * }</pre>
+     */
+    @NotNull
+    public static IntConfigHandle intHandle(@NotNull String modId, @NotNull String key) {
+        return new IntConfigHandle(modId, key);
+    }
+
+    /**
+     * Creates a compiled handle for a double configuration value.
+     *
+     * @param modId The mod identifier
+     * @param key The configuration key
+     * @return A handle reading the value, or 0.0 if not found
+     */
+    @NotNull
+    public static DoubleConfigHandle doubleHandle(@NotNull String modId, @NotNull String key) {
+        return new DoubleConfigHandle(modId, key);
+    }
+
+    /**
+     * Creates a compiled handle for a boolean configuration value.
+     *
+     * @param modId The mod identifier
+     * @param key The configuration key
+     * @return A handle reading the value, or false if not found
+     */
+    @NotNull
+    public static BooleanConfigHandle booleanHandle(@NotNull String modId, @NotNull String key) {
+        return new BooleanConfigHandle(modId, key);
+    }
+
+    /**
+     * Creates a compiled, typed handle for a configuration value.
+     *
+     * @param <T> The value type
+     * @param modId The mod identifier
+     * @param key The configuration key
+     * @param type The value type
+     * @param fallback The value returned when the key is missing or has the wrong type
+     * @return A handle reading the value
+     *
+     * @example
+     *
+     *          <pre>{@code
+     * ConfigKey<String> motd = ConfigManager.key("mymod", "messages.motd", String.class, "");
+     * }</pre>
+     */
+    @NotNull
+    public static <T> ConfigKey<T> key(@NotNull String modId, @NotNull String key,
+            @NotNull Class<T> type, @NotNull T fallback) {
+        return new ConfigKey<>(modId, key, type, fallback);
+    }
+
     /**
      * Sets a configuration value.
      *
      * @param modId The mod identifier
      * @param key The configuration key
      * @param value The new value
+     * @throws IllegalArgumentException If validation is enabled and the value violates the key's
+     *         schema
      *
      * @example
      *
@@ -303,25 +632,185 @@ public class ConfigManager {
         String configName = parts.length > 1 ? parts[0] : MAIN_CONFIG;
         String actualKey = parts.length > 1 ? parts[1] : key;
 
-        Map<String, JsonObject> modConfigs = CONFIGS.get(modId);
-        if (modConfigs == null) {
-            register(modId, configName);
-            modConfigs = CONFIGS.get(modId);
+        ConfigSnapshot before;
+        ConfigSnapshot after;
+        ModState state = state(modId);
+        synchronized (state) {
+            checkValue(state.schema, configName, actualKey, value);
+            before = state.snapshot.withRegistered(configName);
+            JsonObject config = before.config(configName).deepCopy();
+            setNestedValue(config, actualKey, value);
+            after = before.withConfig(configName, config);
+            publish(state, after);
         }
 
-        JsonObject config = modConfigs.computeIfAbsent(configName, k -> new JsonObject());
-        Object oldValue = getNestedValue(config, actualKey);
-        setNestedValue(config, actualKey, value);
-
         // Trigger change listeners
-        if (!value.equals(oldValue)) {
-            notifyChangeListeners(modId, key, value);
+        dispatch(modId, ConfigSnapshot.diff(before, after), Runnable::run);
+    }
+
+    /**
+     * Applies several changes atomically.
+     *
+     * <p>
+     * The body records values on the supplied {@link ConfigTransaction}. Afterwards every value is
+     * validated against the schema; if any is invalid nothing is applied. Otherwise all values are
+     * published as a single snapshot, so no reader or listener can observe a partially applied
+     * state, subscribers receive one change batch, and each touched configuration is queued for one
+     * background save.
+     *
+     * @param modId The mod identifier
+     * @param body Records the changes
+     * @return The keys whose values changed, with their old and new values
+     * @throws IllegalArgumentException If validation is enabled and any value is invalid; the
+     *         message lists every invalid value
+     *
+     * @example
+     *
+     *          <pre>{@code
+     * ConfigManager.transaction("mosbergapi", tx -> {
+     *     tx.set("entities.max_entity_count", 100);
+     *     tx.set("entities.spawn_rates_multiplier", 0.5);
+     * });
+     * }</pre>
+     */
+    @NotNull
+    public static Map<String, ConfigChangeEvent.Change> transaction(@NotNull String modId,
+            @NotNull Consumer<ConfigTransaction> body) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+        if (body == null)
+            throw new NullPointerException("Transaction body cannot be null");
+
+        ConfigTransaction transaction = new ConfigTransaction(modId);
+        body.accept(transaction);
+        if (transaction.isEmpty()) {
+            return Map.of();
+        }
+
+        ConfigSnapshot before;
+        ConfigSnapshot after;
+        Map<String, JsonObject> touched = new LinkedHashMap<>();
+        ModState state = state(modId);
+        synchronized (state) {
+            List<String> errors = new ArrayList<>();
+            for (Map.Entry<String, Object> change : transaction.changes().entrySet()) {
+                String[] parts = change.getKey().split("\\.", 2);
+                String configName = parts.length > 1 ? parts[0] : MAIN_CONFIG;
+                String actualKey = parts.length > 1 ? parts[1] : change.getKey();
+                try {
+                    checkValue(state.schema, configName, actualKey, change.getValue());
+                } catch (IllegalArgumentException e) {
+                    errors.add(e.getMessage());
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new IllegalArgumentException(String.join("; ", errors));
+            }
+
+            before = state.snapshot;
+            ConfigSnapshot updated = before;
+            for (Map.Entry<String, Object> change : transaction.changes().entrySet()) {
+                String[] parts = change.getKey().split("\\.", 2);
+                String configName = parts.length > 1 ? parts[0] : MAIN_CONFIG;
+                String actualKey = parts.length > 1 ? parts[1] : change.getKey();
+
+                updated = updated.withRegistered(configName);
+                JsonObject config = touched.get(configName);
+                if (config == null) {
+                    config = updated.config(configName).deepCopy();
+                    touched.put(configName, config);
+                }
+                setNestedValue(config, actualKey, change.getValue());
+            }
+            for (Map.Entry<String, JsonObject> entry : touched.entrySet()) {
+                updated = updated.withConfig(entry.getKey(), entry.getValue());
+            }
+            after = updated;
+            publish(state, after);
+        }
+
+        Map<String, ConfigChangeEvent.Change> changes = ConfigSnapshot.diff(before, after);
+        dispatch(modId, changes, Runnable::run);
+        for (String configName : touched.keySet()) {
+            SAVE_QUEUE.enqueue(modId, configName);
+        }
+
+        LOGGER.info("Applied transaction to configs: {} for mod: {} ({} changed)", touched.keySet(),
+                modId, changes.size());
+        return changes;
+    }
+
+    /**
+     * Lists the presets available for a mod.
+     *
+     * <p>
+     * Presets are JSON files in {@code config/mosbergapi/<modId>/presets/}. Each holds values to
+     * apply, either by full key ({@code "entities.max_entity_count": 100}) or nested like a config
+     * file ({@code "entities": {"max_entity_count": 100}}).
+     *
+     * @param modId The mod identifier
+     * @return The preset names, sorted
+     */
+    @NotNull
+    public static List<String> listPresets(@NotNull String modId) {
+        Path presetDir = getModConfigDirectory(modId).resolve("presets");
+        if (!Files.isDirectory(presetDir)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(presetDir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".json"))
+                    .map(name -> name.substring(0, name.length() - ".json".length())).sorted()
+                    .toList();
+        } catch (IOException e) {
+            LOGGER.error("Failed to list presets for mod: {}", modId, e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Applies a preset as a single {@link #transaction(String, Consumer) transaction}.
+     *
+     * @param modId The mod identifier
+     * @param presetName The preset name, without the .json extension
+     * @return The keys whose values changed, with their old and new values
+     * @throws IOException If the preset cannot be read or is not a JSON object
+     * @throws IllegalArgumentException If the preset name is invalid or any value is invalid
+     */
+    @NotNull
+    public static Map<String, ConfigChangeEvent.Change> applyPreset(@NotNull String modId,
+            @NotNull String presetName) throws IOException {
+        if (presetName == null)
+            throw new NullPointerException("Preset name cannot be null");
+        if (!presetName.matches("[A-Za-z0-9_.-]+") || presetName.startsWith("."))
+            throw new IllegalArgumentException("Invalid preset name: " + presetName);
+
+        Path presetFile =
+                getModConfigDirectory(modId).resolve("presets").resolve(presetName + ".json");
+        if (!Files.isRegularFile(presetFile)) {
+            throw new IllegalArgumentException("Preset not found: " + presetName);
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        try {
+            collectPresetValues(readConfig(presetFile), "", values);
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Invalid preset: " + presetName, e);
         }
+
+        return transaction(modId, transaction -> values.forEach(transaction::set));
     }
 
     /**
      * Adds a change listener for a configuration key.
      *
+     * <p>
+     * Listeners are additive: several listeners may watch the same key. The listener receives the
+     * new value and stays registered for the mod's lifetime; to remove it later, or for subtree
+     * subscriptions and batched change sets, use {@link #subscribe(String, String, Consumer)},
+     * which returns a closeable subscription.
+     *
      * @param modId The mod identifier
      * @param key The configuration key
      * @param listener The listener to invoke when the value changes
@@ -343,7 +832,63 @@ public class ConfigManager {
         if (listener == null)
             throw new NullPointerException("Listener cannot be null");
 
-        CHANGE_LISTENERS.computeIfAbsent(modId, k -> new HashMap<>()).put(key, listener);
+        String flatKey = normalizeKey(key);
+        listeners(modId).add(flatKey, event -> {
+            Object value = event.getNewValue(flatKey);
+            if (value != null) {
+                listener.accept(value);
+            }
+        }, null);
+    }
+
+    /**
+     * Subscribes to configuration changes, delivered synchronously on the thread that published
+     * them.
+     *
+     * @param modId The mod identifier
+     * @param pattern An exact key, a subtree prefix such as {@code entities.*}, or {@code *} for
+     *        every key of the mod
+     * @param listener The listener receiving one batched event per published change
+     * @return The subscription, which can be closed to unsubscribe
+     *
+     * @example
+     *
+     *          <pre>{@code
+     * ConfigManager.subscribe("mosbergapi", "entities.*", event -> {
+     *          event.getChanges().forEach((key, change) -> LOGGER.info("{}: {} -> {}", key,
+     *                  change.oldValue(), change.newValue()));
+     *          });
+     * }</pre>
+     */
+    @NotNull
+    public static ConfigSubscription subscribe(@NotNull String modId, @NotNull String pattern,
+            @NotNull Consumer<ConfigChangeEvent> listener) {
+        return subscribe(modId, pattern, listener, null);
+    }
+
+    /**
+     * Subscribes to configuration changes, delivered on the given executor.
+     *
+     * @param modId The mod identifier
+     * @param pattern An exact key, a subtree prefix such as {@code entities.*}, or {@code *} for
+     *        every key of the mod
+     * @param listener The listener receiving one batched event per published change
+     * @param executor The executor to deliver events on, or null for synchronous delivery
+     * @return The subscription, which can be closed to unsubscribe
+     */
+    @NotNull
+    public static ConfigSubscription subscribe(@NotNull String modId, @NotNull String pattern,
+            @NotNull Consumer<ConfigChangeEvent> listener, @Nullable Executor executor) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+        if (pattern == null)
+            throw new NullPointerException("Pattern cannot be null");
+        if (listener == null)
+            throw new NullPointerException("Listener cannot be null");
+
+        String normalized = pattern.equals("*") || pattern.endsWith(".*") ? pattern
+                : normalizeKey(pattern);
+        return listeners(modId).add(normalized, listener, executor);
     }
 
     /**
@@ -360,6 +905,7 @@ public class ConfigManager {
             throw new NullPointerException("Config name cannot be null");
 
         Path configFile = CONFIG_DIR.resolve(modId).resolve(configName + ".json");
+        long start = System.nanoTime();
 
         try {
             if (!Files.exists(configFile)) {
@@ -368,14 +914,18 @@ public class ConfigManager {
                 return true;
             }
 
-            String content = Files.readString(configFile);
-            JsonObject json = JsonParser.parseString(content).getAsJsonObject();
+            JsonObject json = validated(modId, configName, readConfig(configFile));
 
-            CONFIGS.computeIfAbsent(modId, k -> new HashMap<>()).put(configName, json);
+            ModState state = state(modId);
+            synchronized (state) {
+                publish(state, state.snapshot.withRegistered(configName).withConfig(configName,
+                        json));
+            }
+            ConfigMetrics.recordLoad(start);
             LOGGER.info("Loaded config: {} for mod: {}", configName, modId);
             return true;
 
-        } catch (IOException e) {
+        } catch (IOException | JsonParseException | IllegalStateException e) {
             LOGGER.error("Failed to load config: {} for mod: {}", configName, modId, e);
             return false;
         }
@@ -384,6 +934,12 @@ public class ConfigManager {
     /**
      * Loads all configurations for a mod.
      *
+     * <p>
+     * Parsed configurations are kept in a binary cache under {@code config/mosbergapi/.cache/}.
+     * Files whose size, modification time or content hash still match the cache are restored from
+     * it without JSON parsing; only changed or new files are parsed, after which the cache is
+     * rewritten in the background. All configurations are published together as one snapshot.
+     *
      * @param modId The mod identifier
      * @return true if all configs loaded successfully
      */
@@ -391,21 +947,82 @@ public class ConfigManager {
         if (modId == null)
             throw new NullPointerException("Mod ID cannot be null");
 
-        Map<String, JsonObject> modConfigs = CONFIGS.get(modId);
-        if (modConfigs == null) {
+        ModState state = STATES.get(modId);
+        if (state == null) {
             LOGGER.warn("No configs registered for mod: {}", modId);
             return false;
         }
 
+        long start = System.nanoTime();
+        Set<String> configNames = state.snapshot.configNames();
+        Path modConfigDir = CONFIG_DIR.resolve(modId);
+        Path cacheFile = CACHE_DIR.resolve(modId + ".bin");
+        Map<String, ConfigCache.Entry> entries =
+                ConfigCache.read(cacheFile, modConfigDir, configNames);
+        int cached = entries.size();
+
         boolean success = true;
-        for (String configName : modConfigs.keySet()) {
-            success &= load(modId, configName);
+        for (String configName : configNames) {
+            if (entries.containsKey(configName)) {
+                continue;
+            }
+
+            Path configFile = modConfigDir.resolve(configName + ".json");
+            if (!Files.exists(configFile)) {
+                success &= load(modId, configName);
+                continue;
+            }
+
+            try {
+                BasicFileAttributes attributes =
+                        Files.readAttributes(configFile, BasicFileAttributes.class);
+                byte[] content = Files.readAllBytes(configFile);
+                JsonObject json =
+                        JsonParser.parseString(new String(content, StandardCharsets.UTF_8))
+                                .getAsJsonObject();
+                entries.put(configName, new ConfigCache.Entry(
+                        ConfigCache.Fingerprint.of(attributes, content), json));
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                LOGGER.error("Failed to load config: {} for mod: {}", configName, modId, e);
+                success = false;
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            synchronized (state) {
+                ConfigSnapshot updated = state.snapshot;
+                for (Map.Entry<String, ConfigCache.Entry> entry : entries.entrySet()) {
+                    // The cache keeps the file as written; repairs are reapplied on every load
+                    updated = updated.withRegistered(entry.getKey()).withConfig(entry.getKey(),
+                            validated(modId, entry.getKey(), entry.getValue().json()));
+                }
+                publish(state, updated);
+            }
+        }
+        ConfigMetrics.recordLoad(start);
+        LOGGER.info("Loaded {} configs for mod: {} ({} from cache)", entries.size(), modId, cached);
+
+        if (entries.size() > cached) {
+            // The snapshot owns the trees now and never mutates them, so they can be written as-is
+            Map<String, ConfigCache.Entry> toCache = new LinkedHashMap<>(entries);
+            SAVE_QUEUE.execute(() -> {
+                try {
+                    ConfigCache.write(cacheFile, toCache);
+                } catch (IOException e) {
+                    LOGGER.debug("Failed to write config cache for mod: {}", modId, e);
+                }
+            });
         }
         return success;
     }
 
     /**
-     * Saves a configuration to disk.
+     * Saves a configuration to disk on the calling thread.
+     *
+     * <p>
+     * The file is written to a temporary sibling and atomically moved into place, so a crash
+     * mid-write never leaves a truncated config behind. Prefer {@link #saveAsync(String, String)}
+     * on the server thread.
      *
      * @param modId The mod identifier
      * @param configName The configuration name
@@ -417,19 +1034,26 @@ public class ConfigManager {
         if (configName == null)
             throw new NullPointerException("Config name cannot be null");
 
+        long start = System.nanoTime();
         try {
             Path modConfigDir = CONFIG_DIR.resolve(modId);
             Files.createDirectories(modConfigDir);
 
             Path configFile = modConfigDir.resolve(configName + ".json");
 
-            JsonObject config = CONFIGS.getOrDefault(modId, new HashMap<>())
-                    .getOrDefault(configName, DEFAULTS.getOrDefault(modId, new HashMap<>())
-                            .getOrDefault(configName, new JsonObject()));
+            ConfigSnapshot snapshot = snapshot(modId);
+            JsonObject config = snapshot.config(configName);
+            if (config == null) {
+                config = snapshot.defaults(configName);
+            }
+            if (config == null) {
+                config = new JsonObject();
+            }
 
             String json = GSON.toJson(config);
-            Files.writeString(configFile, json);
+            writeAtomically(configFile, json);
 
+            ConfigMetrics.recordSave(start);
             LOGGER.info("Saved config: {} for mod: {}", configName, modId);
             return true;
 
@@ -449,59 +1073,354 @@ public class ConfigManager {
         if (modId == null)
             throw new NullPointerException("Mod ID cannot be null");
 
-        Map<String, JsonObject> modConfigs = CONFIGS.get(modId);
-        if (modConfigs == null) {
+        ModState state = STATES.get(modId);
+        if (state == null) {
             LOGGER.warn("No configs registered for mod: {}", modId);
             return false;
         }
 
         boolean success = true;
-        for (String configName : modConfigs.keySet()) {
+        for (String configName : state.snapshot.configNames()) {
             success &= save(modId, configName);
         }
         return success;
     }
 
     /**
-     * Reloads a configuration from disk.
+     * Queues a configuration to be saved on a background thread.
+     *
+     * <p>
+     * Repeated saves of the same file that arrive before the queued write runs are coalesced into a
+     * single write of the latest state. Call {@link #flush()} to wait for pending writes.
      *
      * @param modId The mod identifier
      * @param configName The configuration name
-     * @return true if reloaded successfully
+     * @return A future completed with true if the file was saved successfully
+     *
+     * @example
+     *
+     *          <pre>{@code
+     * ConfigManager.set("mymod", "feature.enabled", true);
+     * ConfigManager.saveAsync("mymod", "feature");
+     * }</pre>
      */
-    public static boolean reload(@NotNull String modId, @NotNull String configName) {
-        return load(modId, configName);
+    @NotNull
+    public static CompletableFuture<Boolean> saveAsync(@NotNull String modId,
+            @NotNull String configName) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+        if (configName == null)
+            throw new NullPointerException("Config name cannot be null");
+
+        return SAVE_QUEUE.enqueue(modId, configName);
     }
 
     /**
-     * Reloads all configurations for a mod.
+     * Queues all configurations of a mod to be saved on a background thread.
      *
      * @param modId The mod identifier
-     * @return true if all configs reloaded successfully
+     * @return A future completed with true if all configs were saved successfully
      */
-    public static boolean reloadAll(@NotNull String modId) {
-        return loadAll(modId);
-    }
-
+    @NotNull
+    public static CompletableFuture<Boolean> saveAllAsync(@NotNull String modId) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+
+        List<CompletableFuture<Boolean>> saves = new ArrayList<>();
+        for (String configName : snapshot(modId).configNames()) {
+            saves.add(SAVE_QUEUE.enqueue(modId, configName));
+        }
+        return CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> saves.stream().allMatch(CompletableFuture::join));
+    }
+
+    /**
+     * Blocks until every queued background save has been written. Called automatically when the
+     * server stops.
+     *
+     * @return true if all pending saves completed
+     */
+    public static boolean flush() {
+        return SAVE_QUEUE.flush(FLUSH_TIMEOUT_MILLIS);
+    }
+
     /**
-     * Resets a configuration to default values.
+     * Reloads a configuration from disk.
+     *
+     * <p>
+     * The old and new values are diffed and only the change listeners of keys whose values
+     * actually changed are invoked, on the calling thread.
      *
      * @param modId The mod identifier
      * @param configName The configuration name
+     * @return true if reloaded successfully
+     */
+    public static boolean reload(@NotNull String modId, @NotNull String configName) {
+        if (configName == null)
+            throw new NullPointerException("Config name cannot be null");
+        return reload(modId, List.of(configName), Runnable::run);
+    }
+
+    /**
+     * Reloads all configurations for a mod.
+     *
+     * <p>
+     * All files are read first and published together as one snapshot; subscribers receive a
+     * single change set covering every changed key.
+     *
+     * @param modId The mod identifier
+     * @return true if all configs reloaded successfully
+     */
+    public static boolean reloadAll(@NotNull String modId) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+
+        ModState state = STATES.get(modId);
+        if (state == null) {
+            LOGGER.warn("No configs registered for mod: {}", modId);
+            return false;
+        }
+
+        return reload(modId, state.snapshot.configNames(), Runnable::run);
+    }
+
+    /**
+     * Reloads configurations from disk as one batch and dispatches a single change set.
+     *
+     * @param modId The mod identifier
+     * @param configNames The configuration names
+     * @param dispatchExecutor The executor the change set is dispatched on; synchronous subscribers
+     *        run there
+     * @return true if all configs reloaded successfully
      */
-    public static void reset(@NotNull String modId, @NotNull String configName) {
+    static boolean reload(@NotNull String modId, @NotNull Collection<String> configNames,
+            @NotNull Executor dispatchExecutor) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+
+        long start = System.nanoTime();
+        boolean success = true;
+        Map<String, JsonObject> loaded = new LinkedHashMap<>();
+        for (String configName : configNames) {
+            Path configFile = CONFIG_DIR.resolve(modId).resolve(configName + ".json");
+            if (!Files.exists(configFile)) {
+                success &= load(modId, configName);
+                continue;
+            }
+
+            try {
+                JsonObject json = readConfig(configFile);
+                loaded.put(configName, validated(modId, configName, json));
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                LOGGER.error("Failed to reload config: {} for mod: {}", configName, modId, e);
+                success = false;
+            }
+        }
+
+        if (loaded.isEmpty()) {
+            return success;
+        }
+
+        ConfigSnapshot before;
+        ConfigSnapshot after;
+        ModState state = state(modId);
+        synchronized (state) {
+            before = state.snapshot;
+            ConfigSnapshot updated = before;
+            for (Map.Entry<String, JsonObject> entry : loaded.entrySet()) {
+                updated = updated.withRegistered(entry.getKey()).withConfig(entry.getKey(),
+                        entry.getValue());
+            }
+            after = updated;
+            publish(state, after);
+        }
+
+        ConfigMetrics.recordLoad(start);
+        Map<String, ConfigChangeEvent.Change> changes = ConfigSnapshot.diff(before, after);
+        LOGGER.info("Reloaded configs: {} for mod: {} ({} changed)", loaded.keySet(), modId,
+                changes.size());
+
+        dispatch(modId, changes, dispatchExecutor);
+        return success;
+    }
+
+    /**
+     * Loads the per-world and per-dimension overlays of a mod for the running server.
+     *
+     * <p>
+     * Overlay files mirror the regular configuration files and only need to contain the keys they
+     * override:
+     * <ul>
+     * <li>{@code config/mosbergapi/<modId>/overlays/world/<worldFolder>/<config>.json}</li>
+     * <li>{@code config/mosbergapi/<modId>/overlays/dimension/<namespace>/<path>/<config>.json}
+     * </li>
+     * </ul>
+     * Overlays are validated like regular files. Called automatically for every registered mod
+     * when the server starts; overlay changes refresh compiled handles but are not reported to
+     * change subscribers.
+     *
+     * @param modId The mod identifier
+     * @param server The running server
+     * @return true if all overlay files loaded successfully
+     */
+    public static boolean loadOverlays(@NotNull String modId, @NotNull MinecraftServer server) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+        if (server == null)
+            throw new NullPointerException("Server cannot be null");
+
+        String levelName = server.getSavePath(WorldSavePath.ROOT).toAbsolutePath().normalize()
+                .getFileName().toString();
+        Path overlayDir = getModConfigDirectory(modId).resolve("overlays");
+        Collection<String> configNames = snapshot(modId).configNames();
+
+        boolean success = true;
+        Map<String, Object> world = new HashMap<>();
+        success &= readOverlay(modId, overlayDir.resolve("world").resolve(levelName), configNames,
+                world);
+
+        Map<String, Map<String, Object>> dimensions = new HashMap<>();
+        for (RegistryKey<World> key : server.getWorldRegistryKeys()) {
+            Identifier id = key.getValue();
+            Map<String, Object> layer = new HashMap<>();
+            success &= readOverlay(modId, overlayDir.resolve("dimension")
+                    .resolve(id.getNamespace()).resolve(id.getPath()), configNames, layer);
+            if (!layer.isEmpty()) {
+                dimensions.put(id.toString(), layer);
+            }
+        }
+
+        ConfigOverlays overlays = new ConfigOverlays(levelName, world, dimensions);
+        ModState state = state(modId);
+        synchronized (state) {
+            publish(state, state.snapshot.withOverlays(overlays));
+        }
+
+        if (!overlays.isEmpty()) {
+            LOGGER.info("Loaded config overlays for mod: {} (world: {} keys, dimensions: {})",
+                    modId, world.size(), overlays.dimensionIds());
+        }
+        return success;
+    }
+
+    /**
+     * Removes all overlays of a mod. Called automatically when the server stops.
+     *
+     * @param modId The mod identifier
+     */
+    public static void clearOverlays(@NotNull String modId) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+
+        ModState state = STATES.get(modId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            if (!state.snapshot.overlays().isEmpty()) {
+                publish(state, state.snapshot.withOverlays(ConfigOverlays.empty()));
+            }
+        }
+    }
+
+    /**
+     * Starts watching a mod's configuration directory and hot-reloads files when they are edited on
+     * disk.
+     *
+     * <p>
+     * Bursts of filesystem events are debounced, changed files are re-parsed on a background
+     * thread, and only listeners of keys whose values changed are invoked, on
+     * {@code listenerExecutor}. Pass the {@code MinecraftServer} to receive callbacks on the server
+     * thread.
+     *
+     * @param modId The mod identifier
+     * @param listenerExecutor The executor change listeners are dispatched on
+     * @return true if the watcher is running
+     *
+     * @example
+     *
+     *          <pre>{@code
+     * ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+     *          ConfigManager.startWatching("mymod", server);
+     *          });
+     * }</pre>
+     */
+    public static boolean startWatching(@NotNull String modId, @NotNull Executor listenerExecutor) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+        if (listenerExecutor == null)
+            throw new NullPointerException("Listener executor cannot be null");
+
+        if (WATCHERS.containsKey(modId)) {
+            return true;
+        }
+
+        try {
+            ConfigWatcher watcher =
+                    ConfigWatcher.start(modId, getModConfigDirectory(modId), listenerExecutor);
+            if (WATCHERS.putIfAbsent(modId, watcher) != null) {
+                watcher.close();
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Failed to watch config directory for mod: {}", modId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Stops watching a mod's configuration directory.
+     *
+     * @param modId The mod identifier
+     */
+    public static void stopWatching(@NotNull String modId) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+
+        ConfigWatcher watcher = WATCHERS.remove(modId);
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    /**
+     * Stops all configuration directory watchers.
+     */
+    public static void stopWatchingAll() {
+        for (String modId : WATCHERS.keySet()) {
+            stopWatching(modId);
+        }
+    }
+
+    /**
+     * Resets a configuration to default values. The new values apply at once; the file is written
+     * on a background thread, as with {@link #saveAsync(String, String)}.
+     *
+     * @param modId The mod identifier
+     * @param configName The configuration name
+     * @return A future completed with true if the file was saved successfully
+     */
+    @NotNull
+    public static CompletableFuture<Boolean> reset(@NotNull String modId,
+            @NotNull String configName) {
         if (modId == null)
             throw new NullPointerException("Mod ID cannot be null");
         if (configName == null)
             throw new NullPointerException("Config name cannot be null");
 
-        JsonObject defaults = DEFAULTS.getOrDefault(modId, new HashMap<>()).getOrDefault(configName,
-                new JsonObject());
-
-        CONFIGS.computeIfAbsent(modId, k -> new HashMap<>()).put(configName, defaults.deepCopy());
-        save(modId, configName);
+        ConfigSnapshot before;
+        ConfigSnapshot after;
+        ModState state = state(modId);
+        synchronized (state) {
+            before = state.snapshot.withRegistered(configName);
+            after = before.withConfig(configName, before.defaults(configName).deepCopy());
+            publish(state, after);
+        }
+        CompletableFuture<Boolean> saved = saveAsync(modId, configName);
+        dispatch(modId, ConfigSnapshot.diff(before, after), Runnable::run);
 
         LOGGER.info("Reset config: {} for mod: {}", configName, modId);
+        return saved;
     }
 
     /**
@@ -529,56 +1448,273 @@ public class ConfigManager {
 
     // Private helper methods
 
-    @Nullable
-    private static Object getValue(@NotNull String modId, @NotNull String key) {
-        String[] parts = key.split("\\.", 2);
-        String configName = parts.length > 1 ? parts[0] : MAIN_CONFIG;
-        String actualKey = parts.length > 1 ? parts[1] : key;
+    /**
+     * Gets the current change generation.
+     *
+     * @return A counter advanced after every configuration change
+     */
+    static long generation() {
+        return GENERATION.get();
+    }
 
-        JsonObject config = CONFIGS.getOrDefault(modId, new HashMap<>()).getOrDefault(configName,
-                DEFAULTS.getOrDefault(modId, new HashMap<>()).getOrDefault(configName,
-                        new JsonObject()));
+    /**
+     * Checks whether a config file still holds exactly what the API last saved to it.
+     *
+     * @param configFile The config file
+     * @return true if the file is unchanged since the API's last save, false if it was edited,
+     *         was never saved by the API or cannot be read
+     */
+    static boolean isOwnWrite(@NotNull Path configFile) {
+        Long written = WRITTEN.get(configFile.toAbsolutePath());
+        if (written == null) {
+            return false;
+        }
 
-        Object value = getNestedValue(config, actualKey);
-        return value != null ? value : getDefaultValue(modId, configName, actualKey);
+        try {
+            return written == fingerprint(Files.readAllBytes(configFile));
+        } catch (IOException e) {
+            return false;
+        }
     }
 
-    @Nullable
-    private static Object getDefaultValue(@NotNull String modId, @NotNull String configName,
-            @NotNull String key) {
-        JsonObject defaults = DEFAULTS.getOrDefault(modId, new HashMap<>()).getOrDefault(configName,
-                new JsonObject());
-        return getNestedValue(defaults, key);
+    private static long fingerprint(@NotNull byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return (long) content.length << 32 | crc.getValue();
     }
 
-    @Nullable
-    private static Object getNestedValue(@NotNull JsonObject json, @NotNull String key) {
-        String[] parts = key.split("\\.");
-        JsonObject current = json;
+    private static void writeAtomically(@NotNull Path target, @NotNull String content)
+            throws IOException {
+        Path temp = target.resolveSibling("." + target.getFileName() + ".tmp");
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Files.write(temp, bytes);
 
-        for (int i = 0; i < parts.length - 1; i++) {
-            if (!current.has(parts[i]) || !current.get(parts[i]).isJsonObject()) {
-                return null;
+        // Recorded before the move so the watcher already knows it when the event arrives
+        Path key = target.toAbsolutePath();
+        WRITTEN.put(key, fingerprint(bytes));
+        try {
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
             }
-            current = current.getAsJsonObject(parts[i]);
+        } catch (IOException e) {
+            WRITTEN.remove(key);
+            throw e;
         }
+    }
 
-        String finalKey = parts[parts.length - 1];
-        if (!current.has(finalKey)) {
-            return null;
+    @NotNull
+    private static JsonObject readConfig(@NotNull Path configFile) throws IOException {
+        String content = Files.readString(configFile);
+        return JsonParser.parseString(content).getAsJsonObject();
+    }
+
+    /**
+     * Validates a configuration read from disk against the mod's schema and logs every violation
+     * as one report.
+     *
+     * @return The configuration to publish; a repaired copy if anything was invalid
+     */
+    @NotNull
+    private static JsonObject validated(@NotNull String modId, @NotNull String configName,
+            @NotNull JsonObject json) {
+        if (!isValidationEnabled()) {
+            return json;
+        }
+
+        ConfigSchema.Validation validation = state(modId).schema.validate(configName, json);
+        if (!validation.violations().isEmpty()) {
+            StringBuilder report = new StringBuilder();
+            for (ConfigSchema.Violation violation : validation.violations()) {
+                report.append("\n  - ").append(violation.key()).append(": ")
+                        .append(violation.problem()).append(" (using ")
+                        .append(violation.repaired()).append(')');
+            }
+            LOGGER.warn("Config: {} for mod: {} has {} invalid value(s):{}", configName, modId,
+                    validation.violations().size(), report);
+        }
+        return validation.json();
+    }
+
+    private static void checkValue(@NotNull ConfigSchema schema, @NotNull String configName,
+            @NotNull String actualKey, @NotNull Object value) {
+        String flatKey = ConfigSnapshot.flatKey(configName, actualKey);
+        ConfigSchema.Rule rule = schema.rule(flatKey);
+        if (rule == null || !isValidationEnabled()) {
+            return;
+        }
+
+        ConfigSchema.Violation violation =
+                rule.check(flatKey, actualKey.split("\\."), ConfigSchema.toJson(value));
+        if (violation != null) {
+            throw new IllegalArgumentException(
+                    "Invalid value for " + flatKey + ": " + violation.problem());
+        }
+    }
+
+    /**
+     * Checks the global {@code registry.enable_validation} switch.
+     */
+    private static boolean isValidationEnabled() {
+        return !(lookup("mosbergapi", "registry.enable_validation") instanceof Boolean enabled)
+                || enabled;
+    }
+
+    private static void defineRule(@NotNull String modId, @NotNull String key,
+            @NotNull UnaryOperator<ConfigSchema.Rule> change) {
+        if (modId == null)
+            throw new NullPointerException("Mod ID cannot be null");
+        if (key == null)
+            throw new NullPointerException("Key cannot be null");
+
+        String flatKey = normalizeKey(key);
+        ModState state = state(modId);
+        synchronized (state) {
+            ConfigSchema.Rule rule = state.schema.rule(flatKey);
+            if (rule == null)
+                throw new IllegalArgumentException("No default value registered for key: " + key);
+            state.schema = state.schema.with(flatKey, change.apply(rule));
+        }
+    }
+
+    @NotNull
+    private static ModState state(@NotNull String modId) {
+        return STATES.computeIfAbsent(modId, k -> new ModState());
+    }
+
+    /**
+     * Gets the current snapshot of a mod's configuration.
+     *
+     * @param modId The mod identifier
+     * @return The published snapshot, or the empty snapshot if the mod has no configs
+     */
+    @NotNull
+    static ConfigSnapshot snapshot(@NotNull String modId) {
+        ModState state = STATES.get(modId);
+        return state != null ? state.snapshot : ConfigSnapshot.empty();
+    }
+
+    /**
+     * Publishes a new snapshot. Must be called while holding the state's lock.
+     */
+    private static void publish(@NotNull ModState state, @NotNull ConfigSnapshot snapshot) {
+        state.snapshot = snapshot;
+        GENERATION.incrementAndGet();
+    }
+
+    private static void collectPresetValues(@NotNull JsonObject json, @NotNull String prefix,
+            @NotNull Map<String, Object> values) {
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            String key = prefix.isEmpty() ? entry.getKey() : prefix + "." + entry.getKey();
+            if (entry.getValue().isJsonObject()) {
+                collectPresetValues(entry.getValue().getAsJsonObject(), key, values);
+            } else if (!entry.getValue().isJsonNull()) {
+                values.put(key, ConfigSnapshot.toValue(entry.getValue()));
+            }
+        }
+    }
+
+    private static boolean readOverlay(@NotNull String modId, @NotNull Path directory,
+            @NotNull Collection<String> configNames, @NotNull Map<String, Object> layer) {
+        if (!Files.isDirectory(directory)) {
+            return true;
         }
 
-        var element = current.get(finalKey);
-        if (element.isJsonPrimitive()) {
-            var primitive = element.getAsJsonPrimitive();
-            if (primitive.isBoolean())
-                return primitive.getAsBoolean();
-            if (primitive.isNumber())
-                return primitive.getAsNumber();
-            if (primitive.isString())
-                return primitive.getAsString();
+        boolean success = true;
+        for (String configName : configNames) {
+            Path file = directory.resolve(configName + ".json");
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+
+            try {
+                JsonObject json = validated(modId, configName, readConfig(file));
+                layer.putAll(ConfigSnapshot.flatten(configName, json));
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                LOGGER.error("Failed to load config overlay: {}", file, e);
+                success = false;
+            }
         }
-        return element;
+        return success;
+    }
+
+    @Nullable
+    private static Object getValue(@NotNull String modId, @NotNull String key,
+            @NotNull ServerWorld world) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+
+        ConfigSnapshot snapshot = snapshot(modId);
+        String flatKey = normalizeKey(key);
+        Object value = snapshot.get(flatKey, world.getRegistryKey());
+        if (value == null) {
+            value = lookup(modId, key);
+        }
+        if (ConfigMetrics.isEnabled()) {
+            // A value differing from the global one came from an overlay, not the defaults
+            Object global = snapshot.get(flatKey);
+            boolean overlaid = global != null && value != global;
+            ConfigMetrics.recordRead(modId, key,
+                    value == null || !overlaid && isDefaulted(snapshot, key));
+        }
+        return value;
+    }
+
+    @Nullable
+    private static Object getValue(@NotNull String modId, @NotNull String key) {
+        Object value = lookup(modId, key);
+        if (ConfigMetrics.isEnabled()) {
+            ConfigMetrics.recordRead(modId, key,
+                    value == null || isDefaulted(snapshot(modId), key));
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether a key's value comes from the defaults because the loaded file lacks it.
+     */
+    private static boolean isDefaulted(@NotNull ConfigSnapshot snapshot, @NotNull String key) {
+        String[] parts = key.split("\\.", 2);
+        String configName = parts.length > 1 ? parts[0] : MAIN_CONFIG;
+        String actualKey = parts.length > 1 ? parts[1] : key;
+        return !snapshot.isConfigured(configName, actualKey.split("\\."));
+    }
+
+    @Nullable
+    private static Object lookup(@NotNull String modId, @NotNull String key) {
+        ConfigSnapshot snapshot = snapshot(modId);
+        Object value = snapshot.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        String[] parts = key.split("\\.", 2);
+        String configName = parts.length > 1 ? parts[0] : MAIN_CONFIG;
+        String actualKey = parts.length > 1 ? parts[1] : key;
+        return snapshot.resolve(configName, actualKey.split("\\."));
+    }
+
+    /**
+     * Resolves a pre-compiled key as seen from a world, falling back to the global value.
+     */
+    @Nullable
+    static Object resolve(@NotNull String modId, @NotNull String flatKey,
+            @NotNull String configName, @NotNull String[] path, @NotNull ServerWorld world) {
+        Object value = snapshot(modId).get(flatKey, world.getRegistryKey());
+        return value != null ? value : resolve(modId, flatKey, configName, path);
+    }
+
+    /**
+     * Resolves a pre-compiled key, falling back to the registered defaults.
+     */
+    @Nullable
+    static Object resolve(@NotNull String modId, @NotNull String flatKey,
+            @NotNull String configName, @NotNull String[] path) {
+        ConfigSnapshot snapshot = snapshot(modId);
+        Object value = snapshot.get(flatKey);
+        return value != null ? value : snapshot.resolve(configName, path);
     }
 
     private static void setNestedValue(@NotNull JsonObject json, @NotNull String key,
@@ -600,20 +1736,41 @@ public class ConfigManager {
             current.addProperty(finalKey, (Number) value);
         } else if (value instanceof String) {
             current.addProperty(finalKey, (String) value);
+        } else if (value instanceof JsonElement) {
+            current.add(finalKey, ((JsonElement) value).deepCopy());
         } else {
             current.addProperty(finalKey, value.toString());
         }
     }
 
-    private static void notifyChangeListeners(@NotNull String modId, @NotNull String key,
-            @NotNull Object value) {
-        Map<String, Consumer<Object>> listeners = CHANGE_LISTENERS.get(modId);
-        if (listeners != null && listeners.containsKey(key)) {
-            try {
-                listeners.get(key).accept(value);
-            } catch (Exception e) {
-                LOGGER.error("Error in change listener for key: {}", key, e);
-            }
+    @NotNull
+    private static ConfigListenerRegistry listeners(@NotNull String modId) {
+        return LISTENERS.computeIfAbsent(modId, ConfigListenerRegistry::new);
+    }
+
+    private static void dispatch(@NotNull String modId,
+            @NotNull Map<String, ConfigChangeEvent.Change> changes, @NotNull Executor executor) {
+        ConfigListenerRegistry registry = LISTENERS.get(modId);
+        if (registry != null && !changes.isEmpty()) {
+            executor.execute(() -> registry.dispatch(changes));
         }
     }
+
+    /**
+     * Converts a key as accepted by the getters into its flattened form.
+     */
+    @NotNull
+    private static String normalizeKey(@NotNull String key) {
+        String[] parts = key.split("\\.", 2);
+        return parts.length > 1 ? ConfigSnapshot.flatKey(parts[0], parts[1]) : key;
+    }
+
+    /**
+     * Per-mod mutable holder for the published snapshot and schema; also serves as the writers'
+     * lock.
+     */
+    private static final class ModState {
+        private volatile ConfigSnapshot snapshot = ConfigSnapshot.empty();
+        private volatile ConfigSchema schema = ConfigSchema.empty();
+    }
 }
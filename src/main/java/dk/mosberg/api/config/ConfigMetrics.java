@@ -0,0 +1,216 @@
+package dk.mosberg.api.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Optional instrumentation of configuration access.
+ *
+ * <p>
+ * When enabled, every string-keyed getter call ({@code ConfigManager.getInt} and friends) is
+ * counted per key, together with the number of calls for keys that exist neither in the loaded
+ * configuration nor in its defaults and therefore fell back to the getter's built-in default.
+ * Time spent loading, saving and running change listeners is recorded as well. Keys that show up
+ * at the top of {@link #topReads(int)} are candidates for a compiled {@link ConfigHandle}, whose
+ * reads are not counted.
+ *
+ * <p>
+ * Counters use {@link LongAdder}s so concurrent readers do not contend; when disabled, the only
+ * cost on the read path is a single volatile read.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class ConfigMetrics {
+    private static final Map<String, Map<String, KeyCounter>> READS = new ConcurrentHashMap<>();
+    private static final Timer LOADS = new Timer();
+    private static final Timer SAVES = new Timer();
+    private static final Timer LISTENERS = new Timer();
+
+    private static volatile boolean enabled;
+
+    private ConfigMetrics() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Checks whether metrics are being collected.
+     *
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables metric collection. Existing counts are kept.
+     *
+     * @param enable true to collect metrics
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * Clears all collected metrics.
+     */
+    public static void reset() {
+        READS.clear();
+        LOADS.reset();
+        SAVES.reset();
+        LISTENERS.reset();
+    }
+
+    /**
+     * Gets the most frequently read keys.
+     *
+     * @param limit The maximum number of keys to return
+     * @return The keys with their counts, most read first
+     */
+    @NotNull
+    public static List<KeyStats> topReads(int limit) {
+        List<KeyStats> stats = new ArrayList<>();
+        READS.forEach((modId, keys) -> keys.forEach((key, counter) -> stats
+                .add(new KeyStats(modId, key, counter.reads.sum(), counter.misses.sum()))));
+        stats.sort(Comparator.comparingLong(KeyStats::reads).reversed());
+        return stats.size() > limit ? List.copyOf(stats.subList(0, limit)) : stats;
+    }
+
+    /**
+     * Gets the time spent loading and reloading configuration files.
+     */
+    @NotNull
+    public static TimingStats getLoadStats() {
+        return LOADS.stats();
+    }
+
+    /**
+     * Gets the time spent saving configuration files.
+     */
+    @NotNull
+    public static TimingStats getSaveStats() {
+        return SAVES.stats();
+    }
+
+    /**
+     * Gets the time spent running change listeners.
+     */
+    @NotNull
+    public static TimingStats getListenerStats() {
+        return LISTENERS.stats();
+    }
+
+    /**
+     * Records a getter call. Must only be called while enabled.
+     */
+    static void recordRead(@NotNull String modId, @NotNull String key, boolean miss) {
+        KeyCounter counter = READS.computeIfAbsent(modId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new KeyCounter());
+        counter.reads.increment();
+        if (miss) {
+            counter.misses.increment();
+        }
+    }
+
+    /**
+     * Records a load or reload that started at {@code startNanos}.
+     */
+    static void recordLoad(long startNanos) {
+        if (enabled) {
+            LOADS.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Records a save that started at {@code startNanos}.
+     */
+    static void recordSave(long startNanos) {
+        if (enabled) {
+            SAVES.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Records a listener invocation that started at {@code startNanos}.
+     */
+    static void recordListener(long startNanos) {
+        if (enabled) {
+            LISTENERS.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Read counts of a single key.
+     *
+     * @param modId The mod identifier
+     * @param key The key as passed to the getter
+     * @param reads The number of getter calls
+     * @param misses The number of calls that found no value or fell back to the default because
+     *        the loaded configuration lacks the key
+     */
+    public record KeyStats(@NotNull String modId, @NotNull String key, long reads, long misses) {
+    }
+
+    /**
+     * Aggregated timings of one kind of operation.
+     *
+     * @param count The number of operations
+     * @param totalNanos The total time spent
+     * @param maxNanos The longest single operation
+     */
+    public record TimingStats(long count, long totalNanos, long maxNanos) {
+
+        /**
+         * Gets the average duration in milliseconds.
+         *
+         * @return The average, or 0 if nothing was recorded
+         */
+        public double averageMillis() {
+            return count == 0 ? 0.0 : totalNanos / (double) count / 1_000_000.0;
+        }
+
+        /**
+         * Gets the longest duration in milliseconds.
+         *
+         * @return The maximum
+         */
+        public double maxMillis() {
+            return maxNanos / 1_000_000.0;
+        }
+    }
+
+    private static final class KeyCounter {
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+
+    private static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+        void record(long nanos) {
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        void reset() {
+            count.reset();
+            total.reset();
+            max.reset();
+        }
+
+        @NotNull
+        TimingStats stats() {
+            return new TimingStats(count.sum(), total.sum(), max.get());
+        }
+    }
+}
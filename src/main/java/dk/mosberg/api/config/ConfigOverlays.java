@@ -0,0 +1,88 @@
+package dk.mosberg.api.config;
+
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable per-world and per-dimension override layers for one mod's configuration.
+ *
+ * <p>
+ * Layers are stored already flattened by full key, so building a dimension's resolution table in
+ * {@link ConfigSnapshot} is a plain map merge. Resolution order, lowest to highest precedence, is
+ * defaults, global config, world overlay, dimension overlay.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class ConfigOverlays {
+    private static final ConfigOverlays EMPTY = new ConfigOverlays(null, Map.of(), Map.of());
+
+    private final String levelName;
+    private final Map<String, Object> world;
+    private final Map<String, Map<String, Object>> dimensions;
+
+    /**
+     * @param levelName The world save the overlays were loaded for
+     * @param world The flattened world layer
+     * @param dimensions The flattened dimension layers by dimension id
+     */
+    ConfigOverlays(@Nullable String levelName, @NotNull Map<String, Object> world,
+            @NotNull Map<String, Map<String, Object>> dimensions) {
+        this.levelName = levelName;
+        this.world = Map.copyOf(world);
+        this.dimensions = Map.copyOf(dimensions);
+    }
+
+    /**
+     * Gets the empty overlay set.
+     */
+    @NotNull
+    static ConfigOverlays empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Checks whether no layer overrides anything.
+     */
+    boolean isEmpty() {
+        return world.isEmpty() && dimensions.isEmpty();
+    }
+
+    /**
+     * Gets the world save the overlays were loaded for.
+     */
+    @Nullable
+    String levelName() {
+        return levelName;
+    }
+
+    /**
+     * Gets the flattened world layer.
+     */
+    @NotNull
+    Map<String, Object> world() {
+        return world;
+    }
+
+    /**
+     * Gets the flattened layer of a dimension.
+     *
+     * @param dimensionId The dimension identifier, such as {@code minecraft:the_nether}
+     * @return The layer, empty if the dimension has no overlay
+     */
+    @NotNull
+    Map<String, Object> dimension(@NotNull String dimensionId) {
+        return dimensions.getOrDefault(dimensionId, Map.of());
+    }
+
+    /**
+     * Gets the identifiers of all dimensions with an overlay.
+     */
+    @NotNull
+    Set<String> dimensionIds() {
+        return dimensions.keySet();
+    }
+}
@@ -0,0 +1,98 @@
+package dk.mosberg.api.config;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Background queue that writes configuration files off the calling thread.
+ *
+ * <p>
+ * Saves are keyed by mod and configuration name. A save requested while an earlier save of the same
+ * file is still queued joins that request instead of scheduling another write; the queued write
+ * serializes whatever snapshot is current when it runs, so the coalesced result always reflects the
+ * latest change. Writes are performed by a single daemon thread in request order.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class ConfigSaveQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigSaveQueue.class);
+
+    private final Map<String, CompletableFuture<Boolean>> pending = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MosbergAPI Config Saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Queues a save, joining an already queued save of the same file.
+     *
+     * @param modId The mod identifier
+     * @param configName The configuration name
+     * @return A future completed with the result of the write
+     */
+    @NotNull
+    CompletableFuture<Boolean> enqueue(@NotNull String modId, @NotNull String configName) {
+        String key = modId + "/" + configName;
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        CompletableFuture<Boolean> queued = pending.putIfAbsent(key, future);
+        if (queued != null) {
+            return queued;
+        }
+
+        executor.execute(() -> write(key, modId, configName, future));
+        return future;
+    }
+
+    /**
+     * Runs a background task on the saver thread, after every save queued before it.
+     *
+     * @param task The task to run
+     */
+    void execute(@NotNull Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Blocks until every save queued before this call has been written.
+     *
+     * @param timeoutMillis The maximum time to wait
+     * @return true if all queued saves completed in time
+     */
+    boolean flush(long timeoutMillis) {
+        try {
+            executor.submit(() -> {
+            }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.warn("Timed out waiting for {} pending config saves", pending.size());
+            return false;
+        }
+    }
+
+    private void write(@NotNull String key, @NotNull String modId, @NotNull String configName,
+            @NotNull CompletableFuture<Boolean> future) {
+        // Leave the queue before reading state so later changes schedule a fresh write
+        pending.remove(key, future);
+        try {
+            future.complete(ConfigManager.save(modId, configName));
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to save config: {} for mod: {}", configName, modId, e);
+            future.complete(false);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package dk.mosberg.api.config;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Immutable, precompiled validation rules for one mod's configuration keys.
+ *
+ * <p>
+ * A rule is created for every key that receives a default value; its type is inferred from the
+ * default. Range, enumeration and pattern constraints are added on top through
+ * {@link ConfigManager#defineRange}, {@link ConfigManager#defineEnum} and
+ * {@link ConfigManager#definePattern}. Validation walks a whole configuration once, collects every
+ * violation and produces a repaired copy in which wrong types are coerced where possible, numbers
+ * are clamped into range and anything else falls back to the default.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class ConfigSchema {
+    private static final ConfigSchema EMPTY = new ConfigSchema(Map.of());
+
+    private final Map<String, Rule> rules;
+
+    private ConfigSchema(@NotNull Map<String, Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Gets the empty schema.
+     */
+    @NotNull
+    static ConfigSchema empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Gets the rule for a flattened key.
+     */
+    @Nullable
+    Rule rule(@NotNull String flatKey) {
+        return rules.get(flatKey);
+    }
+
+    /**
+     * Returns a schema in which the key's type and default are taken from {@code value}. Existing
+     * constraints on the key are kept.
+     */
+    @NotNull
+    ConfigSchema withDefault(@NotNull String flatKey, @NotNull Object value) {
+        Rule existing = rules.get(flatKey);
+        Rule rule = existing != null ? existing.withDefault(value)
+                : new Rule(Type.of(value), toJson(value), Double.NEGATIVE_INFINITY,
+                        Double.POSITIVE_INFINITY, null, null);
+        return with(flatKey, rule);
+    }
+
+    /**
+     * Returns a schema in which the key's rule is replaced.
+     */
+    @NotNull
+    ConfigSchema with(@NotNull String flatKey, @NotNull Rule rule) {
+        Map<String, Rule> newRules = new HashMap<>(rules);
+        newRules.put(flatKey, rule);
+        return new ConfigSchema(Collections.unmodifiableMap(newRules));
+    }
+
+    /**
+     * Validates a configuration in a single pass.
+     *
+     * @param configName The configuration name
+     * @param json The configuration as read from disk; never modified
+     * @return The configuration to publish (a repaired copy if anything was invalid) and every
+     *         violation found
+     */
+    @NotNull
+    Validation validate(@NotNull String configName, @NotNull JsonObject json) {
+        List<Violation> violations = new ArrayList<>();
+        collect(configName, json, new ArrayList<>(), violations);
+        if (violations.isEmpty()) {
+            return new Validation(json, List.of());
+        }
+
+        JsonObject repaired = json.deepCopy();
+        for (Violation violation : violations) {
+            JsonObject parent = repaired;
+            String[] path = violation.path();
+            for (int i = 0; i < path.length - 1; i++) {
+                parent = parent.getAsJsonObject(path[i]);
+            }
+            parent.add(path[path.length - 1], violation.repaired());
+        }
+        return new Validation(repaired, List.copyOf(violations));
+    }
+
+    private void collect(@NotNull String configName, @NotNull JsonObject json,
+            @NotNull List<String> path, @NotNull List<Violation> violations) {
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            path.add(entry.getKey());
+            String flatKey = ConfigSnapshot.flatKey(configName, String.join(".", path));
+            Rule rule = rules.get(flatKey);
+            JsonElement element = entry.getValue();
+
+            if (rule != null) {
+                Violation violation = rule.check(flatKey, path.toArray(String[]::new), element);
+                if (violation != null) {
+                    violations.add(violation);
+                }
+            } else if (element.isJsonObject()) {
+                collect(configName, element.getAsJsonObject(), path, violations);
+            }
+            path.remove(path.size() - 1);
+        }
+    }
+
+    /**
+     * Converts a value as accepted by {@code ConfigManager.set} to its JSON form.
+     */
+    @NotNull
+    static JsonElement toJson(@NotNull Object value) {
+        if (value instanceof JsonElement element)
+            return element;
+        if (value instanceof Boolean bool)
+            return new JsonPrimitive(bool);
+        if (value instanceof Number number)
+            return new JsonPrimitive(number);
+        return new JsonPrimitive(value.toString());
+    }
+
+    /**
+     * The value type of a configuration key.
+     */
+    enum Type {
+        BOOLEAN, INTEGER, DECIMAL, STRING;
+
+        @NotNull
+        static Type of(@NotNull Object value) {
+            if (value instanceof Boolean)
+                return BOOLEAN;
+            if (value instanceof Byte || value instanceof Short || value instanceof Integer
+                    || value instanceof Long)
+                return INTEGER;
+            if (value instanceof Number)
+                return DECIMAL;
+            return STRING;
+        }
+
+        @NotNull
+        String displayName() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Constraints for a single key.
+     *
+     * @param type The expected type
+     * @param defaultValue The value used when a bad value cannot be repaired
+     * @param min The inclusive minimum for numbers
+     * @param max The inclusive maximum for numbers
+     * @param allowed The allowed values for strings, or null for any
+     * @param pattern The pattern strings must fully match, or null for any
+     */
+    record Rule(@NotNull Type type, @NotNull JsonElement defaultValue, double min, double max,
+            @Nullable List<String> allowed, @Nullable Pattern pattern) {
+
+        @NotNull
+        Rule withDefault(@NotNull Object value) {
+            return new Rule(Type.of(value), toJson(value), min, max, allowed, pattern);
+        }
+
+        @NotNull
+        Rule withRange(double newMin, double newMax) {
+            return new Rule(type, defaultValue, newMin, newMax, allowed, pattern);
+        }
+
+        @NotNull
+        Rule withAllowed(@NotNull List<String> newAllowed) {
+            return new Rule(type, defaultValue, min, max, List.copyOf(newAllowed), pattern);
+        }
+
+        @NotNull
+        Rule withPattern(@NotNull Pattern newPattern) {
+            return new Rule(type, defaultValue, min, max, allowed, newPattern);
+        }
+
+        boolean isNumeric() {
+            return type == Type.INTEGER || type == Type.DECIMAL;
+        }
+
+        /**
+         * Checks a value against this rule.
+         *
+         * @param flatKey The key, for reporting
+         * @param path The key's path inside its configuration
+         * @param element The value to check
+         * @return The violation with its repaired value, or null if the value is valid
+         */
+        @Nullable
+        Violation check(@NotNull String flatKey, @NotNull String[] path,
+                @NotNull JsonElement element) {
+            JsonPrimitive primitive = element.isJsonPrimitive() ? element.getAsJsonPrimitive()
+                    : null;
+            JsonElement value = primitive != null ? coerce(primitive) : null;
+            if (value == null) {
+                return new Violation(flatKey, path, "expected " + type.displayName() + " but was "
+                        + element, defaultValue);
+            }
+
+            String problem = value.equals(element) ? null
+                    : "expected " + type.displayName() + " but was " + element;
+
+            if (isNumeric()) {
+                BigDecimal number = value.getAsBigDecimal();
+                if (number.doubleValue() < min) {
+                    value = bound(min, true);
+                    problem = element + " is below the minimum " + value;
+                } else if (number.doubleValue() > max) {
+                    value = bound(max, false);
+                    problem = element + " is above the maximum " + value;
+                }
+            } else if (type == Type.STRING) {
+                String string = value.getAsString();
+                if (allowed != null && !allowed.contains(string)) {
+                    String match = allowed.stream().filter(string::equalsIgnoreCase).findFirst()
+                            .orElse(null);
+                    value = match != null ? new JsonPrimitive(match) : defaultValue;
+                    problem = element + " is not one of " + allowed;
+                } else if (pattern != null && !pattern.matcher(string).matches()) {
+                    value = defaultValue;
+                    problem = element + " does not match " + pattern.pattern();
+                }
+            }
+
+            return problem != null ? new Violation(flatKey, path, problem, value) : null;
+        }
+
+        @Nullable
+        private JsonElement coerce(@NotNull JsonPrimitive primitive) {
+            switch (type) {
+                case BOOLEAN:
+                    if (primitive.isBoolean())
+                        return primitive;
+                    String text = primitive.getAsString();
+                    if (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false"))
+                        return new JsonPrimitive(Boolean.parseBoolean(text));
+                    return null;
+                case INTEGER:
+                case DECIMAL:
+                    BigDecimal number;
+                    try {
+                        number = primitive.getAsBigDecimal();
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    if (type == Type.INTEGER && number.stripTrailingZeros().scale() > 0) {
+                        return new JsonPrimitive(number.setScale(0, RoundingMode.HALF_UP));
+                    }
+                    return primitive.isNumber() ? primitive : new JsonPrimitive(number);
+                default:
+                    return primitive.isString() ? primitive
+                            : new JsonPrimitive(primitive.getAsString());
+            }
+        }
+
+        @NotNull
+        private JsonPrimitive bound(double bound, boolean lower) {
+            if (type == Type.INTEGER) {
+                return new JsonPrimitive(
+                        (long) (lower ? Math.ceil(bound) : Math.floor(bound)));
+            }
+            return new JsonPrimitive(bound);
+        }
+    }
+
+    /**
+     * A single invalid value.
+     *
+     * @param key The flattened key
+     * @param path The key's path inside its configuration
+     * @param problem A human-readable description
+     * @param repaired The value that replaces it
+     */
+    record Violation(@NotNull String key, @NotNull String[] path, @NotNull String problem,
+            @NotNull JsonElement repaired) {
+    }
+
+    /**
+     * The result of validating a configuration.
+     *
+     * @param json The configuration to publish
+     * @param violations Every violation found, in file order
+     */
+    record Validation(@NotNull JsonObject json, @NotNull List<Violation> violations) {
+    }
+}
@@ -0,0 +1,362 @@
+package dk.mosberg.api.config;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import net.minecraft.registry.RegistryKey;
+
+/**
+ * Immutable view of one mod's configuration state.
+ *
+ * <p>
+ * {@link ConfigManager} publishes a new snapshot through a volatile reference whenever a
+ * configuration is registered, loaded, changed or reset. The {@link JsonObject}s held by a snapshot
+ * are never mutated after publication, so any thread may read them without locking and will always
+ * see either the complete previous state or the complete new state.
+ *
+ * <p>
+ * Leaf values are flattened into a single map at construction time, so the common lookup of a
+ * primitive value is one hash lookup instead of a walk through the JSON tree. Per-world and
+ * per-dimension {@link ConfigOverlays} are merged into one precomputed table per dimension the
+ * first time that dimension is queried.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class ConfigSnapshot {
+    private static final ConfigSnapshot EMPTY =
+            new ConfigSnapshot(Map.of(), Map.of(), ConfigOverlays.empty());
+
+    private final Map<String, JsonObject> configs;
+    private final Map<String, JsonObject> defaults;
+    private final Map<String, Object> values;
+    private final ConfigOverlays overlays;
+
+    /**
+     * Resolution tables with overlays applied, built on first use per dimension.
+     */
+    private final Map<RegistryKey<?>, Map<String, Object>> tables = new ConcurrentHashMap<>();
+
+    private ConfigSnapshot(@NotNull Map<String, JsonObject> configs,
+            @NotNull Map<String, JsonObject> defaults, @NotNull ConfigOverlays overlays) {
+        this.configs = configs;
+        this.defaults = defaults;
+        this.values = flatten(configs, defaults);
+        this.overlays = overlays;
+    }
+
+    /**
+     * Gets the empty snapshot.
+     */
+    @NotNull
+    static ConfigSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Gets the names of all registered configurations, in registration order.
+     */
+    @NotNull
+    Set<String> configNames() {
+        Set<String> names = new LinkedHashSet<>(configs.keySet());
+        names.addAll(defaults.keySet());
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Checks whether a configuration has been registered.
+     */
+    boolean isRegistered(@NotNull String configName) {
+        return configs.containsKey(configName) || defaults.containsKey(configName);
+    }
+
+    /**
+     * Gets the loaded values of a configuration. The returned object must not be mutated.
+     */
+    @Nullable
+    JsonObject config(@NotNull String configName) {
+        return configs.get(configName);
+    }
+
+    /**
+     * Gets the default values of a configuration. The returned object must not be mutated.
+     */
+    @Nullable
+    JsonObject defaults(@NotNull String configName) {
+        return defaults.get(configName);
+    }
+
+    /**
+     * Gets a flattened leaf value by its full key, with defaults applied.
+     *
+     * @param flatKey The key as produced by {@link #flatKey(String, String)}
+     * @return The value, or null if the key is not a known leaf
+     */
+    @Nullable
+    Object get(@NotNull String flatKey) {
+        return values.get(flatKey);
+    }
+
+    /**
+     * Gets a flattened leaf value as seen from a dimension, with defaults, the world overlay and
+     * the dimension overlay applied. After the first lookup per dimension this is a single hash
+     * lookup.
+     *
+     * @param flatKey The key as produced by {@link #flatKey(String, String)}
+     * @param dimension The dimension's registry key
+     * @return The value, or null if the key is not a known leaf
+     */
+    @Nullable
+    Object get(@NotNull String flatKey, @NotNull RegistryKey<?> dimension) {
+        if (overlays.isEmpty()) {
+            return values.get(flatKey);
+        }
+        return tables.computeIfAbsent(dimension, this::buildTable).get(flatKey);
+    }
+
+    /**
+     * Gets the overlays applied by {@link #get(String, RegistryKey)}.
+     */
+    @NotNull
+    ConfigOverlays overlays() {
+        return overlays;
+    }
+
+    /**
+     * Gets every flattened leaf value, with defaults applied.
+     */
+    @NotNull
+    Map<String, Object> values() {
+        return values;
+    }
+
+    /**
+     * Checks whether the loaded configuration itself holds a value at a path, rather than only its
+     * defaults.
+     */
+    boolean isConfigured(@NotNull String configName, @NotNull String[] path) {
+        JsonObject config = configs.get(configName);
+        return config != null && getNestedValue(config, path) != null;
+    }
+
+    /**
+     * Resolves a pre-split path, falling back to the defaults. Unlike {@link #get(String)} this also
+     * returns non-leaf elements such as nested objects and arrays.
+     */
+    @Nullable
+    Object resolve(@NotNull String configName, @NotNull String[] path) {
+        JsonObject config = configs.get(configName);
+        if (config != null) {
+            Object value = getNestedValue(config, path);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        JsonObject defaultConfig = defaults.get(configName);
+        return defaultConfig != null ? getNestedValue(defaultConfig, path) : null;
+    }
+
+    /**
+     * Returns a snapshot in which the configuration is registered with empty values and defaults.
+     */
+    @NotNull
+    ConfigSnapshot withRegistered(@NotNull String configName) {
+        if (configs.containsKey(configName) && defaults.containsKey(configName)) {
+            return this;
+        }
+
+        Map<String, JsonObject> newConfigs = new LinkedHashMap<>(configs);
+        Map<String, JsonObject> newDefaults = new LinkedHashMap<>(defaults);
+        newConfigs.putIfAbsent(configName, new JsonObject());
+        newDefaults.putIfAbsent(configName, new JsonObject());
+        return new ConfigSnapshot(Collections.unmodifiableMap(newConfigs),
+                Collections.unmodifiableMap(newDefaults), overlays);
+    }
+
+    /**
+     * Returns a snapshot with the configuration's values replaced. Ownership of {@code json}
+     * passes to the snapshot; the caller must not mutate it afterwards.
+     */
+    @NotNull
+    ConfigSnapshot withConfig(@NotNull String configName, @NotNull JsonObject json) {
+        Map<String, JsonObject> newConfigs = new LinkedHashMap<>(configs);
+        newConfigs.put(configName, json);
+        return new ConfigSnapshot(Collections.unmodifiableMap(newConfigs), defaults, overlays);
+    }
+
+    /**
+     * Returns a snapshot with the configuration's defaults replaced. Ownership of {@code json}
+     * passes to the snapshot; the caller must not mutate it afterwards.
+     */
+    @NotNull
+    ConfigSnapshot withDefaults(@NotNull String configName, @NotNull JsonObject json) {
+        Map<String, JsonObject> newDefaults = new LinkedHashMap<>(defaults);
+        newDefaults.put(configName, json);
+        return new ConfigSnapshot(configs, Collections.unmodifiableMap(newDefaults), overlays);
+    }
+
+    /**
+     * Returns a snapshot with the overlays replaced.
+     */
+    @NotNull
+    ConfigSnapshot withOverlays(@NotNull ConfigOverlays newOverlays) {
+        return new ConfigSnapshot(configs, defaults, newOverlays);
+    }
+
+    /**
+     * Computes the leaf values that differ between two snapshots.
+     *
+     * @param before The previous snapshot
+     * @param after The new snapshot
+     * @return The changed keys with their old and new values, in no particular order
+     */
+    @NotNull
+    static Map<String, ConfigChangeEvent.Change> diff(@NotNull ConfigSnapshot before,
+            @NotNull ConfigSnapshot after) {
+        Map<String, ConfigChangeEvent.Change> changes = new LinkedHashMap<>();
+        if (before == after) {
+            return changes;
+        }
+
+        for (Map.Entry<String, Object> entry : after.values.entrySet()) {
+            Object oldValue = before.values.get(entry.getKey());
+            if (!valuesEqual(oldValue, entry.getValue())) {
+                changes.put(entry.getKey(),
+                        new ConfigChangeEvent.Change(oldValue, entry.getValue()));
+            }
+        }
+        for (Map.Entry<String, Object> entry : before.values.entrySet()) {
+            if (!after.values.containsKey(entry.getKey())) {
+                changes.put(entry.getKey(), new ConfigChangeEvent.Change(entry.getValue(), null));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Compares two values as the getters would, treating numbers by numeric value so that a default
+     * {@code 200} equals a parsed {@code 200.0}.
+     */
+    static boolean valuesEqual(@Nullable Object a, @Nullable Object b) {
+        if (a instanceof Number first && b instanceof Number second) {
+            try {
+                return new BigDecimal(first.toString())
+                        .compareTo(new BigDecimal(second.toString())) == 0;
+            } catch (NumberFormatException e) {
+                return first.doubleValue() == second.doubleValue();
+            }
+        }
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * Builds the flattened key used by {@link #get(String)}.
+     *
+     * @param configName The configuration name
+     * @param path The dot-separated path inside the configuration
+     * @return The full key as accepted by the {@code ConfigManager} getters
+     */
+    @NotNull
+    static String flatKey(@NotNull String configName, @NotNull String path) {
+        if (ConfigManager.MAIN_CONFIG.equals(configName) && path.indexOf('.') < 0) {
+            return path;
+        }
+        return configName + "." + path;
+    }
+
+    /**
+     * Converts a JSON element to the value type returned by the getters.
+     */
+    @Nullable
+    static Object toValue(@Nullable JsonElement element) {
+        if (element == null) {
+            return null;
+        }
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean())
+                return primitive.getAsBoolean();
+            if (primitive.isNumber())
+                return primitive.getAsNumber();
+            if (primitive.isString())
+                return primitive.getAsString();
+        }
+        return element;
+    }
+
+    @Nullable
+    private static Object getNestedValue(@NotNull JsonObject json, @NotNull String[] parts) {
+        JsonObject current = json;
+
+        for (int i = 0; i < parts.length - 1; i++) {
+            if (!current.has(parts[i]) || !current.get(parts[i]).isJsonObject()) {
+                return null;
+            }
+            current = current.getAsJsonObject(parts[i]);
+        }
+
+        String finalKey = parts[parts.length - 1];
+        if (!current.has(finalKey)) {
+            return null;
+        }
+        return toValue(current.get(finalKey));
+    }
+
+    /**
+     * Flattens a single configuration tree into leaf values keyed as by
+     * {@link #flatKey(String, String)}.
+     */
+    @NotNull
+    static Map<String, Object> flatten(@NotNull String configName, @NotNull JsonObject json) {
+        Map<String, Object> flat = new HashMap<>();
+        flattenInto(flat, configName, "", json);
+        return flat;
+    }
+
+    @NotNull
+    private Map<String, Object> buildTable(@NotNull RegistryKey<?> dimension) {
+        Map<String, Object> layer = overlays.dimension(dimension.getValue().toString());
+        if (overlays.world().isEmpty() && layer.isEmpty()) {
+            return values;
+        }
+
+        Map<String, Object> table = new HashMap<>(values);
+        table.putAll(overlays.world());
+        table.putAll(layer);
+        return Collections.unmodifiableMap(table);
+    }
+
+    @NotNull
+    private static Map<String, Object> flatten(@NotNull Map<String, JsonObject> configs,
+            @NotNull Map<String, JsonObject> defaults) {
+        Map<String, Object> flat = new HashMap<>();
+        defaults.forEach((configName, json) -> flattenInto(flat, configName, "", json));
+        configs.forEach((configName, json) -> flattenInto(flat, configName, "", json));
+        return Collections.unmodifiableMap(flat);
+    }
+
+    private static void flattenInto(@NotNull Map<String, Object> flat, @NotNull String configName,
+            @NotNull String prefix, @NotNull JsonObject json) {
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            String path = prefix.isEmpty() ? entry.getKey() : prefix + "." + entry.getKey();
+            JsonElement element = entry.getValue();
+            if (element.isJsonObject()) {
+                flattenInto(flat, configName, path, element.getAsJsonObject());
+            } else {
+                flat.put(flatKey(configName, path), toValue(element));
+            }
+        }
+    }
+}
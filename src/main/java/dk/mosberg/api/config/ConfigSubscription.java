@@ -0,0 +1,74 @@
+package dk.mosberg.api.config;
+
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Handle to a registered configuration change subscriber.
+ *
+ * <p>
+ * Returned by {@link ConfigManager#subscribe(String, String, Consumer)}; close it to stop receiving
+ * events.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class ConfigSubscription implements AutoCloseable {
+    private final ConfigListenerRegistry registry;
+    private final String pattern;
+    private final Consumer<ConfigChangeEvent> listener;
+    @Nullable
+    private final Executor executor;
+
+    ConfigSubscription(@NotNull ConfigListenerRegistry registry, @NotNull String pattern,
+            @NotNull Consumer<ConfigChangeEvent> listener, @Nullable Executor executor) {
+        this.registry = registry;
+        this.pattern = pattern;
+        this.listener = listener;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the key pattern of this subscription.
+     *
+     * @return An exact key, a prefix ending in {@code .*}, or {@code *}
+     */
+    @NotNull
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Checks whether events are delivered on a dedicated executor rather than synchronously.
+     *
+     * @return true if executor-dispatched
+     */
+    public boolean isAsync() {
+        return executor != null;
+    }
+
+    /**
+     * Stops delivering events to this subscriber.
+     */
+    public void unsubscribe() {
+        registry.remove(this);
+    }
+
+    @Override
+    public void close() {
+        unsubscribe();
+    }
+
+    @NotNull
+    Consumer<ConfigChangeEvent> getListener() {
+        return listener;
+    }
+
+    @Nullable
+    Executor getExecutor() {
+        return executor;
+    }
+}
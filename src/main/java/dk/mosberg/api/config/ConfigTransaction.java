@@ -0,0 +1,82 @@
+package dk.mosberg.api.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A set of configuration changes applied together by
+ * {@link ConfigManager#transaction(String, java.util.function.Consumer)}.
+ *
+ * <p>
+ * Values set here are only recorded. When the transaction body returns, every value is validated;
+ * if all are valid they are published as one snapshot, subscribers receive one change batch and
+ * each touched configuration file is saved once. If any value is invalid nothing is applied.
+ * Setting the same key twice keeps the last value.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * ConfigManager.transaction("mosbergapi", tx -> tx
+ *         .set("entities.max_entity_count", 100)
+ *         .set("entities.spawn_rates_multiplier", 0.5));
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class ConfigTransaction {
+    private final String modId;
+    private final Map<String, Object> changes = new LinkedHashMap<>();
+
+    ConfigTransaction(@NotNull String modId) {
+        this.modId = modId;
+    }
+
+    /**
+     * Records a value to set.
+     *
+     * @param key The configuration key
+     * @param value The new value
+     * @return This transaction
+     */
+    @NotNull
+    public ConfigTransaction set(@NotNull String key, @NotNull Object value) {
+        if (key == null)
+            throw new NullPointerException("Key cannot be null");
+        if (value == null)
+            throw new NullPointerException("Value cannot be null");
+
+        changes.put(key, value);
+        return this;
+    }
+
+    /**
+     * Gets the mod this transaction applies to.
+     *
+     * @return The mod identifier
+     */
+    @NotNull
+    public String getModId() {
+        return modId;
+    }
+
+    /**
+     * Checks whether any value has been recorded.
+     *
+     * @return true if nothing would change
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Gets the recorded values by key, in the order they were first set.
+     */
+    @NotNull
+    Map<String, Object> changes() {
+        return Collections.unmodifiableMap(changes);
+    }
+}
@@ -0,0 +1,147 @@
+package dk.mosberg.api.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches a mod's configuration directory and hot-reloads files edited on disk.
+ *
+ * <p>
+ * Editors commonly produce several modify/create events per save, so events are debounced per
+ * file: a file is reloaded once no further events for it have arrived for {@link #DEBOUNCE_MS}
+ * milliseconds. Reading and parsing happen on the watcher thread; only the change listeners of
+ * keys whose values actually changed are dispatched, on the supplied callback executor (normally
+ * the server thread). Files that still hold exactly what the API itself last saved are not
+ * reloaded, so a save never reverts values set after it was written.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class ConfigWatcher implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigWatcher.class);
+    private static final long DEBOUNCE_MS = 250L;
+    private static final String EXTENSION = ".json";
+
+    private final String modId;
+    private final Path directory;
+    private final Executor callbackExecutor;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final Map<String, Long> pending = new HashMap<>();
+
+    private ConfigWatcher(@NotNull String modId, @NotNull Path directory,
+            @NotNull Executor callbackExecutor) throws IOException {
+        this.modId = modId;
+        this.directory = directory;
+        this.callbackExecutor = callbackExecutor;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        this.thread = new Thread(this::run, "MosbergAPI Config Watcher (" + modId + ")");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching a mod's configuration directory.
+     *
+     * @param modId The mod identifier
+     * @param directory The directory containing the mod's config files
+     * @param callbackExecutor The executor change listeners are dispatched on
+     * @return The running watcher
+     * @throws IOException If the directory cannot be watched
+     */
+    @NotNull
+    static ConfigWatcher start(@NotNull String modId, @NotNull Path directory,
+            @NotNull Executor callbackExecutor) throws IOException {
+        Files.createDirectories(directory);
+        ConfigWatcher watcher = new ConfigWatcher(modId, directory, callbackExecutor);
+        watcher.thread.start();
+        LOGGER.info("Watching config directory for mod: {} ({})", modId, directory);
+        return watcher;
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = pending.isEmpty() ? watchService.take()
+                        : watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+
+                if (key != null) {
+                    collect(key);
+                }
+                reloadSettled();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+        LOGGER.debug("Stopped watching config directory for mod: {}", modId);
+    }
+
+    private void collect(@NotNull WatchKey key) {
+        long deadline = System.currentTimeMillis() + DEBOUNCE_MS;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+
+            String fileName = event.context().toString();
+            if (fileName.endsWith(EXTENSION) && !fileName.startsWith(".")) {
+                pending.put(fileName.substring(0, fileName.length() - EXTENSION.length()),
+                        deadline);
+            }
+        }
+        key.reset();
+    }
+
+    private void reloadSettled() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Long>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getValue() > now) {
+                continue;
+            }
+
+            iterator.remove();
+            String configName = entry.getKey();
+            if (!ConfigManager.snapshot(modId).isRegistered(configName)
+                    || ConfigManager.isOwnWrite(directory.resolve(configName + EXTENSION))) {
+                continue;
+            }
+
+            try {
+                ConfigManager.reload(modId, List.of(configName), callbackExecutor);
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to hot-reload config: {} for mod: {}", configName, modId, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close config watcher for mod: {}", modId, e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dk.mosberg.api.config;
+
+import org.jetbrains.annotations.NotNull;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Compiled, allocation-free handle to a double configuration value.
+ *
+ * <p>
+ * Obtain instances through {@link ConfigManager#doubleHandle(String, String)}.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class DoubleConfigHandle extends ConfigHandle {
+    private volatile Cached cached = new Cached(-1L, 0.0);
+
+    DoubleConfigHandle(@NotNull String modId, @NotNull String key) {
+        super(modId, key);
+    }
+
+    /**
+     * Gets the current value.
+     *
+     * @return The configuration value, or 0.0 if not found or not a number
+     */
+    public double get() {
+        long generation = ConfigManager.generation();
+        Cached current = cached;
+        if (current.generation == generation) {
+            return current.value;
+        }
+        return refresh(generation);
+    }
+
+    /**
+     * Gets the value as seen from a world, with its world and dimension overlays applied.
+     *
+     * @param world The world
+     * @return The configuration value, or 0.0 if not found
+     */
+    public double get(@NotNull ServerWorld world) {
+        Object value = resolve(world);
+        return value instanceof Number number ? number.doubleValue() : 0.0;
+    }
+
+    private double refresh(long generation) {
+        Object value = resolve();
+        double resolved = value instanceof Number number ? number.doubleValue() : 0.0;
+        cached = new Cached(generation, resolved);
+        return resolved;
+    }
+
+    private record Cached(long generation, double value) {
+    }
+}
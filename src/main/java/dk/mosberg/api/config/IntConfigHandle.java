@@ -0,0 +1,70 @@
+package dk.mosberg.api.config;
+
+import org.jetbrains.annotations.NotNull;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Compiled, allocation-free handle to an integer configuration value.
+ *
+ * <p>
+ * Obtain instances through {@link ConfigManager#intHandle(String, String)} and keep them in a
+ * static field. Reads return the cached primitive until the backing configuration changes.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * private static final IntConfigHandle MAX_ENTITIES =
+ *         ConfigManager.intHandle("mosbergapi", "entities.max_entity_count");
+ *
+ * // Every tick
+ * if (count > MAX_ENTITIES.get()) {
+ *     // ...
+ * }
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class IntConfigHandle extends ConfigHandle {
+    private volatile Cached cached = new Cached(-1L, 0);
+
+    IntConfigHandle(@NotNull String modId, @NotNull String key) {
+        super(modId, key);
+    }
+
+    /**
+     * Gets the current value.
+     *
+     * @return The configuration value, or 0 if not found or not a number
+     */
+    public int get() {
+        long generation = ConfigManager.generation();
+        Cached current = cached;
+        if (current.generation == generation) {
+            return current.value;
+        }
+        return refresh(generation);
+    }
+
+    /**
+     * Gets the value as seen from a world, with its world and dimension overlays applied.
+     *
+     * @param world The world
+     * @return The configuration value, or 0 if not found
+     */
+    public int get(@NotNull ServerWorld world) {
+        Object value = resolve(world);
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    private int refresh(long generation) {
+        Object value = resolve();
+        int resolved = value instanceof Number number ? number.intValue() : 0;
+        cached = new Cached(generation, resolved);
+        return resolved;
+    }
+
+    private record Cached(long generation, int value) {
+    }
+}
@@ -0,0 +1,204 @@
+package dk.mosberg.api.debug;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Attributes heap allocations to MosbergAPI call sites using JDK Flight Recorder.
+ *
+ * <p>
+ * While sampling, JFR reports a throttled stream of {@code jdk.ObjectAllocationSample} events,
+ * each weighted by the bytes allocated since the previous sample on that thread. The innermost
+ * stack frame inside MosbergAPI (outside this package) is taken as the call site, and weights are
+ * summed per site, so the result estimates how many bytes each helper allocated. Samples whose
+ * stack never enters MosbergAPI are only counted in the total.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * AllocationSampler.start(server, 30).thenAccept(report -> {
+ *     for (AllocationSampler.Site site : report.sites()) {
+ *         LOGGER.info("{}: {} bytes", site.frame(), site.bytes());
+ *     }
+ * });
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class AllocationSampler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AllocationSampler.class);
+    private static final String EVENT = "jdk.ObjectAllocationSample";
+    private static final String API_PACKAGE = "dk.mosberg.api.";
+    private static final String OWN_PACKAGE = "dk.mosberg.api.debug.";
+    private static final int STACK_DEPTH = 64;
+
+    private static RecordingStream stream;
+
+    private AllocationSampler() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Checks whether this JVM can record allocation samples.
+     *
+     * @return true if JDK Flight Recorder is available
+     */
+    public static boolean isAvailable() {
+        try {
+            return FlightRecorder.isAvailable();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Starts sampling allocations.
+     *
+     * @param server The server to complete the future on
+     * @param seconds How long to sample
+     * @return A future completed on the server thread with the report
+     * @throws IllegalStateException if sampling is already running or JFR is unavailable
+     */
+    @NotNull
+    public static synchronized CompletableFuture<Report> start(@NotNull MinecraftServer server,
+            int seconds) {
+        if (server == null)
+            throw new NullPointerException("Server cannot be null");
+        if (seconds <= 0)
+            throw new IllegalArgumentException("Duration must be positive");
+        if (stream != null)
+            throw new IllegalStateException("Allocations are already being sampled");
+        if (!isAvailable())
+            throw new IllegalStateException("JDK Flight Recorder is not available");
+
+        Object2LongOpenHashMap<String> sites = new Object2LongOpenHashMap<>();
+        long[] totals = new long[2];
+        CompletableFuture<Report> future = new CompletableFuture<>();
+
+        RecordingStream started = new RecordingStream();
+        started.enable(EVENT).withStackTrace();
+        started.onEvent(EVENT, event -> {
+            long weight = event.getLong("weight");
+            totals[0] += weight;
+            String site = callSite(event);
+            if (site != null) {
+                totals[1] += weight;
+                sites.addTo(site, weight);
+            }
+        });
+        started.onClose(() -> {
+            Report report = buildReport(sites, totals[0], totals[1]);
+            server.execute(() -> future.complete(report));
+        });
+
+        stream = started;
+        try {
+            started.startAsync();
+        } catch (RuntimeException e) {
+            stream = null;
+            started.close();
+            throw new IllegalStateException("Could not start allocation sampling", e);
+        }
+
+        Thread.ofVirtual().name("MosbergAPI Allocation Sampler").start(() -> {
+            try {
+                started.awaitTermination(Duration.ofSeconds(seconds));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stop(started);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Stops sampling early. The report is still produced.
+     *
+     * @return true if sampling was running
+     */
+    public static synchronized boolean stop() {
+        if (stream == null) {
+            return false;
+        }
+        stop(stream);
+        return true;
+    }
+
+    private static synchronized void stop(@NotNull RecordingStream running) {
+        if (stream == running) {
+            stream = null;
+            running.close();
+        }
+    }
+
+    @Nullable
+    private static String callSite(@NotNull RecordedEvent event) {
+        RecordedStackTrace trace = event.getStackTrace();
+        if (trace == null) {
+            return null;
+        }
+
+        List<RecordedFrame> frames = trace.getFrames();
+        for (int i = 0, n = Math.min(frames.size(), STACK_DEPTH); i < n; i++) {
+            RecordedFrame frame = frames.get(i);
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(API_PACKAGE) && !type.startsWith(OWN_PACKAGE)) {
+                return type.substring(API_PACKAGE.length()) + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber();
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    private static Report buildReport(@NotNull Object2LongOpenHashMap<String> sites,
+            long totalBytes, long apiBytes) {
+        List<Site> result = new ArrayList<>(sites.size());
+        for (Object2LongMap.Entry<String> entry : sites.object2LongEntrySet()) {
+            result.add(new Site(entry.getKey(), entry.getLongValue()));
+        }
+        result.sort(Comparator.comparingLong(Site::bytes).reversed());
+        LOGGER.debug("Sampled {} allocated bytes, {} in MosbergAPI", totalBytes, apiBytes);
+        return new Report(totalBytes, apiBytes, List.copyOf(result));
+    }
+
+    /**
+     * Result of a sampling run. Byte counts are estimates scaled from the samples.
+     *
+     * @param totalBytes Bytes allocated by all sampled threads
+     * @param apiBytes Bytes allocated with a MosbergAPI frame on the stack
+     * @param sites Bytes per MosbergAPI call site, largest first
+     */
+    public record Report(long totalBytes, long apiBytes, @NotNull List<Site> sites) {
+    }
+
+    /**
+     * Bytes attributed to one call site.
+     *
+     * @param frame The class, relative to {@code dk.mosberg.api}, method and line
+     * @param bytes The estimated bytes allocated
+     */
+    public record Site(@NotNull String frame, long bytes) {
+    }
+}
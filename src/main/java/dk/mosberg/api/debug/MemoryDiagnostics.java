@@ -0,0 +1,302 @@
+package dk.mosberg.api.debug;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Heap, off-heap, garbage collection and allocation diagnostics from the JVM management beans.
+ *
+ * <p>
+ * Memory is reported per pool rather than as one heap total, so a full old generation and a full
+ * metaspace can be told apart, and direct and mapped buffer pools are reported next to them. Every
+ * collection the JVM reports is kept in a short history with its duration, cause and the heap
+ * freed. For concurrent collectors such as ZGC and Shenandoah the duration is that of the whole
+ * cycle, not of the pauses within it.
+ *
+ * <p>
+ * The allocation rate is measured once per second on the server tick from the per-thread
+ * allocation counters, both for the whole JVM and for the server thread alone. It is only
+ * available when the JVM supports thread allocation accounting, which HotSpot does by default.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * for (MemoryDiagnostics.PoolUsage pool : MemoryDiagnostics.getPools()) {
+ *     LOGGER.info("{}: {} of {} bytes", pool.name(), pool.used(), pool.max());
+ * }
+ * MemoryDiagnostics.AllocationRate rate = MemoryDiagnostics.getAllocationRate();
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class MemoryDiagnostics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryDiagnostics.class);
+    private static final int HISTORY_SIZE = 64;
+    private static final long RATE_INTERVAL_NANOS = 1_000_000_000L;
+    private static final Deque<GcEvent> HISTORY = new ArrayDeque<>(HISTORY_SIZE);
+
+    private static boolean initialized;
+    private static com.sun.management.ThreadMXBean threads;
+    private static long serverThreadId = -1;
+    private static long lastSampleNanos;
+    private static long lastTotalBytes;
+    private static long lastServerBytes;
+    private static volatile AllocationRate rate = AllocationRate.UNKNOWN;
+
+    private MemoryDiagnostics() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Subscribes to garbage collection notifications and starts measuring the allocation rate.
+     */
+    public static synchronized void initialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener((notification, handback) -> onGc(notification),
+                        null, null);
+            }
+        }
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean extended
+                && extended.isThreadAllocatedMemorySupported()) {
+            if (!extended.isThreadAllocatedMemoryEnabled()) {
+                extended.setThreadAllocatedMemoryEnabled(true);
+            }
+            threads = extended;
+            ServerLifecycleEvents.SERVER_STARTED.register(MemoryDiagnostics::onServerStarted);
+            ServerTickEvents.END_SERVER_TICK.register(server -> sampleAllocations());
+        } else {
+            LOGGER.info("Thread allocation accounting unavailable, allocation rate disabled");
+        }
+    }
+
+    /**
+     * Gets the usage of every heap and non-heap memory pool.
+     *
+     * @return The pools, heap pools first
+     */
+    @NotNull
+    public static List<PoolUsage> getPools() {
+        List<PoolUsage> heap = new ArrayList<>();
+        List<PoolUsage> nonHeap = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (!pool.isValid()) {
+                continue;
+            }
+            MemoryUsage usage = pool.getUsage();
+            boolean isHeap = pool.getType() == MemoryType.HEAP;
+            (isHeap ? heap : nonHeap).add(new PoolUsage(pool.getName(), isHeap, usage.getUsed(),
+                    usage.getCommitted(), usage.getMax()));
+        }
+        heap.addAll(nonHeap);
+        return heap;
+    }
+
+    /**
+     * Gets the usage of the direct and mapped buffer pools, which live outside the heap.
+     *
+     * @return The buffer pools
+     */
+    @NotNull
+    public static List<BufferUsage> getBufferPools() {
+        List<BufferUsage> result = new ArrayList<>();
+        for (BufferPoolMXBean pool : ManagementFactory
+                .getPlatformMXBeans(BufferPoolMXBean.class)) {
+            result.add(new BufferUsage(pool.getName(), pool.getCount(), pool.getMemoryUsed(),
+                    pool.getTotalCapacity()));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the collection count and accumulated time of every garbage collector.
+     *
+     * @return The collectors
+     */
+    @NotNull
+    public static List<CollectorTotals> getCollectors() {
+        List<CollectorTotals> result = new ArrayList<>();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result.add(new CollectorTotals(collector.getName(), collector.getCollectionCount(),
+                    collector.getCollectionTime()));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the most recent garbage collections.
+     *
+     * @return Up to {@value #HISTORY_SIZE} collections, newest first
+     */
+    @NotNull
+    public static List<GcEvent> getGcHistory() {
+        synchronized (HISTORY) {
+            return List.copyOf(HISTORY);
+        }
+    }
+
+    /**
+     * Gets the allocation rate measured over the last second.
+     *
+     * @return The rate, or {@link AllocationRate#UNKNOWN} if it is not measured
+     */
+    @NotNull
+    public static AllocationRate getAllocationRate() {
+        return rate;
+    }
+
+    private static void onGc(@NotNull Notification notification) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION
+                .equals(notification.getType())) {
+            return;
+        }
+
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                .from((CompositeData) notification.getUserData());
+        long before = heapUsed(info.getGcInfo().getMemoryUsageBeforeGc());
+        long after = heapUsed(info.getGcInfo().getMemoryUsageAfterGc());
+        GcEvent event = new GcEvent(System.currentTimeMillis(), info.getGcName(),
+                info.getGcAction(), info.getGcCause(), info.getGcInfo().getDuration(), before,
+                after);
+        synchronized (HISTORY) {
+            if (HISTORY.size() == HISTORY_SIZE) {
+                HISTORY.pollLast();
+            }
+            HISTORY.addFirst(event);
+        }
+    }
+
+    private static long heapUsed(@NotNull Map<String, MemoryUsage> pools) {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pools.get(pool.getName())
+                    : null;
+            if (usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static void onServerStarted(@NotNull MinecraftServer server) {
+        serverThreadId = server.getThread().threadId();
+        lastSampleNanos = 0;
+        rate = AllocationRate.UNKNOWN;
+    }
+
+    private static void sampleAllocations() {
+        long now = System.nanoTime();
+        if (lastSampleNanos != 0 && now - lastSampleNanos < RATE_INTERVAL_NANOS) {
+            return;
+        }
+
+        long total = threads.getTotalThreadAllocatedBytes();
+        long server = serverThreadId < 0 ? -1 : threads.getThreadAllocatedBytes(serverThreadId);
+        if (lastSampleNanos != 0 && total >= 0) {
+            double seconds = (now - lastSampleNanos) / 1_000_000_000.0;
+            rate = new AllocationRate((long) ((total - lastTotalBytes) / seconds),
+                    server < 0 ? -1 : (long) ((server - lastServerBytes) / seconds));
+        }
+        lastSampleNanos = now;
+        lastTotalBytes = total;
+        lastServerBytes = server;
+    }
+
+    /**
+     * Usage of one memory pool. Values are in bytes; max is -1 when the pool is unbounded.
+     *
+     * @param name The pool name
+     * @param heap Whether the pool is part of the heap
+     * @param used Bytes in use
+     * @param committed Bytes reserved from the operating system
+     * @param max The largest size the pool can grow to
+     */
+    public record PoolUsage(@NotNull String name, boolean heap, long used, long committed,
+            long max) {
+    }
+
+    /**
+     * Usage of one buffer pool.
+     *
+     * @param name The pool name, such as {@code direct} or {@code mapped}
+     * @param count The number of buffers
+     * @param used Bytes of memory in use
+     * @param capacity Total capacity of the buffers in bytes
+     */
+    public record BufferUsage(@NotNull String name, long count, long used, long capacity) {
+    }
+
+    /**
+     * Accumulated work of one garbage collector since the JVM started.
+     *
+     * @param name The collector name
+     * @param count The number of collections
+     * @param timeMillis The accumulated collection time
+     */
+    public record CollectorTotals(@NotNull String name, long count, long timeMillis) {
+    }
+
+    /**
+     * One garbage collection.
+     *
+     * @param timestamp When the collection was reported, in epoch milliseconds
+     * @param collector The collector name
+     * @param action What was collected, such as {@code end of minor GC}
+     * @param cause Why the collection ran
+     * @param durationMillis How long the collection took
+     * @param heapBefore Heap bytes in use before
+     * @param heapAfter Heap bytes in use after
+     */
+    public record GcEvent(long timestamp, @NotNull String collector, @NotNull String action,
+            @NotNull String cause, long durationMillis, long heapBefore, long heapAfter) {
+
+        /**
+         * Gets the heap bytes the collection freed.
+         */
+        public long freed() {
+            return heapBefore - heapAfter;
+        }
+    }
+
+    /**
+     * Allocation rate in bytes per second, or -1 where unknown.
+     *
+     * @param totalBytesPerSecond Allocated by all threads
+     * @param serverBytesPerSecond Allocated by the server thread
+     */
+    public record AllocationRate(long totalBytesPerSecond, long serverBytesPerSecond) {
+        /**
+         * The rate before the first measurement, or when it is not measured.
+         */
+        public static final AllocationRate UNKNOWN = new AllocationRate(-1, -1);
+    }
+}
@@ -0,0 +1,481 @@
+package dk.mosberg.api.debug;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import dk.mosberg.api.config.ConfigManager;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.fabricmc.loader.api.FabricLoader;
+import net.fabricmc.loader.api.ModContainer;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Sampling profiler for the server thread.
+ *
+ * <p>
+ * While recording, a background thread takes a stack trace of the server thread every
+ * {@value #INTERVAL_MILLIS} milliseconds. Mixins publish what the server thread is ticking (the
+ * world, and the entity or block entity with its chunk) in a few volatile fields, so each sample
+ * inside a tick is attributed to a world, chunk, entity type, block entity type and the mod owning
+ * the innermost non-vanilla frame. Samples taken between ticks are counted as idle. The stacks are
+ * also written as a collapsed-stack file under {@code config/mosbergapi/profiles/} for flame graph
+ * tools.
+ *
+ * <p>
+ * When not recording, the tick hooks cost one volatile read each.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * TickProfiler.start(server, 30).thenAccept(report -> {
+ *     for (TickProfiler.Entry entry : report.mods()) {
+ *         LOGGER.info("{}: {}%", entry.name(), report.percentOfTick(entry));
+ *     }
+ * });
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class TickProfiler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TickProfiler.class);
+    private static final long INTERVAL_MILLIS = 10;
+    private static final long NO_CHUNK = Long.MIN_VALUE;
+    private static final DateTimeFormatter FILE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static volatile boolean recording;
+    private static volatile boolean inTick;
+    private static volatile ServerWorld world;
+    private static volatile EntityType<?> entityType;
+    private static volatile BlockEntityType<?> blockEntityType;
+    private static volatile long chunk = NO_CHUNK;
+    private static volatile Session session;
+
+    private TickProfiler() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Starts recording.
+     *
+     * @param server The server whose thread to sample
+     * @param seconds How long to record
+     * @return A future completed on the server thread with the report
+     * @throws IllegalStateException if a recording is already running
+     */
+    @NotNull
+    public static synchronized CompletableFuture<Report> start(@NotNull MinecraftServer server,
+            int seconds) {
+        if (server == null)
+            throw new NullPointerException("Server cannot be null");
+        if (seconds <= 0)
+            throw new IllegalArgumentException("Duration must be positive");
+        if (session != null)
+            throw new IllegalStateException("A profile is already being recorded");
+
+        Session started = new Session(server, seconds);
+        session = started;
+        recording = true;
+        Thread thread = new Thread(started, "MosbergAPI Profiler");
+        thread.setDaemon(true);
+        thread.start();
+        return started.future;
+    }
+
+    /**
+     * Stops the running recording early. Its report is still produced.
+     *
+     * @return true if a recording was running
+     */
+    public static boolean stop() {
+        Session current = session;
+        if (current == null) {
+            return false;
+        }
+        current.stopRequested = true;
+        return true;
+    }
+
+    /**
+     * Checks whether a recording is running.
+     */
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Marks the start of a server tick. Called by a mixin.
+     */
+    public static void enterTick() {
+        if (recording) {
+            inTick = true;
+        }
+    }
+
+    /**
+     * Marks the end of a server tick. Called by a mixin.
+     */
+    public static void exitTick() {
+        if (recording) {
+            inTick = false;
+        }
+    }
+
+    /**
+     * Marks the start of a world tick. Called by a mixin.
+     */
+    public static void enterWorld(@NotNull ServerWorld ticked) {
+        if (recording) {
+            world = ticked;
+        }
+    }
+
+    /**
+     * Marks the end of a world tick. Called by a mixin.
+     */
+    public static void exitWorld() {
+        if (recording) {
+            world = null;
+        }
+    }
+
+    /**
+     * Marks the start of an entity tick. Called by a mixin.
+     */
+    public static void enterEntity(@NotNull Entity entity) {
+        if (recording) {
+            chunk = ChunkPos.toLong(entity.getBlockX() >> 4, entity.getBlockZ() >> 4);
+            entityType = entity.getType();
+        }
+    }
+
+    /**
+     * Marks the end of an entity tick. Called by a mixin.
+     */
+    public static void exitEntity() {
+        if (recording) {
+            entityType = null;
+            chunk = NO_CHUNK;
+        }
+    }
+
+    /**
+     * Marks the start of a block entity tick. Called by a mixin.
+     */
+    public static void enterBlockEntity(@NotNull BlockEntity blockEntity) {
+        if (recording) {
+            BlockPos pos = blockEntity.getPos();
+            chunk = ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4);
+            blockEntityType = blockEntity.getType();
+        }
+    }
+
+    /**
+     * Marks the end of a block entity tick. Called by a mixin.
+     */
+    public static void exitBlockEntity() {
+        if (recording) {
+            blockEntityType = null;
+            chunk = NO_CHUNK;
+        }
+    }
+
+    private static synchronized void finish(@NotNull Session finished) {
+        recording = false;
+        inTick = false;
+        world = null;
+        entityType = null;
+        blockEntityType = null;
+        chunk = NO_CHUNK;
+        if (session == finished) {
+            session = null;
+        }
+    }
+
+    /**
+     * Result of a recording.
+     *
+     * @param samples Samples taken
+     * @param tickSamples Samples taken while the server was ticking
+     * @param worlds Tick samples per world
+     * @param chunks Tick samples per chunk, while ticking an entity or block entity
+     * @param entityTypes Tick samples per ticking entity type
+     * @param blockEntityTypes Tick samples per ticking block entity type
+     * @param mods Tick samples per mod owning the innermost non-vanilla frame
+     * @param stackFile The collapsed-stack file, or null if it could not be written
+     */
+    public record Report(long samples, long tickSamples, @NotNull List<Entry> worlds,
+            @NotNull List<Entry> chunks, @NotNull List<Entry> entityTypes,
+            @NotNull List<Entry> blockEntityTypes, @NotNull List<Entry> mods,
+            @Nullable Path stackFile) {
+
+        /**
+         * Gets the share of tick samples an entry accounts for.
+         *
+         * @param entry An entry of this report
+         * @return The percentage, from 0 to 100
+         */
+        public double percentOfTick(@NotNull Entry entry) {
+            return tickSamples == 0 ? 0.0 : entry.samples() * 100.0 / tickSamples;
+        }
+
+        /**
+         * Gets the share of samples taken while the server was ticking.
+         *
+         * @return The percentage, from 0 to 100
+         */
+        public double busyPercent() {
+            return samples == 0 ? 0.0 : tickSamples * 100.0 / samples;
+        }
+    }
+
+    /**
+     * Number of samples attributed to one name.
+     *
+     * @param name The world, chunk, type or mod
+     * @param samples The sample count
+     */
+    public record Entry(@NotNull String name, long samples) {
+    }
+
+    private static final class Session implements Runnable {
+        private final MinecraftServer server;
+        private final Thread serverThread;
+        private final long durationNanos;
+        private final CompletableFuture<Report> future = new CompletableFuture<>();
+        private final Object2LongOpenHashMap<ServerWorld> worlds = new Object2LongOpenHashMap<>();
+        private final Object2LongOpenHashMap<String> chunks = new Object2LongOpenHashMap<>();
+        private final Object2LongOpenHashMap<EntityType<?>> entityTypes =
+                new Object2LongOpenHashMap<>();
+        private final Object2LongOpenHashMap<BlockEntityType<?>> blockEntityTypes =
+                new Object2LongOpenHashMap<>();
+        private final Object2LongOpenHashMap<String> mods = new Object2LongOpenHashMap<>();
+        private final Object2LongOpenHashMap<String> stacks = new Object2LongOpenHashMap<>();
+        private final Map<String, String> classOwners = new HashMap<>();
+        private final Map<Path, String> modRoots = new HashMap<>();
+        private final Set<String> modIds = new HashSet<>();
+        private final StringBuilder builder = new StringBuilder(4096);
+
+        private volatile boolean stopRequested;
+        private long samples;
+        private long tickSamples;
+
+        private Session(@NotNull MinecraftServer server, int seconds) {
+            this.server = server;
+            this.serverThread = server.getThread();
+            this.durationNanos = seconds * 1_000_000_000L;
+            for (ModContainer mod : FabricLoader.getInstance().getAllMods()) {
+                String id = mod.getMetadata().getId();
+                modIds.add(id);
+                for (Path root : mod.getRootPaths()) {
+                    modRoots.putIfAbsent(root.toAbsolutePath().normalize(), id);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            Report report;
+            try {
+                long end = System.nanoTime() + durationNanos;
+                while (!stopRequested && System.nanoTime() < end) {
+                    sample();
+                    Thread.sleep(INTERVAL_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOGGER.error("Profiler sampling failed", e);
+            } finally {
+                finish(this);
+            }
+
+            try {
+                report = buildReport();
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to build profile report", e);
+                server.execute(() -> future.completeExceptionally(e));
+                return;
+            }
+            server.execute(() -> future.complete(report));
+        }
+
+        private void sample() {
+            StackTraceElement[] stack = serverThread.getStackTrace();
+            samples++;
+            if (!inTick || stack.length == 0) {
+                return;
+            }
+
+            ServerWorld currentWorld = world;
+            EntityType<?> currentEntity = entityType;
+            BlockEntityType<?> currentBlockEntity = blockEntityType;
+            long currentChunk = chunk;
+
+            tickSamples++;
+            if (currentWorld != null) {
+                worlds.addTo(currentWorld, 1);
+                if (currentChunk != NO_CHUNK) {
+                    chunks.addTo(currentWorld.getRegistryKey().getValue() + " "
+                            + ChunkPos.getPackedX(currentChunk) + ", "
+                            + ChunkPos.getPackedZ(currentChunk), 1);
+                }
+            }
+            if (currentEntity != null) {
+                entityTypes.addTo(currentEntity, 1);
+            }
+            if (currentBlockEntity != null) {
+                blockEntityTypes.addTo(currentBlockEntity, 1);
+            }
+            mods.addTo(attribute(stack), 1);
+            stacks.addTo(collapse(stack), 1);
+        }
+
+        @NotNull
+        private String attribute(@NotNull StackTraceElement[] stack) {
+            for (StackTraceElement frame : stack) {
+                String owner = mixinOwner(frame.getMethodName());
+                if (owner == null) {
+                    owner = classOwners.computeIfAbsent(frame.getClassName(), this::resolveOwner);
+                }
+                if (!owner.equals("java") && !owner.equals("minecraft")) {
+                    return owner;
+                }
+            }
+            return "minecraft";
+        }
+
+        /**
+         * Mixin handlers merged into vanilla classes are named like
+         * {@code handler$zza000$modid$name}, which names the mod that injected them.
+         */
+        @Nullable
+        private String mixinOwner(@NotNull String methodName) {
+            if (methodName.indexOf('$') < 0) {
+                return null;
+            }
+            for (String part : methodName.split("\\$")) {
+                if (modIds.contains(part) && !part.equals("minecraft") && !part.equals("java")) {
+                    return part;
+                }
+            }
+            return null;
+        }
+
+        @NotNull
+        private String resolveOwner(@NotNull String className) {
+            if (className.startsWith("java.") || className.startsWith("jdk.")
+                    || className.startsWith("sun.")) {
+                return "java";
+            }
+            if (className.startsWith("net.minecraft.") || className.startsWith("com.mojang.")) {
+                return "minecraft";
+            }
+
+            try {
+                Class<?> type =
+                        Class.forName(className, false, TickProfiler.class.getClassLoader());
+                CodeSource source = type.getProtectionDomain().getCodeSource();
+                if (source != null && source.getLocation() != null) {
+                    Path location = Path.of(source.getLocation().toURI()).toAbsolutePath()
+                            .normalize();
+                    for (Map.Entry<Path, String> root : modRoots.entrySet()) {
+                        if (location.startsWith(root.getKey())
+                                || root.getKey().startsWith(location)) {
+                            return root.getValue();
+                        }
+                    }
+                }
+            } catch (ClassNotFoundException | LinkageError | URISyntaxException
+                    | RuntimeException e) {
+                // Fall through to the package name
+            }
+
+            int dot = className.lastIndexOf('.');
+            return dot < 0 ? "unknown" : className.substring(0, dot);
+        }
+
+        @NotNull
+        private String collapse(@NotNull StackTraceElement[] stack) {
+            builder.setLength(0);
+            for (int i = stack.length - 1; i >= 0; i--) {
+                if (i != stack.length - 1) {
+                    builder.append(';');
+                }
+                builder.append(stack[i].getClassName()).append('.')
+                        .append(stack[i].getMethodName());
+            }
+            return builder.toString();
+        }
+
+        @NotNull
+        private Report buildReport() {
+            return new Report(samples, tickSamples,
+                    sorted(worlds, loaded -> loaded.getRegistryKey().getValue().toString()),
+                    sorted(chunks, Function.identity()),
+                    sorted(entityTypes, type -> EntityType.getId(type).toString()),
+                    sorted(blockEntityTypes, type -> String.valueOf(BlockEntityType.getId(type))),
+                    sorted(mods, Function.identity()), writeStacks());
+        }
+
+        @Nullable
+        private Path writeStacks() {
+            Path directory = ConfigManager.getConfigDirectory().resolve("profiles");
+            Path file = directory.resolve("profile-" + LocalDateTime.now().format(FILE_TIME)
+                    + ".collapsed.txt");
+            try {
+                Files.createDirectories(directory);
+                try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                    for (Entry entry : sorted(stacks, Function.identity())) {
+                        writer.write(entry.name());
+                        writer.write(' ');
+                        writer.write(Long.toString(entry.samples()));
+                        writer.newLine();
+                    }
+                }
+                return file;
+            } catch (IOException e) {
+                LOGGER.warn("Failed to write profile stacks to {}", file, e);
+                return null;
+            }
+        }
+
+        @NotNull
+        private static <K> List<Entry> sorted(@NotNull Object2LongOpenHashMap<K> counts,
+                @NotNull Function<K, String> names) {
+            List<Entry> entries = new ArrayList<>(counts.size());
+            for (Object2LongMap.Entry<K> count : counts.object2LongEntrySet()) {
+                entries.add(new Entry(names.apply(count.getKey()), count.getLongValue()));
+            }
+            entries.sort((a, b) -> Long.compare(b.samples(), a.samples()));
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dk.mosberg.api.edit;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockBox;
+
+/**
+ * A bulk block edit applied by the {@link BlockEditEngine}.
+ *
+ * <p>
+ * An edit describes its bounding box and the state to place at each position inside it. The
+ * engine walks the box one chunk section at a time and asks for the state of every position in
+ * that section, so implementations should answer {@link #getState(int, int, int)} without
+ * allocating.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * BlockEdit edit = BlockEdit.fill(BlockBox.create(from, to), Blocks.STONE.getDefaultState());
+ * BlockEditEngine.submit(world, edit);
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public interface BlockEdit {
+
+    /**
+     * Gets the box containing every position this edit may change.
+     *
+     * @return The inclusive bounding box
+     */
+    @NotNull
+    BlockBox getBounds();
+
+    /**
+     * Gets the state to place at a position inside the bounds.
+     *
+     * @param x The block x coordinate
+     * @param y The block y coordinate
+     * @param z The block z coordinate
+     * @return The new state, or null to leave the position unchanged
+     */
+    @Nullable
+    BlockState getState(int x, int y, int z);
+
+    /**
+     * Creates an edit that fills a box with a single state.
+     *
+     * @param bounds The box to fill
+     * @param state The state to place
+     * @return The edit
+     */
+    @NotNull
+    static BlockEdit fill(@NotNull BlockBox bounds, @NotNull BlockState state) {
+        if (bounds == null)
+            throw new NullPointerException("Bounds cannot be null");
+        if (state == null)
+            throw new NullPointerException("State cannot be null");
+
+        return new BlockEdit() {
+            @Override
+            @NotNull
+            public BlockBox getBounds() {
+                return bounds;
+            }
+
+            @Override
+            @NotNull
+            public BlockState getState(int x, int y, int z) {
+                return state;
+            }
+        };
+    }
+}
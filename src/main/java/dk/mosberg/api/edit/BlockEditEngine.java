@@ -0,0 +1,177 @@
+package dk.mosberg.api.edit;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import dk.mosberg.api.config.ConfigManager;
+import dk.mosberg.api.config.IntConfigHandle;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Applies bulk block edits across server ticks under a time budget.
+ *
+ * <p>
+ * Submitted edits are queued and worked on at the end of every server tick, one chunk section at a
+ * time, until {@code blocks.edit_budget_ms} milliseconds have been spent. Large edits therefore
+ * take several ticks instead of freezing the server, and because a section's changes are queued
+ * for client sync together, players receive one chunk delta packet per touched section per tick
+ * instead of one block update packet per block.
+ *
+ * <p>
+ * States are written directly into section palettes. Heightmaps, lighting, points of interest,
+ * chunk saving and client sync are kept up to date; per-block neighbor and shape updates and block
+ * callbacks are skipped, as with a fill that does not update neighbors. Positions involving block
+ * entities are placed through {@code World.setBlockState}.
+ *
+ * <p>
+ * Jobs run in submission order. {@link Clipboard#copyAsync Clipboard copies} share the same
+ * budget and get whatever time the edits leave over. All methods must be called on the server
+ * thread.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * EditJob job = BlockEditEngine.submit(world, BlockEdit.fill(box, state));
+ * job.getFuture().thenAccept(done -> LOGGER.info("Changed {} blocks", done.getChangedBlocks()));
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class BlockEditEngine {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlockEditEngine.class);
+    private static final IntConfigHandle BUDGET_MS =
+            ConfigManager.intHandle("mosbergapi", "blocks.edit_budget_ms");
+    private static final Deque<EditJob> QUEUE = new ArrayDeque<>();
+    private static final Deque<Clipboard.CopyTask> COPIES = new ArrayDeque<>();
+
+    private BlockEditEngine() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Hooks the engine into the server tick loop.
+     */
+    public static void initialize() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> tick());
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> cancelAll());
+    }
+
+    /**
+     * Queues an edit.
+     *
+     * @param world The world to edit
+     * @param edit The edit to apply
+     * @return The job, which reports progress and completion
+     */
+    @NotNull
+    public static EditJob submit(@NotNull ServerWorld world, @NotNull BlockEdit edit) {
+        return submit(world, edit, null);
+    }
+
+    /**
+     * Applies an edit immediately, within the current tick, instead of queueing it. Meant for
+     * edits small enough not to need a time budget.
+     *
+     * @param world The world to edit
+     * @param edit The edit to apply
+     * @return The finished job
+     */
+    @NotNull
+    public static EditJob apply(@NotNull ServerWorld world, @NotNull BlockEdit edit) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+        if (edit == null)
+            throw new NullPointerException("Edit cannot be null");
+
+        EditJob job = new EditJob(world, edit, null);
+        job.step(Long.MAX_VALUE);
+        return job;
+    }
+
+    /**
+     * Queues an edit that records prior states into a history entry as it runs.
+     */
+    @NotNull
+    static EditJob submit(@NotNull ServerWorld world, @NotNull BlockEdit edit,
+            @Nullable JournalEntry journal) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+        if (edit == null)
+            throw new NullPointerException("Edit cannot be null");
+
+        EditJob job = new EditJob(world, edit, journal);
+        QUEUE.addLast(job);
+        LOGGER.debug("Queued block edit of {} blocks in {} sections", job.getVolume(),
+                job.getTotalSections());
+        return job;
+    }
+
+    /**
+     * Queues a clipboard copy.
+     */
+    static void submitCopy(@NotNull Clipboard.CopyTask task) {
+        COPIES.addLast(task);
+    }
+
+    /**
+     * Gets the queued and running jobs, in execution order.
+     *
+     * @return A copy of the queue
+     */
+    @NotNull
+    public static List<EditJob> getJobs() {
+        return List.copyOf(QUEUE);
+    }
+
+    /**
+     * Cancels every queued and running job and clipboard copy.
+     */
+    public static void cancelAll() {
+        while (!QUEUE.isEmpty()) {
+            QUEUE.pollFirst().cancel();
+        }
+        while (!COPIES.isEmpty()) {
+            COPIES.pollFirst().cancel();
+        }
+    }
+
+    private static void tick() {
+        if (QUEUE.isEmpty() && COPIES.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + Math.max(1, BUDGET_MS.get()) * 1_000_000L;
+        while (!QUEUE.isEmpty() && System.nanoTime() < deadline) {
+            EditJob job = QUEUE.peekFirst();
+            try {
+                if (job.step(deadline)) {
+                    QUEUE.pollFirst();
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Block edit failed after {} sections", job.getProcessedSections(), e);
+                QUEUE.pollFirst();
+                job.getFuture().completeExceptionally(e);
+            }
+        }
+        while (!COPIES.isEmpty() && System.nanoTime() < deadline) {
+            Clipboard.CopyTask copy = COPIES.peekFirst();
+            try {
+                if (copy.step(deadline)) {
+                    COPIES.pollFirst();
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Clipboard copy failed", e);
+                COPIES.pollFirst();
+                copy.fail(e);
+            }
+        }
+    }
+}
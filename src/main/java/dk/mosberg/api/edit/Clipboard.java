@@ -0,0 +1,519 @@
+package dk.mosberg.api.edit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.BlockRotation;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * A copied region of blocks, stored relative to the position it was copied from.
+ *
+ * <p>
+ * Like a chunk section, the clipboard holds a palette of the distinct states and one palette index
+ * per position, packed into longs at the smallest bit width that fits the palette, without entries
+ * spanning two longs. Index 0 marks positions that were not copied, such as those in unloaded
+ * chunks, and is left untouched when pasting. Clipboards whose packed indices exceed 16 MiB are
+ * kept in a memory-mapped temporary file instead of on the heap.
+ *
+ * <p>
+ * Only block states are copied. Block entities keep their block but not their contents, so a
+ * pasted chest is empty and a pasted sign blank; {@link #getBlockEntityCount()} tells how many were
+ * left behind. Large regions should be copied with {@link #copyAsync}, which reads sections under
+ * the {@link BlockEditEngine}'s per-tick budget instead of stalling the tick.
+ *
+ * <p>
+ * Clipboards are not thread-safe. Call {@link #close()} when a clipboard is no longer needed so a
+ * mapped file is deleted.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * Clipboard clipboard = Clipboard.copy(world, box, player.getBlockPos());
+ * Clipboard rotated = clipboard.rotate(BlockRotation.CLOCKWISE_90);
+ * BlockEditEngine.submit(world, rotated.toEdit(target));
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class Clipboard implements AutoCloseable {
+    private static final long MAPPED_THRESHOLD_BYTES = 16L * 1024 * 1024;
+    private static final int MIN_BITS = 4;
+
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final int volume;
+    private final BlockPos offset;
+    private final List<BlockState> palette;
+    private final Reference2IntOpenHashMap<BlockState> paletteIndex;
+
+    private int blockEntityCount;
+    private int bits;
+    private int valuesPerLong;
+    private long mask;
+    private LongBuffer data;
+    private FileChannel channel;
+    private Path file;
+
+    private Clipboard(int sizeX, int sizeY, int sizeZ, @NotNull BlockPos offset,
+            @NotNull List<BlockState> palette, int bits) {
+        long volume = (long) sizeX * sizeY * sizeZ;
+        if (volume > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Region too large to copy: " + volume + " blocks");
+        }
+
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.volume = (int) volume;
+        this.offset = offset;
+        this.palette = palette;
+        this.paletteIndex = new Reference2IntOpenHashMap<>();
+        this.paletteIndex.defaultReturnValue(-1);
+        for (int i = 1; i < palette.size(); i++) {
+            paletteIndex.putIfAbsent(palette.get(i), i);
+        }
+        allocate(bits);
+    }
+
+    /**
+     * Copies a box from a world within the current tick. Meant for boxes small enough not to need
+     * a time budget; see {@link #copyAsync}.
+     *
+     * @param world The world
+     * @param box The box to copy
+     * @param origin The position the copy is relative to; pasting at another position places the
+     *        box at the same offset from it
+     * @return The clipboard
+     * @throws IllegalArgumentException if the box holds more than {@link Integer#MAX_VALUE} blocks
+     */
+    @NotNull
+    public static Clipboard copy(@NotNull ServerWorld world, @NotNull BlockBox box,
+            @NotNull BlockPos origin) {
+        CopyTask task = new CopyTask(world, box, origin);
+        task.step(Long.MAX_VALUE);
+        return task.clipboard;
+    }
+
+    /**
+     * Copies a box from a world across server ticks, one section at a time under the
+     * {@link BlockEditEngine}'s time budget. Sections are read in different ticks, so blocks
+     * changed while the copy runs may or may not be included.
+     *
+     * @param world The world
+     * @param box The box to copy
+     * @param origin The position the copy is relative to
+     * @return A future completed on the server thread with the clipboard, or cancelled if the
+     *         server stops first
+     * @throws IllegalArgumentException if the box holds more than {@link Integer#MAX_VALUE} blocks
+     */
+    @NotNull
+    public static CompletableFuture<Clipboard> copyAsync(@NotNull ServerWorld world,
+            @NotNull BlockBox box, @NotNull BlockPos origin) {
+        CopyTask task = new CopyTask(world, box, origin);
+        BlockEditEngine.submitCopy(task);
+        return task.future;
+    }
+
+    /**
+     * Creates a copy rotated around the vertical axis through the copy origin. Block states are
+     * rotated along with their positions.
+     *
+     * @param rotation The rotation
+     * @return The rotated clipboard; this clipboard is left unchanged
+     */
+    @NotNull
+    public Clipboard rotate(@NotNull BlockRotation rotation) {
+        if (rotation == null)
+            throw new NullPointerException("Rotation cannot be null");
+
+        boolean swap = rotation == BlockRotation.CLOCKWISE_90
+                || rotation == BlockRotation.COUNTERCLOCKWISE_90;
+        int newSizeX = swap ? sizeZ : sizeX;
+        int newSizeZ = swap ? sizeX : sizeZ;
+
+        BlockPos first = rotate(offset.getX(), offset.getZ(), rotation);
+        BlockPos last = rotate(offset.getX() + sizeX - 1, offset.getZ() + sizeZ - 1, rotation);
+        BlockPos newOffset = new BlockPos(Math.min(first.getX(), last.getX()), offset.getY(),
+                Math.min(first.getZ(), last.getZ()));
+
+        List<BlockState> rotatedPalette = new ArrayList<>(palette.size());
+        rotatedPalette.add(null);
+        for (int i = 1; i < palette.size(); i++) {
+            rotatedPalette.add(palette.get(i).rotate(rotation));
+        }
+
+        Clipboard rotated =
+                new Clipboard(newSizeX, sizeY, newSizeZ, newOffset, rotatedPalette, bits);
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    int newX;
+                    int newZ;
+                    switch (rotation) {
+                        case CLOCKWISE_90 -> {
+                            newX = sizeZ - 1 - z;
+                            newZ = x;
+                        }
+                        case CLOCKWISE_180 -> {
+                            newX = sizeX - 1 - x;
+                            newZ = sizeZ - 1 - z;
+                        }
+                        case COUNTERCLOCKWISE_90 -> {
+                            newX = z;
+                            newZ = sizeX - 1 - x;
+                        }
+                        default -> {
+                            newX = x;
+                            newZ = z;
+                        }
+                    }
+                    rotated.setRaw((y * newSizeZ + newZ) * newSizeX + newX,
+                            getRaw((y * sizeZ + z) * sizeX + x));
+                }
+            }
+        }
+        return rotated;
+    }
+
+    /**
+     * Creates an edit that pastes this clipboard relative to a position. Positions that were not
+     * copied are left unchanged.
+     *
+     * @param origin The position matching the copy origin
+     * @return The edit
+     */
+    @NotNull
+    public BlockEdit toEdit(@NotNull BlockPos origin) {
+        if (origin == null)
+            throw new NullPointerException("Origin cannot be null");
+
+        int minX = origin.getX() + offset.getX();
+        int minY = origin.getY() + offset.getY();
+        int minZ = origin.getZ() + offset.getZ();
+        BlockBox bounds = new BlockBox(minX, minY, minZ, minX + sizeX - 1, minY + sizeY - 1,
+                minZ + sizeZ - 1);
+        return new BlockEdit() {
+            @Override
+            @NotNull
+            public BlockBox getBounds() {
+                return bounds;
+            }
+
+            @Override
+            @Nullable
+            public BlockState getState(int x, int y, int z) {
+                return palette.get(getRaw(((y - minY) * sizeZ + z - minZ) * sizeX + x - minX));
+            }
+        };
+    }
+
+    /**
+     * Gets the size along the x axis.
+     */
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    /**
+     * Gets the size along the y axis.
+     */
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    /**
+     * Gets the size along the z axis.
+     */
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    /**
+     * Gets the number of positions in the clipboard.
+     */
+    public int getVolume() {
+        return volume;
+    }
+
+    /**
+     * Gets the offset of the minimum corner from the copy origin.
+     */
+    @NotNull
+    public BlockPos getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the number of distinct states copied.
+     */
+    public int getPaletteSize() {
+        return palette.size() - 1;
+    }
+
+    /**
+     * Gets the number of block entities in the copied region, whose contents were not copied.
+     */
+    public int getBlockEntityCount() {
+        return blockEntityCount;
+    }
+
+    /**
+     * Checks whether the packed indices live in a memory-mapped file.
+     */
+    public boolean isMapped() {
+        return channel != null;
+    }
+
+    /**
+     * Releases the packed indices and deletes the mapped file, if any. The clipboard must not be
+     * used afterwards.
+     */
+    @Override
+    public void close() {
+        data = null;
+        release(channel, file);
+        channel = null;
+        file = null;
+    }
+
+    private void set(int index, @NotNull BlockState state) {
+        int value = paletteIndex.getInt(state);
+        if (value < 0) {
+            value = palette.size();
+            palette.add(state);
+            paletteIndex.put(state, value);
+            if (value > mask) {
+                resize(bits + 1);
+            }
+        }
+        setRaw(index, value);
+    }
+
+    private int getRaw(int index) {
+        int longIndex = index / valuesPerLong;
+        int shift = (index - longIndex * valuesPerLong) * bits;
+        return (int) (data.get(longIndex) >>> shift & mask);
+    }
+
+    private void setRaw(int index, int value) {
+        int longIndex = index / valuesPerLong;
+        int shift = (index - longIndex * valuesPerLong) * bits;
+        long current = data.get(longIndex);
+        data.put(longIndex, current & ~(mask << shift) | (value & mask) << shift);
+    }
+
+    private void resize(int newBits) {
+        LongBuffer oldData = data;
+        int oldBits = bits;
+        int oldValuesPerLong = valuesPerLong;
+        long oldMask = mask;
+        FileChannel oldChannel = channel;
+        Path oldFile = file;
+
+        allocate(newBits);
+        for (int i = 0; i < volume; i++) {
+            int longIndex = i / oldValuesPerLong;
+            int shift = (i - longIndex * oldValuesPerLong) * oldBits;
+            setRaw(i, (int) (oldData.get(longIndex) >>> shift & oldMask));
+        }
+
+        release(oldChannel, oldFile);
+    }
+
+    private void allocate(int newBits) {
+        bits = newBits;
+        valuesPerLong = 64 / newBits;
+        mask = (1L << newBits) - 1;
+        long longs = ((long) volume + valuesPerLong - 1) / valuesPerLong;
+        long bytes = longs * Long.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Region too large to copy: " + volume + " blocks");
+        }
+
+        channel = null;
+        file = null;
+        if (bytes <= MAPPED_THRESHOLD_BYTES) {
+            data = LongBuffer.allocate((int) longs);
+            return;
+        }
+
+        try {
+            file = Files.createTempFile("mosbergapi-clipboard", ".bin");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            data = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes).asLongBuffer();
+        } catch (IOException e) {
+            release(channel, file);
+            channel = null;
+            file = null;
+            throw new UncheckedIOException("Failed to map clipboard file", e);
+        }
+    }
+
+    private static void release(@Nullable FileChannel channel, @Nullable Path file) {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            // The file lives in the temporary directory and is cleaned up by the OS
+        }
+    }
+
+    @NotNull
+    private static BlockPos rotate(int x, int z, @NotNull BlockRotation rotation) {
+        return switch (rotation) {
+            case CLOCKWISE_90 -> new BlockPos(-z, 0, x);
+            case CLOCKWISE_180 -> new BlockPos(-x, 0, -z);
+            case COUNTERCLOCKWISE_90 -> new BlockPos(z, 0, -x);
+            default -> new BlockPos(x, 0, z);
+        };
+    }
+
+    /**
+     * A copy in progress, read one section at a time.
+     */
+    static final class CopyTask {
+        private final ServerWorld world;
+        private final BlockBox box;
+        private final Clipboard clipboard;
+        private final CompletableFuture<Clipboard> future = new CompletableFuture<>();
+        private final int minY;
+        private final int maxY;
+        private final int minSectionY;
+        private final int sectionsY;
+        private final int minChunkX;
+        private final int minChunkZ;
+        private final int chunksZ;
+        private final int totalSections;
+        private int nextSection;
+
+        private CopyTask(@NotNull ServerWorld world, @NotNull BlockBox box,
+                @NotNull BlockPos origin) {
+            if (world == null)
+                throw new NullPointerException("World cannot be null");
+            if (box == null)
+                throw new NullPointerException("Box cannot be null");
+            if (origin == null)
+                throw new NullPointerException("Origin cannot be null");
+
+            List<BlockState> palette = new ArrayList<>();
+            palette.add(null);
+            this.world = world;
+            this.box = box;
+            this.clipboard = new Clipboard(box.getBlockCountX(), box.getBlockCountY(),
+                    box.getBlockCountZ(), new BlockPos(box.getMinX() - origin.getX(),
+                            box.getMinY() - origin.getY(), box.getMinZ() - origin.getZ()),
+                    palette, MIN_BITS);
+
+            this.minY = Math.max(box.getMinY(), world.getBottomY());
+            this.maxY = Math.min(box.getMaxY(), world.getTopYInclusive());
+            this.minSectionY = ChunkSectionPos.getSectionCoord(minY);
+            this.sectionsY =
+                    minY > maxY ? 0 : ChunkSectionPos.getSectionCoord(maxY) - minSectionY + 1;
+            this.minChunkX = ChunkSectionPos.getSectionCoord(box.getMinX());
+            this.minChunkZ = ChunkSectionPos.getSectionCoord(box.getMinZ());
+            this.chunksZ = ChunkSectionPos.getSectionCoord(box.getMaxZ()) - minChunkZ + 1;
+            int chunksX = ChunkSectionPos.getSectionCoord(box.getMaxX()) - minChunkX + 1;
+            this.totalSections = chunksX * chunksZ * sectionsY;
+        }
+
+        /**
+         * Copies sections until the deadline passes or every section was read.
+         *
+         * @param deadlineNanos The {@link System#nanoTime()} to stop at
+         * @return true if the copy is done
+         */
+        boolean step(long deadlineNanos) {
+            do {
+                if (nextSection >= totalSections) {
+                    future.complete(clipboard);
+                    return true;
+                }
+                copySection(nextSection++);
+            } while (System.nanoTime() < deadlineNanos);
+            return false;
+        }
+
+        /**
+         * Stops the copy and releases the partial clipboard.
+         */
+        void cancel() {
+            if (future.cancel(false)) {
+                clipboard.close();
+            }
+        }
+
+        /**
+         * Fails the copy and releases the partial clipboard.
+         */
+        void fail(@NotNull Throwable cause) {
+            if (future.completeExceptionally(cause)) {
+                clipboard.close();
+            }
+        }
+
+        @NotNull
+        CompletableFuture<Clipboard> getFuture() {
+            return future;
+        }
+
+        private void copySection(int index) {
+            int sectionY = minSectionY + index % sectionsY;
+            int column = index / sectionsY;
+            int chunkX = minChunkX + column / chunksZ;
+            int chunkZ = minChunkZ + column % chunksZ;
+            WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+            if (chunk == null) {
+                return;
+            }
+
+            if (sectionY == minSectionY) {
+                for (BlockPos pos : chunk.getBlockEntityPositions()) {
+                    if (box.contains(pos)) {
+                        clipboard.blockEntityCount++;
+                    }
+                }
+            }
+
+            int x0 = Math.max(box.getMinX(), ChunkSectionPos.getBlockCoord(chunkX));
+            int x1 = Math.min(box.getMaxX(), ChunkSectionPos.getBlockCoord(chunkX) + 15);
+            int z0 = Math.max(box.getMinZ(), ChunkSectionPos.getBlockCoord(chunkZ));
+            int z1 = Math.min(box.getMaxZ(), ChunkSectionPos.getBlockCoord(chunkZ) + 15);
+            int y0 = Math.max(minY, ChunkSectionPos.getBlockCoord(sectionY));
+            int y1 = Math.min(maxY, ChunkSectionPos.getBlockCoord(sectionY) + 15);
+            ChunkSection section = chunk.getSection(chunk.sectionCoordToIndex(sectionY));
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    int row = ((y - box.getMinY()) * clipboard.sizeZ + z - box.getMinZ())
+                            * clipboard.sizeX - box.getMinX();
+                    for (int x = x0; x <= x1; x++) {
+                        clipboard.set(row + x, section.getBlockState(x & 15, y & 15, z & 15));
+                    }
+                }
+            }
+        }
+    }
+}
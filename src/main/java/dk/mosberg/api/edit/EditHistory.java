@@ -0,0 +1,455 @@
+package dk.mosberg.api.edit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import dk.mosberg.api.config.ConfigManager;
+import dk.mosberg.api.config.IntConfigHandle;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Undo and redo stacks of block edits for one actor, such as a player or the server console.
+ *
+ * <p>
+ * Edits submitted through a history record the prior states of every section they touch, as
+ * palette-compressed {@link SectionSnapshot}s, while the {@link BlockEditEngine} writes them.
+ * Undoing replays an entry through the engine, recording the states it overwrites as the matching
+ * redo entry, and redoing does the reverse. Only block states are recorded; block entity contents
+ * are not restored.
+ *
+ * <p>
+ * Each stack keeps at most {@code blocks.history_max_entries} entries. Across all actors, entries
+ * beyond {@code blocks.history_memory_mb} of heap are written to
+ * {@code <world>/mosbergapi/history/}, oldest first, and read back when replayed. The budget is
+ * checked as every section is recorded, so an edit still running spills its own snapshots once it
+ * alone exceeds the budget. History lasts
+ * until the server stops. A history also holds its actor's {@link Clipboard}. All methods must be
+ * called on the server thread.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * EditHistory history = EditHistory.of(source);
+ * history.submit(world, BlockEdit.fill(box, Blocks.STONE.getDefaultState()), "fill");
+ * // later
+ * EditJob undo = history.undo(server);
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class EditHistory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EditHistory.class);
+    private static final IntConfigHandle MEMORY_MB =
+            ConfigManager.intHandle("mosbergapi", "blocks.history_memory_mb");
+    private static final IntConfigHandle MAX_ENTRIES =
+            ConfigManager.intHandle("mosbergapi", "blocks.history_max_entries");
+    private static final Map<String, EditHistory> HISTORIES = new HashMap<>();
+    private static final Deque<JournalEntry> RESIDENT = new ArrayDeque<>();
+
+    private static long residentBytes;
+    private static Path spillDirectory;
+    private static long spillCounter;
+
+    private final Deque<JournalEntry> undo = new ArrayDeque<>();
+    private final Deque<JournalEntry> redo = new ArrayDeque<>();
+    private EditJob running;
+    private Clipboard clipboard;
+
+    private EditHistory() {
+    }
+
+    /**
+     * Hooks history cleanup into the server lifecycle.
+     */
+    public static void initialize() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            spillDirectory = server.getSavePath(WorldSavePath.ROOT).resolve("mosbergapi")
+                    .resolve("history");
+            deleteSpillDirectory();
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> clearAll());
+    }
+
+    /**
+     * Gets the history of a command source: the executing entity, or the source's name when no
+     * entity is involved.
+     *
+     * @param source The command source
+     * @return The history, created if needed
+     */
+    @NotNull
+    public static EditHistory of(@NotNull ServerCommandSource source) {
+        if (source == null)
+            throw new NullPointerException("Source cannot be null");
+
+        Entity entity = source.getEntity();
+        return of(entity != null ? entity.getUuidAsString() : source.getName());
+    }
+
+    /**
+     * Gets the history of an actor.
+     *
+     * @param actor The actor key
+     * @return The history, created if needed
+     */
+    @NotNull
+    public static EditHistory of(@NotNull String actor) {
+        if (actor == null)
+            throw new NullPointerException("Actor cannot be null");
+
+        return HISTORIES.computeIfAbsent(actor, key -> new EditHistory());
+    }
+
+    /**
+     * Gets the heap used by history entries that have not been spilled, across all actors.
+     *
+     * @return The estimated size in bytes
+     */
+    public static long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * Drops every actor's history.
+     */
+    public static void clearAll() {
+        for (EditHistory history : HISTORIES.values()) {
+            history.clear();
+        }
+        HISTORIES.clear();
+        deleteSpillDirectory();
+    }
+
+    /**
+     * Queues an edit and records it for undo once it finishes. Clears the redo stack.
+     *
+     * @param world The world to edit
+     * @param edit The edit to apply
+     * @param description A short description shown when undoing
+     * @return The job
+     * @throws IllegalStateException if an earlier edit of this history is still running
+     */
+    @NotNull
+    public EditJob submit(@NotNull ServerWorld world, @NotNull BlockEdit edit,
+            @NotNull String description) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+        if (edit == null)
+            throw new NullPointerException("Edit cannot be null");
+        if (description == null)
+            throw new NullPointerException("Description cannot be null");
+        checkIdle();
+
+        JournalEntry entry =
+                new JournalEntry(world.getRegistryKey(), description, edit.getBounds());
+        EditJob job = BlockEditEngine.submit(world, edit, track(entry));
+        clear(redo);
+        running = job;
+        job.getFuture().whenComplete((done, error) -> push(undo, entry));
+        return job;
+    }
+
+    /**
+     * Records the current states of a small box for undo, before the caller changes it directly.
+     * Clears the redo stack.
+     *
+     * @param world The world
+     * @param box The box about to change
+     * @param description A short description shown when undoing
+     * @throws IllegalStateException if an earlier edit of this history is still running; its
+     *         entry is pushed when it finishes, so recording now would put the stack out of order
+     */
+    public void record(@NotNull ServerWorld world, @NotNull BlockBox box,
+            @NotNull String description) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+        if (box == null)
+            throw new NullPointerException("Box cannot be null");
+        if (description == null)
+            throw new NullPointerException("Description cannot be null");
+        checkIdle();
+
+        JournalEntry entry = new JournalEntry(world.getRegistryKey(), description, box);
+        int minY = Math.max(box.getMinY(), world.getBottomY());
+        int maxY = Math.min(box.getMaxY(), world.getTopYInclusive());
+        int maxChunkX = ChunkSectionPos.getSectionCoord(box.getMaxX());
+        int maxChunkZ = ChunkSectionPos.getSectionCoord(box.getMaxZ());
+        int minSectionY = ChunkSectionPos.getSectionCoord(minY);
+        int maxSectionY = minY > maxY ? minSectionY - 1 : ChunkSectionPos.getSectionCoord(maxY);
+        for (int chunkX = ChunkSectionPos.getSectionCoord(box.getMinX()); chunkX <= maxChunkX;
+                chunkX++) {
+            for (int chunkZ = ChunkSectionPos.getSectionCoord(box.getMinZ()); chunkZ <= maxChunkZ;
+                    chunkZ++) {
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    continue;
+                }
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    entry.add(SectionSnapshot.capture(
+                            chunk.getSection(chunk.sectionCoordToIndex(sectionY)), chunkX,
+                            sectionY, chunkZ, box));
+                }
+            }
+        }
+
+        clear(redo);
+        push(undo, entry);
+    }
+
+    /**
+     * Undoes the most recent edit.
+     *
+     * @param server The server, used to find the edited world
+     * @return The replay job, or null if there is nothing to undo
+     * @throws IOException if a spilled entry cannot be read back; the entry is dropped
+     * @throws IllegalStateException if an edit is still running or the world is not loaded
+     */
+    @Nullable
+    public EditJob undo(@NotNull MinecraftServer server) throws IOException {
+        return replay(server, undo, redo);
+    }
+
+    /**
+     * Redoes the most recently undone edit.
+     *
+     * @param server The server, used to find the edited world
+     * @return The replay job, or null if there is nothing to redo
+     * @throws IOException if a spilled entry cannot be read back; the entry is dropped
+     * @throws IllegalStateException if an edit is still running or the world is not loaded
+     */
+    @Nullable
+    public EditJob redo(@NotNull MinecraftServer server) throws IOException {
+        return replay(server, redo, undo);
+    }
+
+    /**
+     * Gets the description of the edit {@link #undo} would revert.
+     *
+     * @return The description, or null if there is nothing to undo
+     */
+    @Nullable
+    public String peekUndo() {
+        JournalEntry entry = undo.peekLast();
+        return entry == null ? null : entry.getDescription();
+    }
+
+    /**
+     * Gets the description of the edit {@link #redo} would reapply.
+     *
+     * @return The description, or null if there is nothing to redo
+     */
+    @Nullable
+    public String peekRedo() {
+        JournalEntry entry = redo.peekLast();
+        return entry == null ? null : entry.getDescription();
+    }
+
+    /**
+     * Gets the number of edits that can be undone.
+     */
+    public int getUndoCount() {
+        return undo.size();
+    }
+
+    /**
+     * Gets the number of edits that can be redone.
+     */
+    public int getRedoCount() {
+        return redo.size();
+    }
+
+    /**
+     * Gets the actor's clipboard.
+     *
+     * @return The clipboard, or null if nothing was copied
+     */
+    @Nullable
+    public Clipboard getClipboard() {
+        return clipboard;
+    }
+
+    /**
+     * Replaces the actor's clipboard, closing the previous one. If an edit of this history is
+     * still running, which may be a paste reading the previous clipboard, closing waits until the
+     * edit finishes.
+     *
+     * @param clipboard The new clipboard, or null to clear it
+     */
+    public void setClipboard(@Nullable Clipboard clipboard) {
+        Clipboard previous = this.clipboard;
+        this.clipboard = clipboard;
+        if (previous == null || previous == clipboard) {
+            return;
+        }
+
+        if (running != null && !running.isDone()) {
+            running.getFuture().whenComplete((done, error) -> previous.close());
+        } else {
+            previous.close();
+        }
+    }
+
+    /**
+     * Drops this history's entries and clipboard.
+     */
+    public void clear() {
+        clear(undo);
+        clear(redo);
+        setClipboard(null);
+    }
+
+    @Nullable
+    private EditJob replay(@NotNull MinecraftServer server, @NotNull Deque<JournalEntry> from,
+            @NotNull Deque<JournalEntry> to) throws IOException {
+        if (server == null)
+            throw new NullPointerException("Server cannot be null");
+        checkIdle();
+
+        JournalEntry entry = from.peekLast();
+        if (entry == null) {
+            return null;
+        }
+        ServerWorld world = server.getWorld(entry.getWorld());
+        if (world == null) {
+            throw new IllegalStateException(
+                    "World " + entry.getWorld().getValue() + " is not loaded");
+        }
+
+        from.pollLast();
+        release(entry);
+        BlockEdit edit;
+        try {
+            edit = entry.toEdit();
+        } catch (IOException e) {
+            entry.discard();
+            throw e;
+        }
+
+        JournalEntry inverse =
+                new JournalEntry(entry.getWorld(), entry.getDescription(), entry.getBounds());
+        EditJob job = BlockEditEngine.submit(world, edit, track(inverse));
+        running = job;
+        job.getFuture().whenComplete((done, error) -> {
+            entry.discard();
+            push(to, inverse);
+        });
+        return job;
+    }
+
+    private void checkIdle() {
+        if (running != null && !running.isDone()) {
+            throw new IllegalStateException("The previous edit is still running");
+        }
+    }
+
+    /**
+     * Counts an entry against the memory budget as its job records it, spilling when needed.
+     */
+    @NotNull
+    private static JournalEntry track(@NotNull JournalEntry entry) {
+        entry.setGrowthListener(bytes -> {
+            if (!RESIDENT.contains(entry)) {
+                RESIDENT.addLast(entry);
+            }
+            residentBytes += bytes;
+            enforceBudget();
+        });
+        return entry;
+    }
+
+    private static void push(@NotNull Deque<JournalEntry> stack, @NotNull JournalEntry entry) {
+        entry.setGrowthListener(null);
+        if (entry.isEmpty()) {
+            release(entry);
+            entry.discard();
+            return;
+        }
+
+        stack.addLast(entry);
+        if (entry.heapBytes() > 0 && !RESIDENT.contains(entry)) {
+            RESIDENT.addLast(entry);
+            residentBytes += entry.heapBytes();
+        }
+
+        int maxEntries = Math.max(0, MAX_ENTRIES.get());
+        while (stack.size() > maxEntries) {
+            JournalEntry oldest = stack.pollFirst();
+            release(oldest);
+            oldest.discard();
+        }
+        enforceBudget();
+    }
+
+    private static void clear(@NotNull Deque<JournalEntry> stack) {
+        while (!stack.isEmpty()) {
+            JournalEntry entry = stack.pollFirst();
+            release(entry);
+            entry.discard();
+        }
+    }
+
+    private static void release(@NotNull JournalEntry entry) {
+        if (RESIDENT.remove(entry)) {
+            residentBytes -= entry.heapBytes();
+        }
+    }
+
+    private static void enforceBudget() {
+        long budget = Math.max(0, MEMORY_MB.get()) * 1024L * 1024L;
+        while (residentBytes > budget && !RESIDENT.isEmpty()) {
+            JournalEntry entry = RESIDENT.pollFirst();
+            residentBytes -= entry.heapBytes();
+            if (spillDirectory == null) {
+                entry.discard();
+                continue;
+            }
+
+            Path file =
+                    entry.isSpilled() ? null : spillDirectory.resolve(spillCounter++ + ".bin");
+            try {
+                entry.spill(file);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to spill block edit history to {}, dropping entry", file, e);
+                entry.discard();
+            }
+        }
+    }
+
+    private static void deleteSpillDirectory() {
+        if (spillDirectory == null || !Files.isDirectory(spillDirectory)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.walk(spillDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    LOGGER.warn("Failed to delete block edit history file: {}", path);
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.warn("Failed to clean block edit history directory: {}", spillDirectory, e);
+        }
+    }
+}
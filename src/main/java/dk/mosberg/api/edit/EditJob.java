@@ -0,0 +1,238 @@
+package dk.mosberg.api.edit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * A queued or running {@link BlockEdit}.
+ *
+ * <p>
+ * The edit's box is split into chunk sections, visited column by column so each chunk is looked up
+ * once. Sections of chunks that are not loaded are skipped and counted. Jobs started through an
+ * {@link EditHistory} record each section's prior states just before writing it. All methods must
+ * be called on the server thread.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class EditJob {
+    private static final long PROGRESS_INTERVAL_NANOS = 2_000_000_000L;
+
+    private final ServerWorld world;
+    private final BlockEdit edit;
+    private final BlockBox bounds;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int minSectionY;
+    private final int chunksZ;
+    private final int sectionsY;
+    private final int totalSections;
+    private final long volume;
+    private final CompletableFuture<EditJob> future = new CompletableFuture<>();
+    private final SectionWriter writer = new SectionWriter();
+    private final JournalEntry journal;
+
+    private Consumer<EditJob> progressListener;
+    private long lastProgressNanos = System.nanoTime();
+    private int nextSection;
+    private int skippedSections;
+    private long changedBlocks;
+    private int ticks;
+    private boolean cancelled;
+    private WorldChunk cachedChunk;
+
+    EditJob(@NotNull ServerWorld world, @NotNull BlockEdit edit, @Nullable JournalEntry journal) {
+        BlockBox requested = edit.getBounds();
+        int minY = Math.max(requested.getMinY(), world.getBottomY());
+        int maxY = Math.min(requested.getMaxY(), world.getTopYInclusive());
+
+        this.world = world;
+        this.edit = edit;
+        this.journal = journal;
+        this.bounds = new BlockBox(requested.getMinX(), minY, requested.getMinZ(),
+                requested.getMaxX(), maxY, requested.getMaxZ());
+        this.minChunkX = ChunkSectionPos.getSectionCoord(bounds.getMinX());
+        this.minChunkZ = ChunkSectionPos.getSectionCoord(bounds.getMinZ());
+        this.minSectionY = ChunkSectionPos.getSectionCoord(minY);
+        int chunksX = ChunkSectionPos.getSectionCoord(bounds.getMaxX()) - minChunkX + 1;
+        this.chunksZ = ChunkSectionPos.getSectionCoord(bounds.getMaxZ()) - minChunkZ + 1;
+        this.sectionsY = minY > maxY ? 0 : ChunkSectionPos.getSectionCoord(maxY) - minSectionY + 1;
+        this.totalSections = chunksX * chunksZ * sectionsY;
+        this.volume = minY > maxY ? 0L
+                : (long) bounds.getBlockCountX() * bounds.getBlockCountY()
+                        * bounds.getBlockCountZ();
+    }
+
+    /**
+     * Registers a listener invoked every couple of seconds while the job runs.
+     *
+     * @param listener The listener
+     * @return This job
+     */
+    @NotNull
+    public EditJob onProgress(@Nullable Consumer<EditJob> listener) {
+        this.progressListener = listener;
+        return this;
+    }
+
+    /**
+     * Gets a future completed on the server thread when the job finishes or is cancelled.
+     *
+     * @return The completion future
+     */
+    @NotNull
+    public CompletableFuture<EditJob> getFuture() {
+        return future;
+    }
+
+    /**
+     * Cancels the job. Sections already written stay written.
+     */
+    public void cancel() {
+        if (!isDone()) {
+            cancelled = true;
+            future.complete(this);
+        }
+    }
+
+    /**
+     * Gets the world being edited.
+     */
+    @NotNull
+    public ServerWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets the edited box, clamped to the world's height.
+     */
+    @NotNull
+    public BlockBox getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Gets the number of positions inside the bounds.
+     */
+    public long getVolume() {
+        return volume;
+    }
+
+    /**
+     * Gets the number of positions whose state changed so far.
+     */
+    public long getChangedBlocks() {
+        return changedBlocks;
+    }
+
+    /**
+     * Gets the number of sections processed so far, including skipped ones.
+     */
+    public int getProcessedSections() {
+        return nextSection;
+    }
+
+    /**
+     * Gets the number of sections skipped because their chunk was not loaded.
+     */
+    public int getSkippedSections() {
+        return skippedSections;
+    }
+
+    /**
+     * Gets the total number of sections the job covers.
+     */
+    public int getTotalSections() {
+        return totalSections;
+    }
+
+    /**
+     * Gets the completed fraction, from 0 to 1.
+     */
+    public double getProgress() {
+        return totalSections == 0 ? 1.0 : nextSection / (double) totalSections;
+    }
+
+    /**
+     * Gets the number of ticks the job has been worked on.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Checks whether the job was cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Checks whether the job has finished or was cancelled.
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Processes sections until the deadline passes or the job is done.
+     *
+     * @param deadlineNanos The {@link System#nanoTime()} to stop at
+     * @return true if the job is done
+     */
+    boolean step(long deadlineNanos) {
+        if (isDone()) {
+            return true;
+        }
+
+        ticks++;
+        // The chunk may have unloaded since the last tick; writes to a detached chunk are lost
+        cachedChunk = null;
+        do {
+            if (nextSection >= totalSections) {
+                cachedChunk = null;
+                future.complete(this);
+                return true;
+            }
+            writeSection(nextSection++);
+        } while (System.nanoTime() < deadlineNanos);
+
+        long now = System.nanoTime();
+        if (progressListener != null && now - lastProgressNanos >= PROGRESS_INTERVAL_NANOS) {
+            lastProgressNanos = now;
+            progressListener.accept(this);
+        }
+        return false;
+    }
+
+    private void writeSection(int index) {
+        int sectionY = minSectionY + index % sectionsY;
+        int column = index / sectionsY;
+        int chunkX = minChunkX + column / chunksZ;
+        int chunkZ = minChunkZ + column % chunksZ;
+
+        WorldChunk chunk = cachedChunk;
+        if (chunk == null || chunk.getPos().x != chunkX || chunk.getPos().z != chunkZ) {
+            chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+            cachedChunk = chunk;
+        }
+        if (chunk == null) {
+            skippedSections++;
+            return;
+        }
+
+        if (journal != null) {
+            journal.add(SectionSnapshot.capture(
+                    chunk.getSection(chunk.sectionCoordToIndex(sectionY)), chunkX, sectionY,
+                    chunkZ, bounds));
+        }
+        changedBlocks += writer.write(world, chunk, sectionY, bounds, edit);
+    }
+}
@@ -0,0 +1,229 @@
+package dk.mosberg.api.edit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+
+/**
+ * One undoable step in an {@link EditHistory}: the states a box held before an edit, stored as
+ * {@link SectionSnapshot}s keyed by section position.
+ *
+ * <p>
+ * Snapshots are held on the heap until the entry is spilled, which appends them to a file that is
+ * read back when the entry is replayed. An entry still being recorded can be spilled several
+ * times, so a large edit never holds more than the history's memory budget on the heap; later
+ * snapshots collect on the heap again until the next spill. Entries are only touched on the
+ * server thread.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class JournalEntry {
+    private static final int MAGIC = 0x4D424A46;
+
+    private final RegistryKey<World> world;
+    private final String description;
+    private final BlockBox bounds;
+
+    private Long2ObjectMap<SectionSnapshot> sections = new Long2ObjectOpenHashMap<>();
+    private Path spillFile;
+    private long heapBytes;
+    private LongConsumer growthListener;
+
+    JournalEntry(@NotNull RegistryKey<World> world, @NotNull String description,
+            @NotNull BlockBox bounds) {
+        this.world = world;
+        this.description = description;
+        this.bounds = bounds;
+    }
+
+    @NotNull
+    RegistryKey<World> getWorld() {
+        return world;
+    }
+
+    @NotNull
+    String getDescription() {
+        return description;
+    }
+
+    @NotNull
+    BlockBox getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Gets the estimated heap size of the snapshots not spilled yet.
+     */
+    long heapBytes() {
+        return heapBytes;
+    }
+
+    /**
+     * Checks whether the entry recorded nothing, or its data was discarded.
+     */
+    boolean isEmpty() {
+        return sections == null || spillFile == null && sections.isEmpty();
+    }
+
+    /**
+     * Checks whether the entry has part of its snapshots in a spill file.
+     */
+    boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * Sets the listener told the heap size of every snapshot added, so the history can enforce its
+     * memory budget while an edit is still recording.
+     *
+     * @param listener The listener, or null to stop notifying
+     */
+    void setGrowthListener(@Nullable LongConsumer listener) {
+        this.growthListener = listener;
+    }
+
+    /**
+     * Adds the prior states of one section. Ignored once the entry was discarded.
+     */
+    void add(@NotNull SectionSnapshot snapshot) {
+        if (sections == null) {
+            return;
+        }
+
+        long size = snapshot.sizeBytes();
+        sections.put(snapshot.sectionPos(), snapshot);
+        heapBytes += size;
+        if (growthListener != null) {
+            growthListener.accept(size);
+        }
+    }
+
+    /**
+     * Appends the snapshots on the heap to the entry's spill file and drops them from the heap.
+     * The first spill creates the file; later ones append to it.
+     *
+     * @param file The file to create on the first spill; ignored afterwards
+     * @throws IOException if the file cannot be written
+     */
+    void spill(@Nullable Path file) throws IOException {
+        if (sections == null || sections.isEmpty()) {
+            return;
+        }
+
+        boolean created = spillFile == null;
+        Path target = created ? file : spillFile;
+        if (created) {
+            Files.createDirectories(target.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(created
+                ? Files.newOutputStream(target)
+                : Files.newOutputStream(target, StandardOpenOption.APPEND)))) {
+            if (created) {
+                out.writeInt(MAGIC);
+            }
+            for (SectionSnapshot snapshot : sections.values()) {
+                out.writeBoolean(true);
+                snapshot.write(out);
+            }
+        }
+        spillFile = target;
+        sections = new Long2ObjectOpenHashMap<>();
+        heapBytes = 0;
+    }
+
+    /**
+     * Creates an edit that puts back the recorded states. Positions that were not recorded, such
+     * as those in unloaded chunks, are left unchanged.
+     *
+     * @return The replay edit
+     * @throws IOException if the entry was spilled and cannot be read back, or was discarded
+     */
+    @NotNull
+    BlockEdit toEdit() throws IOException {
+        if (sections == null) {
+            throw new IOException("History entry is no longer available");
+        }
+
+        Long2ObjectMap<SectionSnapshot> recorded = sections;
+        if (spillFile != null) {
+            recorded = readSpill();
+            recorded.putAll(sections);
+        }
+        return new BlockEdit() {
+            private SectionSnapshot current;
+
+            @Override
+            @NotNull
+            public BlockBox getBounds() {
+                return bounds;
+            }
+
+            @Override
+            @Nullable
+            public BlockState getState(int x, int y, int z) {
+                long key = ChunkSectionPos.asLong(ChunkSectionPos.getSectionCoord(x),
+                        ChunkSectionPos.getSectionCoord(y), ChunkSectionPos.getSectionCoord(z));
+                SectionSnapshot snapshot = current;
+                if (snapshot == null || snapshot.sectionPos() != key) {
+                    if (snapshot != null) {
+                        snapshot.release();
+                    }
+                    snapshot = recorded.get(key);
+                    current = snapshot;
+                }
+                return snapshot == null ? null : snapshot.get(x, y, z);
+            }
+        };
+    }
+
+    /**
+     * Drops the snapshots and deletes the spill file, if any.
+     */
+    void discard() {
+        sections = null;
+        heapBytes = 0;
+        growthListener = null;
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                // Left for the directory cleanup on the next server start
+            }
+            spillFile = null;
+        }
+    }
+
+    @NotNull
+    private Long2ObjectMap<SectionSnapshot> readSpill() throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(spillFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Corrupt history file: " + spillFile);
+            }
+            Long2ObjectMap<SectionSnapshot> recorded = new Long2ObjectOpenHashMap<>();
+            // Each spill appends snapshots, each preceded by a marker byte, until end of file
+            while (in.read() > 0) {
+                SectionSnapshot snapshot = SectionSnapshot.read(in);
+                recorded.put(snapshot.sectionPos(), snapshot);
+            }
+            return recorded;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package dk.mosberg.api.edit;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+
+/**
+ * Compact copy of the block states in part of one chunk section.
+ *
+ * <p>
+ * States are stored as indices into a small per-section palette, run-length encoded in y, z, x
+ * order. Typical edits over terrain or air compress to a handful of runs instead of one reference
+ * per block. The palette is written to disk as raw state ids, which are stable for the lifetime of
+ * the server process that spilled them.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class SectionSnapshot {
+    private final long sectionPos;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final BlockState[] palette;
+    private final int[] runs;
+
+    private short[] decoded;
+
+    private SectionSnapshot(long sectionPos, int minX, int minY, int minZ, int sizeX, int sizeY,
+            int sizeZ, @NotNull BlockState[] palette, @NotNull int[] runs) {
+        this.sectionPos = sectionPos;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.palette = palette;
+        this.runs = runs;
+    }
+
+    /**
+     * Captures the states of the part of a section that lies inside a box.
+     *
+     * @param section The section
+     * @param sectionX The section x coordinate
+     * @param sectionY The section y coordinate
+     * @param sectionZ The section z coordinate
+     * @param bounds The box, in block coordinates
+     * @return The snapshot
+     */
+    @NotNull
+    static SectionSnapshot capture(@NotNull ChunkSection section, int sectionX, int sectionY,
+            int sectionZ, @NotNull BlockBox bounds) {
+        int baseX = ChunkSectionPos.getBlockCoord(sectionX);
+        int baseY = ChunkSectionPos.getBlockCoord(sectionY);
+        int baseZ = ChunkSectionPos.getBlockCoord(sectionZ);
+        int minX = Math.max(bounds.getMinX(), baseX) - baseX;
+        int minY = Math.max(bounds.getMinY(), baseY) - baseY;
+        int minZ = Math.max(bounds.getMinZ(), baseZ) - baseZ;
+        int maxX = Math.min(bounds.getMaxX(), baseX + 15) - baseX;
+        int maxY = Math.min(bounds.getMaxY(), baseY + 15) - baseY;
+        int maxZ = Math.min(bounds.getMaxZ(), baseZ + 15) - baseZ;
+
+        Reference2IntOpenHashMap<BlockState> indices = new Reference2IntOpenHashMap<>();
+        indices.defaultReturnValue(-1);
+        List<BlockState> palette = new ArrayList<>();
+        IntArrayList runs = new IntArrayList();
+
+        int current = -1;
+        int length = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    BlockState state = section.getBlockState(x, y, z);
+                    int index = indices.getInt(state);
+                    if (index < 0) {
+                        index = palette.size();
+                        palette.add(state);
+                        indices.put(state, index);
+                    }
+
+                    if (index == current) {
+                        length++;
+                    } else {
+                        if (length > 0) {
+                            runs.add(length);
+                            runs.add(current);
+                        }
+                        current = index;
+                        length = 1;
+                    }
+                }
+            }
+        }
+        if (length > 0) {
+            runs.add(length);
+            runs.add(current);
+        }
+
+        return new SectionSnapshot(ChunkSectionPos.asLong(sectionX, sectionY, sectionZ), minX,
+                minY, minZ, maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1,
+                palette.toArray(BlockState[]::new), runs.toIntArray());
+    }
+
+    /**
+     * Gets the packed position of the section, as by {@link ChunkSectionPos#asLong}.
+     */
+    long sectionPos() {
+        return sectionPos;
+    }
+
+    /**
+     * Gets the recorded state at a position.
+     *
+     * @param x The block x coordinate
+     * @param y The block y coordinate
+     * @param z The block z coordinate
+     * @return The state, or null if the position was not recorded
+     */
+    @Nullable
+    BlockState get(int x, int y, int z) {
+        int localX = (x & 15) - minX;
+        int localY = (y & 15) - minY;
+        int localZ = (z & 15) - minZ;
+        if (localX < 0 || localY < 0 || localZ < 0 || localX >= sizeX || localY >= sizeY
+                || localZ >= sizeZ) {
+            return null;
+        }
+
+        if (decoded == null) {
+            decoded = decode();
+        }
+        return palette[decoded[(localY * sizeZ + localZ) * sizeX + localX]];
+    }
+
+    /**
+     * Releases the decoded index array built by {@link #get(int, int, int)}.
+     */
+    void release() {
+        decoded = null;
+    }
+
+    /**
+     * Estimates the heap used by this snapshot, excluding a decoded index array.
+     */
+    int sizeBytes() {
+        return 64 + palette.length * 8 + runs.length * 4;
+    }
+
+    /**
+     * Writes the snapshot.
+     */
+    void write(@NotNull DataOutputStream out) throws IOException {
+        out.writeLong(sectionPos);
+        out.writeByte(minX);
+        out.writeByte(minY);
+        out.writeByte(minZ);
+        out.writeByte(sizeX);
+        out.writeByte(sizeY);
+        out.writeByte(sizeZ);
+        out.writeShort(palette.length);
+        for (BlockState state : palette) {
+            out.writeInt(Block.getRawIdFromState(state));
+        }
+        out.writeInt(runs.length);
+        for (int value : runs) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write(DataOutputStream)}.
+     */
+    @NotNull
+    static SectionSnapshot read(@NotNull DataInputStream in) throws IOException {
+        long sectionPos = in.readLong();
+        int minX = in.readUnsignedByte();
+        int minY = in.readUnsignedByte();
+        int minZ = in.readUnsignedByte();
+        int sizeX = in.readUnsignedByte();
+        int sizeY = in.readUnsignedByte();
+        int sizeZ = in.readUnsignedByte();
+
+        BlockState[] palette = new BlockState[in.readUnsignedShort()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = Block.getStateFromRawId(in.readInt());
+        }
+        int[] runs = new int[in.readInt()];
+        for (int i = 0; i < runs.length; i++) {
+            runs[i] = in.readInt();
+        }
+        return new SectionSnapshot(sectionPos, minX, minY, minZ, sizeX, sizeY, sizeZ, palette,
+                runs);
+    }
+
+    @NotNull
+    private short[] decode() {
+        short[] indices = new short[sizeX * sizeY * sizeZ];
+        int offset = 0;
+        for (int i = 0; i < runs.length; i += 2) {
+            int end = offset + runs[i];
+            Arrays.fill(indices, offset, end, (short) runs[i + 1]);
+            offset = end;
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,131 @@
+package dk.mosberg.api.edit;
+
+import org.jetbrains.annotations.NotNull;
+import dk.mosberg.api.world.ColumnCache;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerChunkManager;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Clearable;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import net.minecraft.world.chunk.light.ChunkLightProvider;
+import net.minecraft.world.chunk.light.LightingProvider;
+
+/**
+ * Writes the part of a {@link BlockEdit} that falls inside one chunk section.
+ *
+ * <p>
+ * States are written straight into the section's palette instead of going through
+ * {@code World.setBlockState}, which skips per-block neighbor updates, shape updates and block
+ * callbacks. The bookkeeping a plain state change still needs is done here: heightmaps, sky light
+ * columns and light checks, point-of-interest tracking, the {@link ColumnCache}, marking the chunk
+ * for saving and queueing the position for client sync. Vanilla then sends all positions queued in
+ * a section during a tick as one chunk delta packet.
+ *
+ * <p>
+ * Positions where the old or new state has a block entity go through
+ * {@code World.setBlockState} with {@link Block#FORCE_STATE} and without neighbor updates, so block
+ * entities are created and removed correctly while shape updates stay skipped. Containers being
+ * replaced are emptied first, so their contents are discarded rather than spilled into the world;
+ * history entries only record block states, so the contents could not be restored on undo
+ * either.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class SectionWriter {
+    private static final Heightmap.Type[] TRACKED_HEIGHTMAPS = {Heightmap.Type.MOTION_BLOCKING,
+            Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, Heightmap.Type.OCEAN_FLOOR,
+            Heightmap.Type.WORLD_SURFACE};
+
+    private final BlockPos.Mutable pos = new BlockPos.Mutable();
+    private final Heightmap[] heightmaps = new Heightmap[TRACKED_HEIGHTMAPS.length];
+
+    /**
+     * Applies an edit to one section.
+     *
+     * @param world The world
+     * @param chunk The loaded chunk containing the section
+     * @param sectionY The section coordinate
+     * @param bounds The part of the world to edit
+     * @param edit The edit supplying new states
+     * @return The number of positions whose state changed
+     */
+    int write(@NotNull ServerWorld world, @NotNull WorldChunk chunk, int sectionY,
+            @NotNull BlockBox bounds, @NotNull BlockEdit edit) {
+        ChunkSection section = chunk.getSection(chunk.sectionCoordToIndex(sectionY));
+        ChunkPos chunkPos = chunk.getPos();
+        int minX = Math.max(bounds.getMinX(), chunkPos.getStartX());
+        int maxX = Math.min(bounds.getMaxX(), chunkPos.getEndX());
+        int minY = Math.max(bounds.getMinY(), ChunkSectionPos.getBlockCoord(sectionY));
+        int maxY = Math.min(bounds.getMaxY(), ChunkSectionPos.getBlockCoord(sectionY) + 15);
+        int minZ = Math.max(bounds.getMinZ(), chunkPos.getStartZ());
+        int maxZ = Math.min(bounds.getMaxZ(), chunkPos.getEndZ());
+
+        ServerChunkManager chunkManager = world.getChunkManager();
+        LightingProvider lighting = chunkManager.getLightingProvider();
+        for (int i = 0; i < TRACKED_HEIGHTMAPS.length; i++) {
+            heightmaps[i] = chunk.getHeightmap(TRACKED_HEIGHTMAPS[i]);
+        }
+
+        boolean wasEmpty = section.isEmpty();
+        int changed = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    BlockState state = edit.getState(x, y, z);
+                    if (state == null) {
+                        continue;
+                    }
+
+                    int localX = x & 15;
+                    int localY = y & 15;
+                    int localZ = z & 15;
+                    BlockState oldState = section.getBlockState(localX, localY, localZ);
+                    if (oldState == state) {
+                        continue;
+                    }
+
+                    pos.set(x, y, z);
+                    if (oldState.hasBlockEntity() || state.hasBlockEntity()) {
+                        Clearable.clear(world.getBlockEntity(pos));
+                        if (world.setBlockState(pos, state,
+                                Block.NOTIFY_LISTENERS | Block.FORCE_STATE)) {
+                            changed++;
+                        }
+                        continue;
+                    }
+
+                    section.setBlockState(localX, localY, localZ, state);
+                    for (Heightmap heightmap : heightmaps) {
+                        heightmap.trackUpdate(localX, y, localZ, state);
+                    }
+                    if (ChunkLightProvider.needsLightUpdate(oldState, state)) {
+                        chunk.getChunkSkyLight().isSkyLightAccessible(chunk, localX, y, localZ);
+                        lighting.checkBlock(pos);
+                    }
+                    world.onBlockChanged(pos, oldState, state);
+                    chunkManager.markForUpdate(pos);
+                    changed++;
+                }
+            }
+        }
+
+        boolean isEmpty = section.isEmpty();
+        if (wasEmpty != isEmpty) {
+            lighting.setSectionStatus(ChunkSectionPos.from(chunkPos, sectionY), isEmpty);
+        }
+        if (changed > 0) {
+            chunk.markNeedsSaving();
+            ColumnCache.invalidateChunk(world, chunkPos.x, chunkPos.z);
+        }
+        return changed;
+    }
+}
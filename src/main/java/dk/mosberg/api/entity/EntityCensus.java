@@ -0,0 +1,302 @@
+package dk.mosberg.api.entity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import dk.mosberg.api.config.ConfigManager;
+import dk.mosberg.api.config.IntConfigHandle;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+/**
+ * Live entity counts per world, chunk and entity type.
+ *
+ * <p>
+ * Counts are adjusted by one whenever a server world starts or stops tracking an entity, and when
+ * a tracked entity crosses into another chunk, so reading them never scans the world. Each world
+ * keeps its counters in primitive-keyed maps plus the chunk every entity was counted in, so an
+ * entity is always removed from the chunk it was added to even if a move was missed.
+ *
+ * <p>
+ * The census also enforces {@code entities.max_entity_count} as a per-chunk cap: a naturally
+ * spawned or spawner-spawned mob is not added to a world when its chunk already holds that many
+ * entities. A spawner sees the refusal as a failed spawn, so it resets its delay without playing
+ * spawn effects. Every other addition is allowed, including commands, spawn eggs, breeding and
+ * conversions such as curing a zombie villager, which replace the original mob and would
+ * otherwise delete it. Players and non-mob entities such as items are never refused, and a cap of
+ * 0 disables the check. All methods must be called on the server thread.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * int zombies = EntityCensus.getCount(world, EntityType.ZOMBIE);
+ * for (EntityCensus.ChunkCount hot : EntityCensus.getHottestChunks(world, 5)) {
+ *     LOGGER.info("{} holds {} entities", hot.pos(), hot.count());
+ * }
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class EntityCensus {
+    private static final IntConfigHandle MAX_ENTITIES =
+            ConfigManager.intHandle("mosbergapi", "entities.max_entity_count");
+    private static final Map<RegistryKey<World>, WorldCounts> WORLDS = new HashMap<>();
+
+    private static int spawnCycles;
+
+    private EntityCensus() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Hooks the census into entity and world lifecycle events.
+     */
+    public static void initialize() {
+        ServerEntityEvents.ENTITY_LOAD.register(EntityCensus::onLoad);
+        ServerEntityEvents.ENTITY_UNLOAD.register(EntityCensus::onUnload);
+        ServerWorldEvents.UNLOAD.register((server, world) -> WORLDS.remove(world.getRegistryKey()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> WORLDS.clear());
+        // A spawn cycle cut short by an exception must not leave the cap on for every addition
+        ServerTickEvents.START_SERVER_TICK.register(server -> spawnCycles = 0);
+    }
+
+    /**
+     * Gets the number of tracked entities of a type in a world.
+     *
+     * @param world The world
+     * @param type The entity type
+     * @return The count
+     */
+    public static int getCount(@NotNull ServerWorld world, @NotNull EntityType<?> type) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+        if (type == null)
+            throw new NullPointerException("Type cannot be null");
+
+        WorldCounts counts = WORLDS.get(world.getRegistryKey());
+        return counts == null ? 0 : counts.byType.getInt(type);
+    }
+
+    /**
+     * Gets the number of tracked entities in a chunk.
+     *
+     * @param world The world
+     * @param pos The chunk position
+     * @return The count
+     */
+    public static int getChunkCount(@NotNull ServerWorld world, @NotNull ChunkPos pos) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+        if (pos == null)
+            throw new NullPointerException("Position cannot be null");
+
+        WorldCounts counts = WORLDS.get(world.getRegistryKey());
+        return counts == null ? 0 : counts.byChunk.get(pos.toLong());
+    }
+
+    /**
+     * Gets the number of tracked entities in a world.
+     *
+     * @param world The world
+     * @return The count
+     */
+    public static int getTotal(@NotNull ServerWorld world) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+
+        WorldCounts counts = WORLDS.get(world.getRegistryKey());
+        return counts == null ? 0 : counts.total;
+    }
+
+    /**
+     * Gets the most common entity types in a world.
+     *
+     * @param world The world
+     * @param limit The maximum number of types to return
+     * @return The types, most numerous first
+     */
+    @NotNull
+    public static List<TypeCount> getTopTypes(@NotNull ServerWorld world, int limit) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+
+        WorldCounts counts = WORLDS.get(world.getRegistryKey());
+        if (counts == null) {
+            return List.of();
+        }
+
+        List<TypeCount> result = new ArrayList<>(counts.byType.size());
+        for (Reference2IntMap.Entry<EntityType<?>> entry : counts.byType
+                .reference2IntEntrySet()) {
+            result.add(new TypeCount(entry.getKey(), entry.getIntValue()));
+        }
+        result.sort(Comparator.comparingInt(TypeCount::count).reversed());
+        return result.size() > limit ? List.copyOf(result.subList(0, Math.max(0, limit)))
+                : result;
+    }
+
+    /**
+     * Gets the chunks holding the most entities in a world.
+     *
+     * @param world The world
+     * @param limit The maximum number of chunks to return
+     * @return The chunks, most crowded first
+     */
+    @NotNull
+    public static List<ChunkCount> getHottestChunks(@NotNull ServerWorld world, int limit) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+
+        WorldCounts counts = WORLDS.get(world.getRegistryKey());
+        if (counts == null) {
+            return List.of();
+        }
+
+        List<ChunkCount> result = new ArrayList<>(counts.byChunk.size());
+        for (Long2IntMap.Entry entry : counts.byChunk.long2IntEntrySet()) {
+            result.add(new ChunkCount(new ChunkPos(entry.getLongKey()), entry.getIntValue()));
+        }
+        result.sort(Comparator.comparingInt(ChunkCount::count).reversed());
+        return result.size() > limit ? List.copyOf(result.subList(0, Math.max(0, limit)))
+                : result;
+    }
+
+    /**
+     * Checks whether an entity may be added to a world under {@code entities.max_entity_count}.
+     * Only entities added during natural or spawner spawning are subject to the cap.
+     *
+     * @param world The world
+     * @param entity The entity about to be added
+     * @return false if the entity is a mob spawned naturally or by a spawner and its chunk is full
+     */
+    public static boolean canSpawn(@NotNull ServerWorld world, @NotNull Entity entity) {
+        if (spawnCycles == 0 || !(entity instanceof MobEntity)) {
+            return true;
+        }
+
+        WorldCounts counts = WORLDS.get(world.getRegistryKey());
+        if (counts == null) {
+            return true;
+        }
+        int max = MAX_ENTITIES.get(world);
+        return max <= 0 || counts.byChunk.get(chunkKey(entity)) < max;
+    }
+
+    /**
+     * Marks the start of natural or spawner spawning, during which the cap applies. Called by the
+     * spawn hooks; not meant to be called by mods.
+     */
+    public static void enterSpawnCycle() {
+        spawnCycles++;
+    }
+
+    /**
+     * Marks the end of natural or spawner spawning. Called by the spawn hooks; not meant to be
+     * called by mods.
+     */
+    public static void exitSpawnCycle() {
+        spawnCycles = Math.max(0, spawnCycles - 1);
+    }
+
+    /**
+     * Moves a tracked entity to the chunk it now stands in. Called when an entity changes entity
+     * section; not meant to be called by mods.
+     *
+     * @param entity The entity
+     */
+    public static void onSectionChanged(@NotNull Entity entity) {
+        WorldCounts counts = WORLDS.get(entity.getEntityWorld().getRegistryKey());
+        if (counts == null || !counts.chunkOf.containsKey(entity)) {
+            return;
+        }
+
+        long chunk = chunkKey(entity);
+        long previous = counts.chunkOf.put(entity, chunk);
+        if (previous != chunk) {
+            counts.removeFromChunk(previous);
+            counts.byChunk.addTo(chunk, 1);
+        }
+    }
+
+    private static void onLoad(@NotNull Entity entity, @NotNull ServerWorld world) {
+        WorldCounts counts =
+                WORLDS.computeIfAbsent(world.getRegistryKey(), key -> new WorldCounts());
+        if (counts.chunkOf.containsKey(entity)) {
+            return;
+        }
+
+        long chunk = chunkKey(entity);
+        counts.chunkOf.put(entity, chunk);
+        counts.byChunk.addTo(chunk, 1);
+        counts.byType.addTo(entity.getType(), 1);
+        counts.total++;
+    }
+
+    private static void onUnload(@NotNull Entity entity, @NotNull ServerWorld world) {
+        WorldCounts counts = WORLDS.get(world.getRegistryKey());
+        if (counts == null || !counts.chunkOf.containsKey(entity)) {
+            return;
+        }
+
+        counts.removeFromChunk(counts.chunkOf.removeLong(entity));
+        if (counts.byType.addTo(entity.getType(), -1) <= 1) {
+            counts.byType.removeInt(entity.getType());
+        }
+        counts.total--;
+    }
+
+    private static long chunkKey(@NotNull Entity entity) {
+        return ChunkPos.toLong(entity.getBlockX() >> 4, entity.getBlockZ() >> 4);
+    }
+
+    /**
+     * Number of entities of one type.
+     *
+     * @param type The entity type
+     * @param count The number of tracked entities
+     */
+    public record TypeCount(@NotNull EntityType<?> type, int count) {
+    }
+
+    /**
+     * Number of entities in one chunk.
+     *
+     * @param pos The chunk position
+     * @param count The number of tracked entities
+     */
+    public record ChunkCount(@NotNull ChunkPos pos, int count) {
+    }
+
+    private static final class WorldCounts {
+        private final Reference2IntOpenHashMap<EntityType<?>> byType =
+                new Reference2IntOpenHashMap<>();
+        private final Long2IntOpenHashMap byChunk = new Long2IntOpenHashMap();
+        private final Reference2LongOpenHashMap<Entity> chunkOf = new Reference2LongOpenHashMap<>();
+        private int total;
+
+        private void removeFromChunk(long chunk) {
+            if (byChunk.addTo(chunk, -1) <= 1) {
+                byChunk.remove(chunk);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package dk.mosberg.api.entity;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import dk.mosberg.api.config.ConfigManager;
+import dk.mosberg.api.config.IntConfigHandle;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.network.packet.s2c.play.EntitiesDestroyS2CPacket;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Removes large numbers of entities across server ticks under a time budget.
+ *
+ * <p>
+ * Submitted jobs are worked on at the end of every server tick until
+ * {@code entities.removal_budget_ms} milliseconds have been spent. While a batch runs, the entity
+ * destroy packets vanilla would send one per entity and player are collected instead, and each
+ * player receives a single packet listing every entity removed from their view that tick.
+ *
+ * <p>
+ * Entities are either killed, running their death logic and dropping loot, or discarded, which
+ * removes them without drops or death effects. Killed living entities skip the death animation
+ * and are gone at the end of their batch. Players are never removed; they are dropped from every
+ * submission. Jobs run in submission order and can be cancelled with
+ * {@code /mosbergapi jobs cancel removals}. All methods must be called on the server thread.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * RemovalJob job = EntityRemovalQueue.submit(items, false);
+ * job.getFuture().thenAccept(done -> LOGGER.info("Removed {} items", done.getRemoved()));
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class EntityRemovalQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntityRemovalQueue.class);
+    private static final IntConfigHandle BUDGET_MS =
+            ConfigManager.intHandle("mosbergapi", "entities.removal_budget_ms");
+    private static final Deque<RemovalJob> QUEUE = new ArrayDeque<>();
+    private static final Reference2ObjectOpenHashMap<ServerPlayerEntity, IntArrayList> DESTROYED =
+            new Reference2ObjectOpenHashMap<>();
+
+    private static boolean batching;
+
+    private EntityRemovalQueue() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Hooks the queue into the server tick loop.
+     */
+    public static void initialize() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> tick());
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> cancelAll());
+    }
+
+    /**
+     * Queues entities for removal. Players among them are left out.
+     *
+     * @param entities The entities to remove
+     * @param kill true to kill them with death logic and drops, false to discard them silently
+     * @return The job, which reports completion
+     */
+    @NotNull
+    public static RemovalJob submit(@NotNull Collection<? extends Entity> entities, boolean kill) {
+        if (entities == null)
+            throw new NullPointerException("Entities cannot be null");
+
+        List<? extends Entity> targets = entities.stream()
+                .filter(entity -> !(entity instanceof PlayerEntity)).toList();
+        RemovalJob job = new RemovalJob(targets, kill);
+        QUEUE.addLast(job);
+        LOGGER.debug("Queued removal of {} entities", job.getTotal());
+        return job;
+    }
+
+    /**
+     * Gets the queued and running jobs, in execution order.
+     *
+     * @return A copy of the queue
+     */
+    @NotNull
+    public static List<RemovalJob> getJobs() {
+        return List.copyOf(QUEUE);
+    }
+
+    /**
+     * Cancels every queued and running job. Entities already removed stay removed.
+     *
+     * @return The number of jobs cancelled
+     */
+    public static int cancelAll() {
+        int cancelled = 0;
+        while (!QUEUE.isEmpty()) {
+            RemovalJob job = QUEUE.pollFirst();
+            if (!job.isDone()) {
+                job.cancel();
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Collects an entity destroy packet for a player while a batch runs. Called when vanilla is
+     * about to send one; not meant to be called by mods.
+     *
+     * @param player The player the packet is for
+     * @param entityIds The entity ids in the packet
+     * @return true if the ids were collected and the packet should not be sent now
+     */
+    public static boolean deferDestroy(@NotNull ServerPlayerEntity player,
+            @NotNull IntList entityIds) {
+        if (!batching) {
+            return false;
+        }
+
+        DESTROYED.computeIfAbsent(player, key -> new IntArrayList()).addAll(entityIds);
+        return true;
+    }
+
+    private static void tick() {
+        if (QUEUE.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + Math.max(1, BUDGET_MS.get()) * 1_000_000L;
+        batching = true;
+        try {
+            while (!QUEUE.isEmpty() && System.nanoTime() < deadline) {
+                RemovalJob job = QUEUE.peekFirst();
+                try {
+                    if (job.step(deadline)) {
+                        QUEUE.pollFirst();
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.error("Entity removal failed after {} entities", job.getRemoved(), e);
+                    QUEUE.pollFirst();
+                    job.getFuture().completeExceptionally(e);
+                }
+            }
+        } finally {
+            batching = false;
+            flushDestroyed();
+        }
+    }
+
+    private static void flushDestroyed() {
+        for (var entry : DESTROYED.reference2ObjectEntrySet()) {
+            ServerPlayerEntity player = entry.getKey();
+            if (!player.isDisconnected()) {
+                player.networkHandler.sendPacket(new EntitiesDestroyS2CPacket(entry.getValue()));
+            }
+        }
+        DESTROYED.clear();
+    }
+}
@@ -0,0 +1,145 @@
+package dk.mosberg.api.entity;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * A queued or running batch removal of entities.
+ *
+ * <p>
+ * Entities are removed in chunk order, so each tick's batch touches few chunks. Entities that were
+ * already removed by the time their turn comes are skipped. Killed living entities are discarded
+ * right after their death logic runs instead of playing the death animation, so they leave the
+ * world within the batch. All methods must be called on the server thread.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class RemovalJob {
+    private static final int DEADLINE_CHECK_INTERVAL = 32;
+
+    private final Entity[] entities;
+    private final boolean kill;
+    private final CompletableFuture<RemovalJob> future = new CompletableFuture<>();
+
+    private int next;
+    private int removed;
+    private int ticks;
+    private boolean cancelled;
+
+    RemovalJob(@NotNull List<? extends Entity> entities, boolean kill) {
+        this.entities = entities.toArray(Entity[]::new);
+        this.kill = kill;
+        Arrays.sort(this.entities,
+                Comparator.comparingLong((Entity entity) -> entity.getChunkPos().toLong()));
+    }
+
+    /**
+     * Gets a future completed on the server thread when every entity was handled or the job was
+     * cancelled.
+     *
+     * @return The completion future
+     */
+    @NotNull
+    public CompletableFuture<RemovalJob> getFuture() {
+        return future;
+    }
+
+    /**
+     * Cancels the job. Entities already removed stay removed.
+     */
+    public void cancel() {
+        if (!isDone()) {
+            cancelled = true;
+            future.complete(this);
+        }
+    }
+
+    /**
+     * Checks whether entities are killed, with death logic and drops, rather than discarded.
+     */
+    public boolean isKill() {
+        return kill;
+    }
+
+    /**
+     * Gets the number of entities the job was given.
+     */
+    public int getTotal() {
+        return entities.length;
+    }
+
+    /**
+     * Gets the number of entities removed from the world so far.
+     */
+    public int getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Gets the number of ticks the job has been worked on.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Checks whether the job was cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Checks whether the job has finished or was cancelled.
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Removes entities until the deadline passes or the job is done.
+     *
+     * @param deadlineNanos The {@link System#nanoTime()} to stop at
+     * @return true if the job is done
+     */
+    boolean step(long deadlineNanos) {
+        if (isDone()) {
+            return true;
+        }
+
+        ticks++;
+        while (next < entities.length) {
+            Entity entity = entities[next];
+            entities[next++] = null;
+            if (!entity.isRemoved()) {
+                if (kill) {
+                    entity.kill((ServerWorld) entity.getEntityWorld());
+                    if (entity instanceof LivingEntity living && living.isDead()) {
+                        // Skip the death animation so the entity leaves within this batch
+                        living.discard();
+                    }
+                } else {
+                    entity.discard();
+                }
+                if (entity.isRemoved()) {
+                    removed++;
+                }
+            }
+
+            if (next % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() >= deadlineNanos) {
+                return false;
+            }
+        }
+
+        future.complete(this);
+        return true;
+    }
+}
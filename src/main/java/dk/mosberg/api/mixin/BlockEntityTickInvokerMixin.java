@@ -0,0 +1,27 @@
+package dk.mosberg.api.mixin;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import dk.mosberg.api.debug.TickProfiler;
+import net.minecraft.block.entity.BlockEntity;
+
+@Mixin(targets = "net.minecraft.world.chunk.WorldChunk$DirectBlockEntityTickInvoker")
+public abstract class BlockEntityTickInvokerMixin {
+	@Shadow
+	@Final
+	private BlockEntity blockEntity;
+
+	@Inject(at = @At("HEAD"), method = "tick", require = 0)
+	private void mosbergapi$profileBlockEntityStart(CallbackInfo info) {
+		TickProfiler.enterBlockEntity(this.blockEntity);
+	}
+
+	@Inject(at = @At("RETURN"), method = "tick", require = 0)
+	private void mosbergapi$profileBlockEntityEnd(CallbackInfo info) {
+		TickProfiler.exitBlockEntity();
+	}
+}
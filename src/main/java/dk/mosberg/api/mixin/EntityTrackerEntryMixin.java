@@ -0,0 +1,21 @@
+package dk.mosberg.api.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapWithCondition;
+import dk.mosberg.api.entity.EntityRemovalQueue;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.EntitiesDestroyS2CPacket;
+import net.minecraft.server.network.EntityTrackerEntry;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+
+@Mixin(EntityTrackerEntry.class)
+public abstract class EntityTrackerEntryMixin {
+	@WrapWithCondition(method = "stopTracking", at = @At(value = "INVOKE",
+			target = "Lnet/minecraft/server/network/ServerPlayNetworkHandler;sendPacket(Lnet/minecraft/network/packet/Packet;)V"))
+	private boolean mosbergapi$batchDestroyPacket(ServerPlayNetworkHandler handler, Packet<?> packet) {
+		// During batched removals the ids are collected and sent as one packet per player
+		return !(packet instanceof EntitiesDestroyS2CPacket destroy)
+				|| !EntityRemovalQueue.deferDestroy(handler.player, destroy.getEntityIds());
+	}
+}
@@ -0,0 +1,22 @@
+package dk.mosberg.api.mixin;
+
+import java.util.function.BooleanSupplier;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import dk.mosberg.api.debug.TickProfiler;
+import net.minecraft.server.MinecraftServer;
+
+@Mixin(MinecraftServer.class)
+public abstract class MinecraftServerMixin {
+	@Inject(at = @At("HEAD"), method = "tick(Ljava/util/function/BooleanSupplier;)V", require = 0)
+	private void mosbergapi$profileTickStart(BooleanSupplier shouldKeepTicking, CallbackInfo info) {
+		TickProfiler.enterTick();
+	}
+
+	@Inject(at = @At("RETURN"), method = "tick(Ljava/util/function/BooleanSupplier;)V", require = 0)
+	private void mosbergapi$profileTickEnd(BooleanSupplier shouldKeepTicking, CallbackInfo info) {
+		TickProfiler.exitTick();
+	}
+}
@@ -0,0 +1,34 @@
+package dk.mosberg.api.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import dk.mosberg.api.entity.EntityCensus;
+import net.minecraft.block.spawner.MobSpawnerLogic;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.world.ServerWorld;
+
+@Mixin(MobSpawnerLogic.class)
+public abstract class MobSpawnerLogicMixin {
+	@Inject(at = @At("HEAD"), method = "serverTick")
+	private void mosbergapi$enterSpawnerSpawn(CallbackInfo info) {
+		// The per-chunk entity cap only applies to mobs added while this runs
+		EntityCensus.enterSpawnCycle();
+	}
+
+	@WrapOperation(method = "serverTick", at = @At(value = "INVOKE",
+			target = "Lnet/minecraft/server/world/ServerWorld;spawnNewEntityAndPassengers(Lnet/minecraft/entity/Entity;)Z"))
+	private boolean mosbergapi$enforceEntityCap(ServerWorld world, Entity entity,
+			Operation<Boolean> original) {
+		// Report a capped mob as a failed spawn so the spawner resets its delay and skips effects
+		return EntityCensus.canSpawn(world, entity) && original.call(world, entity);
+	}
+
+	@Inject(at = @At("RETURN"), method = "serverTick")
+	private void mosbergapi$exitSpawnerSpawn(CallbackInfo info) {
+		EntityCensus.exitSpawnCycle();
+	}
+}
@@ -0,0 +1,31 @@
+package dk.mosberg.api.mixin;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import dk.mosberg.api.entity.EntityCensus;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.entity.EntityLike;
+
+@Mixin(targets = "net.minecraft.server.world.ServerEntityManager$Listener")
+public abstract class ServerEntityManagerListenerMixin {
+	@Shadow
+	@Final
+	private EntityLike entity;
+
+	@Shadow
+	private long sectionPos;
+
+	@Inject(at = @At("HEAD"), method = "updateEntityPosition")
+	private void mosbergapi$trackChunkChange(CallbackInfo info) {
+		// The entity already stands at its new position; only section changes move census counts
+		if (this.entity instanceof Entity tracked
+				&& ChunkSectionPos.toLong(tracked.getBlockPos()) != this.sectionPos) {
+			EntityCensus.onSectionChanged(tracked);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package dk.mosberg.api.mixin;
+
+import java.util.function.BooleanSupplier;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import dk.mosberg.api.debug.TickProfiler;
+import dk.mosberg.api.entity.EntityCensus;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.world.ServerWorld;
+
+@Mixin(ServerWorld.class)
+public abstract class ServerWorldMixin {
+	@Inject(at = @At("HEAD"), method = "spawnEntity", cancellable = true)
+	private void mosbergapi$enforceEntityCap(Entity entity, CallbackInfoReturnable<Boolean> info) {
+		// Refuse natural and spawner mobs in chunks already holding entities.max_entity_count
+		if (!EntityCensus.canSpawn((ServerWorld) (Object) this, entity)) {
+			info.setReturnValue(false);
+		}
+	}
+
+	@Inject(at = @At("HEAD"), method = "tick", require = 0)
+	private void mosbergapi$profileWorldStart(BooleanSupplier shouldKeepTicking, CallbackInfo info) {
+		TickProfiler.enterWorld((ServerWorld) (Object) this);
+	}
+
+	@Inject(at = @At("RETURN"), method = "tick", require = 0)
+	private void mosbergapi$profileWorldEnd(BooleanSupplier shouldKeepTicking, CallbackInfo info) {
+		TickProfiler.exitWorld();
+	}
+
+	@Inject(at = @At("HEAD"), method = "tickEntity", require = 0)
+	private void mosbergapi$profileEntityStart(Entity entity, CallbackInfo info) {
+		TickProfiler.enterEntity(entity);
+	}
+
+	@Inject(at = @At("RETURN"), method = "tickEntity", require = 0)
+	private void mosbergapi$profileEntityEnd(Entity entity, CallbackInfo info) {
+		TickProfiler.exitEntity();
+	}
+}
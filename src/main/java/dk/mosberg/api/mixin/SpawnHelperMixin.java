@@ -0,0 +1,22 @@
+package dk.mosberg.api.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import dk.mosberg.api.entity.EntityCensus;
+import net.minecraft.world.SpawnHelper;
+
+@Mixin(SpawnHelper.class)
+public abstract class SpawnHelperMixin {
+	@Inject(at = @At("HEAD"), method = "spawn")
+	private static void mosbergapi$enterNaturalSpawn(CallbackInfo info) {
+		// The per-chunk entity cap only applies to mobs added while this runs
+		EntityCensus.enterSpawnCycle();
+	}
+
+	@Inject(at = @At("RETURN"), method = "spawn")
+	private static void mosbergapi$exitNaturalSpawn(CallbackInfo info) {
+		EntityCensus.exitSpawnCycle();
+	}
+}
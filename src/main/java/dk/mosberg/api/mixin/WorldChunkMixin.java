@@ -0,0 +1,24 @@
+package dk.mosberg.api.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import dk.mosberg.api.world.ColumnCache;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.WorldChunk;
+
+@Mixin(WorldChunk.class)
+public abstract class WorldChunkMixin {
+	@Inject(at = @At("RETURN"), method = "setBlockState")
+	private void mosbergapi$invalidateColumn(BlockPos pos, BlockState state, int flags,
+			CallbackInfoReturnable<BlockState> info) {
+		// A null return means nothing changed, so the cached column is still valid
+		if (info.getReturnValue() != null
+				&& ((WorldChunk) (Object) this).getWorld() instanceof ServerWorld world) {
+			ColumnCache.invalidate(world, pos.getX(), pos.getZ());
+		}
+	}
+}
@@ -0,0 +1,326 @@
+package dk.mosberg.api.registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.registry.Registry;
+import net.minecraft.util.Identifier;
+
+/**
+ * Sorted, searchable snapshot of the identifiers in a registry.
+ *
+ * <p>
+ * An index holds every identifier of a registry sorted by its string form, so the entries of one
+ * namespace form a contiguous range and a prefix query is two binary searches. Substring queries
+ * are answered from a trigram index: only the identifiers containing the rarest trigram of the
+ * query are checked. Queries of one or two characters fall back to a scan of every identifier.
+ *
+ * <p>
+ * Indexes are built on first use and rebuilt if the registry has grown since, so using them before
+ * registries freeze is safe but wasteful. Results keep their matches as an int array, and recent
+ * results are cached per index, so turning pages costs only the page size.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * RegistryIndex.Result result = RegistryIndex.of(Registries.BLOCK).search("planks");
+ * List<Identifier> firstPage = result.page(0, 10);
+ * int pages = result.pageCount(10);
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class RegistryIndex {
+    private static final Map<Registry<?>, RegistryIndex> INDEXES = new ConcurrentHashMap<>();
+    private static final int CACHED_RESULTS = 16;
+
+    private final Identifier[] ids;
+    private final String[] names;
+    private final Map<String, int[]> namespaces;
+    private final Long2ObjectMap<int[]> trigrams;
+    private final Map<String, Result> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(CACHED_RESULTS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+                    return size() > CACHED_RESULTS;
+                }
+            });
+
+    private RegistryIndex(@NotNull Registry<?> registry) {
+        List<Identifier> sorted = new ArrayList<>(registry.getIds());
+        sorted.sort(Comparator.comparing(Identifier::toString));
+        this.ids = sorted.toArray(Identifier[]::new);
+        this.names = new String[ids.length];
+        this.namespaces = new LinkedHashMap<>();
+
+        Long2ObjectOpenHashMap<IntArrayList> postings = new Long2ObjectOpenHashMap<>();
+        LongOpenHashSet seen = new LongOpenHashSet();
+        for (int i = 0; i < ids.length; i++) {
+            String name = ids[i].toString();
+            names[i] = name;
+
+            int[] range = namespaces.computeIfAbsent(ids[i].getNamespace(),
+                    key -> new int[] {names.length, 0});
+            range[0] = Math.min(range[0], i);
+            range[1] = i + 1;
+
+            seen.clear();
+            for (int c = 0; c + 3 <= name.length(); c++) {
+                long trigram = trigram(name, c);
+                if (seen.add(trigram)) {
+                    postings.computeIfAbsent(trigram, key -> new IntArrayList()).add(i);
+                }
+            }
+        }
+
+        this.trigrams = new Long2ObjectOpenHashMap<>(postings.size());
+        for (Long2ObjectMap.Entry<IntArrayList> entry : postings.long2ObjectEntrySet()) {
+            trigrams.put(entry.getLongKey(), entry.getValue().toIntArray());
+        }
+    }
+
+    /**
+     * Gets the index of a registry, building it if needed.
+     *
+     * @param registry The registry
+     * @return The index
+     */
+    @NotNull
+    public static RegistryIndex of(@NotNull Registry<?> registry) {
+        if (registry == null)
+            throw new NullPointerException("Registry cannot be null");
+
+        return INDEXES.compute(registry, (key, index) -> index == null
+                || index.size() != registry.size() ? new RegistryIndex(registry) : index);
+    }
+
+    /**
+     * Drops every built index.
+     */
+    public static void invalidateAll() {
+        INDEXES.clear();
+    }
+
+    /**
+     * Gets the number of indexed identifiers.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Gets the identifier at a position in sorted order.
+     *
+     * @param index The position
+     * @return The identifier
+     */
+    @NotNull
+    public Identifier get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Gets the namespaces in the registry with their entry counts, in sorted order.
+     *
+     * @return The namespace counts
+     */
+    @NotNull
+    public Map<String, Integer> getNamespaceCounts() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, int[]> entry : namespaces.entrySet()) {
+            result.put(entry.getKey(), entry.getValue()[1] - entry.getValue()[0]);
+        }
+        return result;
+    }
+
+    /**
+     * Gets every identifier.
+     *
+     * @return A result over the whole index
+     */
+    @NotNull
+    public Result all() {
+        return new Result(this, 0, ids.length, null);
+    }
+
+    /**
+     * Gets the identifiers of one namespace.
+     *
+     * @param namespace The namespace
+     * @return The matching identifiers
+     */
+    @NotNull
+    public Result namespace(@NotNull String namespace) {
+        if (namespace == null)
+            throw new NullPointerException("Namespace cannot be null");
+
+        int[] range = namespaces.get(namespace);
+        return range == null ? new Result(this, 0, 0, null)
+                : new Result(this, range[0], range[1], null);
+    }
+
+    /**
+     * Searches the index.
+     *
+     * <p>
+     * A query containing {@code :} matches identifiers starting with it, so {@code minecraft:}
+     * lists a namespace and {@code minecraft:oak_} a prefix within it. Any other query matches
+     * identifiers containing it anywhere.
+     *
+     * @param query The query, case-insensitive
+     * @return The matching identifiers, in sorted order
+     */
+    @NotNull
+    public Result search(@NotNull String query) {
+        if (query == null)
+            throw new NullPointerException("Query cannot be null");
+
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return all();
+        }
+        return cache.computeIfAbsent(normalized, key -> key.indexOf(':') >= 0 ? prefix(key)
+                : contains(key));
+    }
+
+    @NotNull
+    private Result prefix(@NotNull String prefix) {
+        return new Result(this, lowerBound(prefix), lowerBound(prefix + Character.MAX_VALUE),
+                null);
+    }
+
+    @NotNull
+    private Result contains(@NotNull String query) {
+        IntArrayList matches = new IntArrayList();
+        if (query.length() < 3) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].contains(query)) {
+                    matches.add(i);
+                }
+            }
+            return new Result(this, 0, matches.size(), matches.toIntArray());
+        }
+
+        int[] candidates = null;
+        for (int c = 0; c + 3 <= query.length(); c++) {
+            int[] posting = trigrams.get(trigram(query, c));
+            if (posting == null) {
+                return new Result(this, 0, 0, null);
+            }
+            if (candidates == null || posting.length < candidates.length) {
+                candidates = posting;
+            }
+        }
+
+        for (int candidate : candidates) {
+            if (names[candidate].contains(query)) {
+                matches.add(candidate);
+            }
+        }
+        return new Result(this, 0, matches.size(), matches.toIntArray());
+    }
+
+    private int lowerBound(@NotNull String key) {
+        int index = Arrays.binarySearch(names, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static long trigram(@NotNull String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    /**
+     * Identifiers matching a query, in sorted order.
+     */
+    public static final class Result {
+        private final RegistryIndex index;
+        private final int from;
+        private final int to;
+        @Nullable
+        private final int[] matches;
+
+        private Result(@NotNull RegistryIndex index, int from, int to, @Nullable int[] matches) {
+            this.index = index;
+            this.from = from;
+            this.to = to;
+            this.matches = matches;
+        }
+
+        /**
+         * Gets the number of matches.
+         */
+        public int size() {
+            return to - from;
+        }
+
+        /**
+         * Checks whether nothing matched.
+         */
+        public boolean isEmpty() {
+            return from == to;
+        }
+
+        /**
+         * Gets a match.
+         *
+         * @param i The position among the matches
+         * @return The identifier
+         */
+        @NotNull
+        public Identifier get(int i) {
+            if (i < 0 || i >= size())
+                throw new IndexOutOfBoundsException("Index " + i + " out of " + size());
+
+            return index.ids[matches == null ? from + i : matches[from + i]];
+        }
+
+        /**
+         * Gets the number of pages.
+         *
+         * @param pageSize The matches per page
+         * @return The page count, at least 1
+         */
+        public int pageCount(int pageSize) {
+            if (pageSize <= 0)
+                throw new IllegalArgumentException("Page size must be positive");
+
+            return Math.max(1, (size() + pageSize - 1) / pageSize);
+        }
+
+        /**
+         * Gets one page of matches.
+         *
+         * @param page The page, starting at 0
+         * @param pageSize The matches per page
+         * @return The matches on the page, empty past the last page
+         */
+        @NotNull
+        public List<Identifier> page(int page, int pageSize) {
+            if (pageSize <= 0)
+                throw new IllegalArgumentException("Page size must be positive");
+
+            int start = Math.max(0, page) * pageSize;
+            int end = Math.min(size(), start + pageSize);
+            List<Identifier> result = new ArrayList<>(Math.max(0, end - start));
+            for (int i = start; i < end; i++) {
+                result.add(get(i));
+            }
+            return result;
+        }
+    }
+}
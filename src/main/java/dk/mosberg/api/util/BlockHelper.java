@@ -1,18 +1,43 @@
 package dk.mosberg.api.util;
 
+import java.util.Arrays;
+import java.util.function.Predicate;
 import org.jetbrains.annotations.Nullable;
+import dk.mosberg.api.edit.BlockEdit;
+import dk.mosberg.api.edit.BlockEditEngine;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
 import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldAccess;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
 
 /**
  * Utility class providing helper methods for Block operations
+ *
+ * <p>
+ * Besides single-position wrappers, the helper offers region operations that look up each chunk
+ * section once and walk it with plain coordinates: reading a box into a raw state id buffer,
+ * counting matching states, and writing a box with one neighbor update pass over its outside.
+ *
+ * <p>
+ * For per-tick loops, reads also take plain coordinates, and the {@code forEachIn...} methods
+ * walk boxes, spheres, cylinders, shells and spirals through a single reused
+ * {@link BlockPos.Mutable}, so no position objects are allocated per block.
  */
 public class BlockHelper {
+    /**
+     * Raw state id stored by {@link #getBlockStateIds} for positions in unloaded chunks or outside
+     * the world's height.
+     */
+    public static final int UNLOADED_ID = -1;
 
     /**
      * Safely gets a BlockState at the specified position
@@ -21,6 +46,20 @@ public class BlockHelper {
         return world.getBlockState(pos);
     }
 
+    /**
+     * Gets the BlockState at the specified coordinates without allocating a position. Coordinates
+     * outside the world's height read as void air.
+     */
+    public BlockState getBlockState(World world, int x, int y, int z) {
+        if (world.isOutOfHeightLimit(y)) {
+            return Blocks.VOID_AIR.getDefaultState();
+        }
+
+        WorldChunk chunk = world.getChunk(ChunkSectionPos.getSectionCoord(x),
+                ChunkSectionPos.getSectionCoord(z));
+        return chunk.getSection(chunk.getSectionIndex(y)).getBlockState(x & 15, y & 15, z & 15);
+    }
+
     /**
      * Sets a BlockState at the specified position with default update flags
      */
@@ -42,6 +81,13 @@ public class BlockHelper {
         return world.getBlockState(pos).isAir();
     }
 
+    /**
+     * Checks if the block at the specified coordinates is air
+     */
+    public boolean isAir(World world, int x, int y, int z) {
+        return getBlockState(world, x, y, z).isAir();
+    }
+
     /**
      * Gets the Block at the specified position
      */
@@ -49,6 +95,13 @@ public class BlockHelper {
         return world.getBlockState(pos).getBlock();
     }
 
+    /**
+     * Gets the Block at the specified coordinates
+     */
+    public Block getBlock(World world, int x, int y, int z) {
+        return getBlockState(world, x, y, z).getBlock();
+    }
+
     /**
      * Checks if two positions have the same block type
      */
@@ -132,4 +185,400 @@ public class BlockHelper {
     public float getHardness(World world, BlockPos pos) {
         return world.getBlockState(pos).getHardness(world, pos);
     }
+
+    /**
+     * Visits every position in a box, ordered by y, then z, then x.
+     *
+     * @param visitor Receives the reused position; return false to stop
+     * @return Whether every position was visited
+     */
+    public boolean forEachInBox(int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+            PositionVisitor visitor) {
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    if (!visitor.visit(pos.set(x, y, z))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visits every position in a box, ordered by y, then z, then x.
+     */
+    public boolean forEachInBox(BlockBox box, PositionVisitor visitor) {
+        return forEachInBox(box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(),
+                box.getMaxY(), box.getMaxZ(), visitor);
+    }
+
+    /**
+     * Visits every position within a radius of a center, bottom layer first. Row bounds are
+     * computed per row rather than by testing every position of the enclosing cube.
+     *
+     * @param visitor Receives the reused position; return false to stop
+     * @return Whether every position was visited
+     */
+    public boolean forEachInSphere(int centerX, int centerY, int centerZ, int radius,
+            PositionVisitor visitor) {
+        return forEachInShell(centerX, centerY, centerZ, radius, radius + 1, visitor);
+    }
+
+    /**
+     * Visits the positions within a radius of a center but further than one less than the radius,
+     * forming a hollow sphere one block thick.
+     *
+     * @param visitor Receives the reused position; return false to stop
+     * @return Whether every position was visited
+     */
+    public boolean forEachInShell(int centerX, int centerY, int centerZ, int radius,
+            PositionVisitor visitor) {
+        return forEachInShell(centerX, centerY, centerZ, radius, 1, visitor);
+    }
+
+    /**
+     * Visits every position of an upright cylinder, bottom layer first.
+     *
+     * @param centerX The x coordinate of the axis
+     * @param bottomY The lowest layer
+     * @param centerZ The z coordinate of the axis
+     * @param radius The radius of each layer
+     * @param height The number of layers
+     * @param visitor Receives the reused position; return false to stop
+     * @return Whether every position was visited
+     */
+    public boolean forEachInCylinder(int centerX, int bottomY, int centerZ, int radius, int height,
+            PositionVisitor visitor) {
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        long radiusSquared = (long) radius * radius;
+        for (int y = bottomY; y < bottomY + height; y++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                int reach = floorSqrt(radiusSquared - (long) dz * dz);
+                for (int x = centerX - reach; x <= centerX + reach; x++) {
+                    if (!visitor.visit(pos.set(x, y, centerZ + dz))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visits the positions of a horizontal square around a center, ring by ring outwards, so
+     * nearer positions come first. Useful for finding the nearest match.
+     *
+     * @param radius The number of rings around the center
+     * @param visitor Receives the reused position; return false to stop
+     * @return Whether every position was visited
+     */
+    public boolean forEachInSpiral(int centerX, int y, int centerZ, int radius,
+            PositionVisitor visitor) {
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        if (!visitor.visit(pos.set(centerX, y, centerZ))) {
+            return false;
+        }
+
+        for (int ring = 1; ring <= radius; ring++) {
+            for (int x = centerX - ring; x <= centerX + ring; x++) {
+                if (!visitor.visit(pos.set(x, y, centerZ - ring))
+                        || !visitor.visit(pos.set(x, y, centerZ + ring))) {
+                    return false;
+                }
+            }
+            for (int z = centerZ - ring + 1; z < centerZ + ring; z++) {
+                if (!visitor.visit(pos.set(centerX - ring, y, z))
+                        || !visitor.visit(pos.set(centerX + ring, y, z))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean forEachInShell(int centerX, int centerY, int centerZ, int radius,
+            int thickness, PositionVisitor visitor) {
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        long outerSquared = (long) radius * radius;
+        long inner = radius - thickness;
+        long innerSquared = inner < 0 ? -1 : inner * inner;
+        for (int dy = -radius; dy <= radius; dy++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                long rest = (long) dy * dy + (long) dz * dz;
+                if (rest > outerSquared) {
+                    continue;
+                }
+
+                int reach = floorSqrt(outerSquared - rest);
+                int hole = rest <= innerSquared ? floorSqrt(innerSquared - rest) : -1;
+                for (int dx = -reach; dx <= reach; dx++) {
+                    if (dx >= -hole && dx <= hole) {
+                        dx = hole;
+                        continue;
+                    }
+                    if (!visitor.visit(pos.set(centerX + dx, centerY + dy, centerZ + dz))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int floorSqrt(long value) {
+        int root = (int) Math.sqrt(value);
+        while ((long) root * root > value) {
+            root--;
+        }
+        while ((long) (root + 1) * (root + 1) <= value) {
+            root++;
+        }
+        return root;
+    }
+
+    /**
+     * Gets the index of a position in a buffer filled by {@link #getBlockStateIds}, which is
+     * ordered by y, then z, then x.
+     */
+    public int getBufferIndex(BlockBox box, int x, int y, int z) {
+        return ((y - box.getMinY()) * box.getBlockCountZ() + z - box.getMinZ())
+                * box.getBlockCountX() + x - box.getMinX();
+    }
+
+    /**
+     * Reads the raw state ids of a box into a buffer, ordered by y, then z, then x. Positions in
+     * unloaded chunks or outside the world's height read as {@link #UNLOADED_ID}. Ids convert back
+     * with {@link Block#getStateFromRawId(int)}.
+     *
+     * @param world The world
+     * @param box The box to read
+     * @param buffer A buffer to reuse, or null; a new one is allocated if it is too small
+     * @return The buffer holding the ids
+     */
+    public int[] getBlockStateIds(World world, BlockBox box, @Nullable int[] buffer) {
+        long volume = (long) box.getBlockCountX() * box.getBlockCountY() * box.getBlockCountZ();
+        if (volume > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Region too large to read: " + volume + " blocks");
+        }
+
+        int[] ids = buffer != null && buffer.length >= volume ? buffer : new int[(int) volume];
+        Arrays.fill(ids, 0, (int) volume, UNLOADED_ID);
+        int airId = Block.getRawIdFromState(Blocks.AIR.getDefaultState());
+        forEachSection(world, box, (section, x0, y0, z0, x1, y1, z1) -> {
+            boolean empty = section.isEmpty();
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    int row = getBufferIndex(box, 0, y, z);
+                    for (int x = x0; x <= x1; x++) {
+                        ids[row + x] = empty ? airId
+                                : Block.getRawIdFromState(
+                                        section.getBlockState(x & 15, y & 15, z & 15));
+                    }
+                }
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Counts the positions in a box whose state matches, in loaded chunks. Sections whose palette
+     * holds no matching state are skipped, and sections fully inside the box are counted from
+     * their palette entries rather than position by position.
+     *
+     * @param world The world
+     * @param box The box to search
+     * @param predicate Matches the states to count
+     * @return The number of matching positions
+     */
+    public long countBlockStates(World world, BlockBox box, Predicate<BlockState> predicate) {
+        long[] count = new long[1];
+        forEachSection(world, box, (section, x0, y0, z0, x1, y1, z1) -> {
+            if (!section.hasAny(predicate)) {
+                return;
+            }
+
+            if (x1 - x0 == 15 && y1 - y0 == 15 && z1 - z0 == 15) {
+                section.getBlockStateContainer().count((state, n) -> {
+                    if (predicate.test(state)) {
+                        count[0] += n;
+                    }
+                });
+                return;
+            }
+
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    for (int x = x0; x <= x1; x++) {
+                        if (predicate.test(section.getBlockState(x & 15, y & 15, z & 15))) {
+                            count[0]++;
+                        }
+                    }
+                }
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Fills a box with a state in loaded chunks, writing section palettes directly. If the flags
+     * include {@link Block#NOTIFY_NEIGHBORS}, the blocks around the box receive one neighbor
+     * update each afterwards; positions inside the box get no neighbor or shape updates. Clients
+     * are always synced, so {@link Block#NOTIFY_LISTENERS} is accepted but changes nothing.
+     *
+     * @param world The world
+     * @param box The box to fill
+     * @param state The state to place
+     * @param flags The update flags; only {@link Block#NOTIFY_ALL} bits are supported
+     * @return The number of positions whose state changed
+     * @throws IllegalArgumentException if the flags include any other bit
+     */
+    public long setBlockStates(ServerWorld world, BlockBox box, BlockState state, int flags) {
+        checkBulkFlags(flags);
+        long changed = BlockEditEngine.apply(world, BlockEdit.fill(box, state)).getChangedBlocks();
+        if (changed > 0 && (flags & Block.NOTIFY_NEIGHBORS) != 0) {
+            updateNeighborsAround(world, box, (x, y, z) -> state.getBlock());
+        }
+        return changed;
+    }
+
+    /**
+     * Writes raw state ids, as read by {@link #getBlockStateIds}, back into a box in loaded
+     * chunks. Positions holding {@link #UNLOADED_ID} are left unchanged. Updates work as in
+     * {@link #setBlockStates(ServerWorld, BlockBox, BlockState, int)}.
+     *
+     * @param world The world
+     * @param box The box the ids belong to
+     * @param ids The ids, ordered by y, then z, then x
+     * @param flags The update flags; only {@link Block#NOTIFY_ALL} bits are supported
+     * @return The number of positions whose state changed
+     * @throws IllegalArgumentException if the flags include any other bit
+     */
+    public long setBlockStates(ServerWorld world, BlockBox box, int[] ids, int flags) {
+        checkBulkFlags(flags);
+        BlockEdit edit = new BlockEdit() {
+            @Override
+            public BlockBox getBounds() {
+                return box;
+            }
+
+            @Override
+            @Nullable
+            public BlockState getState(int x, int y, int z) {
+                int id = ids[getBufferIndex(box, x, y, z)];
+                return id == UNLOADED_ID ? null : Block.getStateFromRawId(id);
+            }
+        };
+
+        long changed = BlockEditEngine.apply(world, edit).getChangedBlocks();
+        if (changed > 0 && (flags & Block.NOTIFY_NEIGHBORS) != 0) {
+            updateNeighborsAround(world, box, (x, y, z) -> {
+                int id = ids[getBufferIndex(box, x, y, z)];
+                return id == UNLOADED_ID ? null : Block.getStateFromRawId(id).getBlock();
+            });
+        }
+        return changed;
+    }
+
+    private static void checkBulkFlags(int flags) {
+        if ((flags & ~Block.NOTIFY_ALL) != 0) {
+            throw new IllegalArgumentException("Unsupported update flags for a bulk write: "
+                    + flags);
+        }
+    }
+
+    private void updateNeighborsAround(World world, BlockBox box, SourceBlock source) {
+        for (Direction direction : Direction.values()) {
+            int minX = direction == Direction.EAST ? box.getMaxX() : box.getMinX();
+            int maxX = direction == Direction.WEST ? box.getMinX() : box.getMaxX();
+            int minY = direction == Direction.UP ? box.getMaxY() : box.getMinY();
+            int maxY = direction == Direction.DOWN ? box.getMinY() : box.getMaxY();
+            int minZ = direction == Direction.SOUTH ? box.getMaxZ() : box.getMinZ();
+            int maxZ = direction == Direction.NORTH ? box.getMinZ() : box.getMaxZ();
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    int neighborY = y + direction.getOffsetY();
+                    if (world.isOutOfHeightLimit(neighborY)) {
+                        continue;
+                    }
+                    for (int x = minX; x <= maxX; x++) {
+                        Block block = source.get(x, y, z);
+                        if (block == null) {
+                            continue;
+                        }
+                        // Neighbor updates may be queued, so each needs its own position
+                        BlockPos neighbor = new BlockPos(x + direction.getOffsetX(), neighborY,
+                                z + direction.getOffsetZ());
+                        if (world.isInBuildLimit(neighbor)) {
+                            world.updateNeighbor(neighbor, block, null);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void forEachSection(World world, BlockBox box, SectionVisitor visitor) {
+        int minY = Math.max(box.getMinY(), world.getBottomY());
+        int maxY = Math.min(box.getMaxY(), world.getTopYInclusive());
+        if (minY > maxY) {
+            return;
+        }
+
+        int maxChunkX = ChunkSectionPos.getSectionCoord(box.getMaxX());
+        int maxChunkZ = ChunkSectionPos.getSectionCoord(box.getMaxZ());
+        int maxSectionY = ChunkSectionPos.getSectionCoord(maxY);
+        for (int chunkX = ChunkSectionPos.getSectionCoord(box.getMinX()); chunkX <= maxChunkX;
+                chunkX++) {
+            for (int chunkZ = ChunkSectionPos.getSectionCoord(box.getMinZ()); chunkZ <= maxChunkZ;
+                    chunkZ++) {
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    continue;
+                }
+
+                int x0 = Math.max(box.getMinX(), ChunkSectionPos.getBlockCoord(chunkX));
+                int x1 = Math.min(box.getMaxX(), ChunkSectionPos.getBlockCoord(chunkX) + 15);
+                int z0 = Math.max(box.getMinZ(), ChunkSectionPos.getBlockCoord(chunkZ));
+                int z1 = Math.min(box.getMaxZ(), ChunkSectionPos.getBlockCoord(chunkZ) + 15);
+                for (int sectionY = ChunkSectionPos.getSectionCoord(minY);
+                        sectionY <= maxSectionY; sectionY++) {
+                    int y0 = Math.max(minY, ChunkSectionPos.getBlockCoord(sectionY));
+                    int y1 = Math.min(maxY, ChunkSectionPos.getBlockCoord(sectionY) + 15);
+                    visitor.visit(chunk.getSection(chunk.sectionCoordToIndex(sectionY)), x0, y0,
+                            z0, x1, y1, z1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives positions from the {@code forEachIn...} methods. The position is reused for every
+     * call, so it must be copied with {@link BlockPos#toImmutable()} to be kept.
+     */
+    @FunctionalInterface
+    public interface PositionVisitor {
+        /**
+         * Visits one position.
+         *
+         * @param pos The reused position
+         * @return Whether to continue with the next position
+         */
+        boolean visit(BlockPos.Mutable pos);
+    }
+
+    @FunctionalInterface
+    private interface SectionVisitor {
+        void visit(ChunkSection section, int minX, int minY, int minZ, int maxX, int maxY,
+                int maxZ);
+    }
+
+    @FunctionalInterface
+    private interface SourceBlock {
+        // Null when the position was left unchanged and its neighbors need no update
+        @Nullable
+        Block get(int x, int y, int z);
+    }
 }
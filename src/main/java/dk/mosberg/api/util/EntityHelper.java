@@ -1,16 +1,21 @@
 package dk.mosberg.api.util;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 import org.jetbrains.annotations.Nullable;
+import dk.mosberg.api.entity.EntityCensus;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
+import net.minecraft.entity.EntityPredicates;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.SpawnReason;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.TypeFilter;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 
@@ -18,6 +23,8 @@ import net.minecraft.world.World;
  * Utility class providing helper methods for Entity operations
  */
 public class EntityHelper {
+    private static final TypeFilter<Entity, Entity> ANY_ENTITY =
+            TypeFilter.instanceOf(Entity.class);
 
     /**
      * Spawns an entity at the specified position
@@ -107,8 +114,7 @@ public class EntityHelper {
      * Gets entities within a radius of a position
      */
     public List<Entity> getEntitiesInRadius(World world, Vec3d center, double radius) {
-        return world.getOtherEntities(null,
-                net.minecraft.util.math.Box.of(center, radius * 2, radius * 2, radius * 2));
+        return world.getOtherEntities(null, Box.of(center, radius * 2, radius * 2, radius * 2));
     }
 
     /**
@@ -116,11 +122,103 @@ public class EntityHelper {
      */
     public List<Entity> getEntitiesInRadius(World world, Vec3d center, double radius,
             Predicate<Entity> predicate) {
-        return world.getOtherEntities(null,
-                net.minecraft.util.math.Box.of(center, radius * 2, radius * 2, radius * 2),
+        return world.getOtherEntities(null, Box.of(center, radius * 2, radius * 2, radius * 2),
                 predicate);
     }
 
+    /**
+     * Gets entities inside a box. Only the entity sections the box overlaps are visited, and a
+     * type filter skips sections holding no entity of that class.
+     *
+     * @param limit The maximum number of entities to return
+     */
+    public <T extends Entity> List<T> getEntitiesInBox(World world, Box box,
+            TypeFilter<Entity, T> filter, Predicate<? super T> predicate, int limit) {
+        List<T> result = new ArrayList<>();
+        world.collectEntitiesByType(filter, box, predicate, result, limit);
+        return result;
+    }
+
+    /**
+     * Gets entities of a type inside a box, or of any type when the type is null
+     */
+    public List<? extends Entity> getEntitiesInBox(World world, Box box,
+            @Nullable EntityType<?> type, int limit) {
+        return getEntitiesInBox(world, box, filterFor(type), EntityPredicates.EXCEPT_SPECTATOR,
+                limit);
+    }
+
+    /**
+     * Gets entities of a type within a spherical radius of a position, or of any type when the
+     * type is null. Only the entity sections overlapping the sphere's bounding box are visited.
+     *
+     * @param limit The maximum number of entities to return
+     */
+    public List<? extends Entity> getEntitiesInRadius(World world, Vec3d center, double radius,
+            @Nullable EntityType<?> type, int limit) {
+        double squaredRadius = radius * radius;
+        return getEntitiesInBox(world, Box.of(center, radius * 2, radius * 2, radius * 2),
+                filterFor(type), entity -> !entity.isSpectator()
+                        && entity.squaredDistanceTo(center) <= squaredRadius,
+                limit);
+    }
+
+    /**
+     * Counts entities of a type inside a box, or of any type when the type is null, without
+     * building a list
+     */
+    public int countEntitiesInBox(World world, Box box, @Nullable EntityType<?> type) {
+        int[] count = new int[1];
+        world.collectEntitiesByType(filterFor(type), box, entity -> {
+            if (!entity.isSpectator()) {
+                count[0]++;
+            }
+            return false;
+        }, new ArrayList<>(0), Integer.MAX_VALUE);
+        return count[0];
+    }
+
+    /**
+     * Counts entities of a type within a spherical radius of a position, or of any type when the
+     * type is null, without building a list
+     */
+    public int countEntitiesInRadius(World world, Vec3d center, double radius,
+            @Nullable EntityType<?> type) {
+        double squaredRadius = radius * radius;
+        int[] count = new int[1];
+        world.collectEntitiesByType(filterFor(type),
+                Box.of(center, radius * 2, radius * 2, radius * 2), entity -> {
+                    if (!entity.isSpectator()
+                            && entity.squaredDistanceTo(center) <= squaredRadius) {
+                        count[0]++;
+                    }
+                    return false;
+                }, new ArrayList<>(0), Integer.MAX_VALUE);
+        return count[0];
+    }
+
+    /**
+     * Gets the number of entities of a type a server world is tracking, from the live
+     * {@link EntityCensus} instead of a world scan
+     */
+    public int countEntities(ServerWorld world, EntityType<?> type) {
+        return EntityCensus.getCount(world, type);
+    }
+
+    /**
+     * Gets the number of entities a server world is tracking, from the live
+     * {@link EntityCensus} instead of a world scan
+     */
+    public int countEntities(ServerWorld world) {
+        return EntityCensus.getTotal(world);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypeFilter<Entity, Entity> filterFor(@Nullable EntityType<?> type) {
+        return type == null ? ANY_ENTITY
+                : (TypeFilter<Entity, Entity>) (TypeFilter<Entity, ?>) type;
+    }
+
     /**
      * Gets the nearest player to an entity
      */
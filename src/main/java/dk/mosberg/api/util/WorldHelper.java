@@ -3,6 +3,7 @@ package dk.mosberg.api.util;
 import java.util.List;
 import java.util.Random;
 import org.jetbrains.annotations.Nullable;
+import dk.mosberg.api.world.ColumnCache;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.registry.RegistryKey;
@@ -17,6 +18,10 @@ import net.minecraft.world.WorldProperties.SpawnPoint;
 
 /**
  * Utility class providing helper methods for World operations
+ *
+ * <p>
+ * Column height and sky visibility queries on server worlds are answered from the
+ * {@link ColumnCache}, which also offers a batched read of a whole chunk's heights.
  */
 public class WorldHelper {
 
@@ -181,25 +186,75 @@ public class WorldHelper {
         return new BlockPos(x, y, z);
     }
 
+    /**
+     * Moves a reused position to a random position within a radius of the given coordinates
+     *
+     * @return The given position, for chaining
+     */
+    public BlockPos.Mutable getRandomPos(Random random, int centerX, int centerY, int centerZ,
+            int radius, BlockPos.Mutable out) {
+        return out.set(centerX + random.nextInt(radius * 2 + 1) - radius,
+                centerY + random.nextInt(radius * 2 + 1) - radius,
+                centerZ + random.nextInt(radius * 2 + 1) - radius);
+    }
+
     /**
      * Finds the highest non-air block at X/Z coordinates
      */
     public BlockPos getTopPosition(World world, BlockPos pos) {
-        return world.getTopPosition(Heightmap.Type.MOTION_BLOCKING, pos);
+        return new BlockPos(pos.getX(), getTopY(world, pos.getX(), pos.getZ()), pos.getZ());
+    }
+
+    /**
+     * Moves a reused position to the position above the highest motion-blocking block at X/Z
+     * coordinates
+     *
+     * @return The given position, for chaining
+     */
+    public BlockPos.Mutable getTopPosition(World world, int x, int z, BlockPos.Mutable out) {
+        return out.set(x, getTopY(world, x, z), z);
     }
 
     /**
      * Gets the Y coordinate of the topmost block at X/Z coordinates with specific heightmap
      */
     public int getTopY(World world, Heightmap.Type heightmap, BlockPos pos) {
-        return world.getTopY(heightmap, pos.getX(), pos.getZ());
+        return getTopY(world, heightmap, pos.getX(), pos.getZ());
     }
 
     /**
      * Gets the Y coordinate of the topmost block at X/Z coordinates
      */
     public int getTopY(World world, BlockPos pos) {
-        return world.getTopY(Heightmap.Type.MOTION_BLOCKING, pos.getX(), pos.getZ());
+        return getTopY(world, Heightmap.Type.MOTION_BLOCKING, pos.getX(), pos.getZ());
+    }
+
+    /**
+     * Gets the Y coordinate of the topmost block at X/Z coordinates with specific heightmap
+     */
+    public int getTopY(World world, Heightmap.Type heightmap, int x, int z) {
+        if (world instanceof ServerWorld serverWorld) {
+            return ColumnCache.getTopY(serverWorld, heightmap, x, z);
+        }
+        return world.getTopY(heightmap, x, z);
+    }
+
+    /**
+     * Gets the Y coordinate of the topmost block at X/Z coordinates
+     */
+    public int getTopY(World world, int x, int z) {
+        return getTopY(world, Heightmap.Type.MOTION_BLOCKING, x, z);
+    }
+
+    /**
+     * Gets the Y coordinate of the topmost block for every column of a loaded chunk with one chunk
+     * lookup, at index {@code localZ << 4 | localX}
+     *
+     * @return Whether the chunk is loaded; if not, {@code out} is left untouched
+     */
+    public boolean getTopY(ServerWorld world, Heightmap.Type heightmap, int chunkX, int chunkZ,
+            int[] out) {
+        return ColumnCache.getTopY(world, heightmap, chunkX, chunkZ, out);
     }
 
     /**
@@ -213,9 +268,22 @@ public class WorldHelper {
      * Checks if a position has skylight access
      */
     public boolean canSeeSky(World world, BlockPos pos) {
+        if (world instanceof ServerWorld serverWorld) {
+            return ColumnCache.isSkyVisible(serverWorld, pos.getX(), pos.getY(), pos.getZ());
+        }
         return world.isSkyVisible(pos);
     }
 
+    /**
+     * Checks if the given coordinates have skylight access
+     */
+    public boolean canSeeSky(World world, int x, int y, int z) {
+        if (world instanceof ServerWorld serverWorld) {
+            return ColumnCache.isSkyVisible(serverWorld, x, y, z);
+        }
+        return world.isSkyVisible(new BlockPos(x, y, z));
+    }
+
     /**
      * Gets the biome at a position
      */
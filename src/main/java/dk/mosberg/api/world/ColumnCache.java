@@ -0,0 +1,270 @@
+package dk.mosberg.api.world;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Per-chunk cache of column heights and sky visibility for loaded chunks.
+ *
+ * <p>
+ * Each loaded chunk that has been queried gets one entry holding, per column, the top Y of every
+ * heightmap type asked for and the lowest Y that sees the sky. Columns are filled on first use and
+ * reset when a block in them changes, through {@code WorldChunk.setBlockState} or a bulk edit, and
+ * the entry is dropped when the chunk unloads. Repeated queries then skip the chunk lookup, and
+ * {@link #getTopY(ServerWorld, Heightmap.Type, int, int, int[])} reads a whole chunk's columns
+ * with a single lookup. Sky visibility is answered from the chunk's sky light sources, so it
+ * follows block changes at once rather than when the light engine catches up.
+ *
+ * <p>
+ * Unloaded chunks are never loaded or cached; those queries fall through to the world. All
+ * methods must be called on the server thread; calls from other threads fall through as well.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * int[] tops = new int[256];
+ * if (ColumnCache.getTopY(world, Heightmap.Type.MOTION_BLOCKING, chunkX, chunkZ, tops)) {
+ *     int surface = tops[(z & 15) << 4 | (x & 15)];
+ * }
+ * boolean exposed = ColumnCache.isSkyVisible(world, x, y, z);
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class ColumnCache {
+    /**
+     * Number of columns in a chunk, and the length of a batched read's buffer.
+     */
+    public static final int COLUMNS = 256;
+
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+    private static final Heightmap.Type[] TYPES = Heightmap.Type.values();
+    private static final Map<RegistryKey<World>, Long2ObjectOpenHashMap<Columns>> WORLDS =
+            new HashMap<>();
+
+    private ColumnCache() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Drops cached chunks as they and their worlds unload.
+     */
+    public static void initialize() {
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            Long2ObjectOpenHashMap<Columns> chunks = WORLDS.get(world.getRegistryKey());
+            if (chunks != null) {
+                chunks.remove(chunk.getPos().toLong());
+            }
+        });
+        ServerWorldEvents.UNLOAD.register((server, world) -> WORLDS.remove(world.getRegistryKey()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> WORLDS.clear());
+    }
+
+    /**
+     * Gets the Y above the topmost block of a heightmap type in a column, as
+     * {@link World#getTopY(Heightmap.Type, int, int)} does.
+     *
+     * @param world The world
+     * @param type The heightmap type
+     * @param x The column's x coordinate
+     * @param z The column's z coordinate
+     * @return The top Y
+     */
+    public static int getTopY(@NotNull ServerWorld world, @NotNull Heightmap.Type type, int x,
+            int z) {
+        if (type == null)
+            throw new NullPointerException("Heightmap type cannot be null");
+
+        Columns columns = columns(world, ChunkSectionPos.getSectionCoord(x),
+                ChunkSectionPos.getSectionCoord(z));
+        if (columns == null) {
+            return world.getTopY(type, x, z);
+        }
+        return columns.topY(type, index(x, z));
+    }
+
+    /**
+     * Reads the top Y of a heightmap type for every column of a chunk with one chunk lookup.
+     *
+     * @param world The world
+     * @param type The heightmap type
+     * @param chunkX The chunk's x coordinate
+     * @param chunkZ The chunk's z coordinate
+     * @param out Receives the top Y of each column at index {@code localZ << 4 | localX}; must
+     *        hold at least {@value #COLUMNS} values
+     * @return Whether the chunk is loaded; if not, {@code out} is left untouched
+     */
+    public static boolean getTopY(@NotNull ServerWorld world, @NotNull Heightmap.Type type,
+            int chunkX, int chunkZ, @NotNull int[] out) {
+        if (type == null)
+            throw new NullPointerException("Heightmap type cannot be null");
+        if (out == null)
+            throw new NullPointerException("Out cannot be null");
+        if (out.length < COLUMNS)
+            throw new IllegalArgumentException("Out must hold at least " + COLUMNS + " values");
+
+        Columns columns = columns(world, chunkX, chunkZ);
+        if (columns == null) {
+            return false;
+        }
+
+        for (int i = 0; i < COLUMNS; i++) {
+            out[i] = columns.topY(type, i);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a position has an unobstructed view of the sky, as
+     * {@link World#isSkyVisible(BlockPos)} does once lighting is up to date.
+     *
+     * @param world The world
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param z The z coordinate
+     * @return Whether the position sees the sky
+     */
+    public static boolean isSkyVisible(@NotNull ServerWorld world, int x, int y, int z) {
+        Columns columns = columns(world, ChunkSectionPos.getSectionCoord(x),
+                ChunkSectionPos.getSectionCoord(z));
+        if (columns == null) {
+            return world.isSkyVisible(new BlockPos(x, y, z));
+        }
+        if (!world.getDimension().hasSkyLight()) {
+            return false;
+        }
+        return y >= columns.skyY(index(x, z));
+    }
+
+    /**
+     * Resets the cached values of one column after a block in it changed.
+     *
+     * @param world The world
+     * @param x The column's x coordinate
+     * @param z The column's z coordinate
+     */
+    public static void invalidate(@NotNull ServerWorld world, int x, int z) {
+        Columns columns = cached(world, ChunkSectionPos.getSectionCoord(x),
+                ChunkSectionPos.getSectionCoord(z));
+        if (columns != null) {
+            columns.reset(index(x, z));
+        }
+    }
+
+    /**
+     * Drops the cached values of a whole chunk after a bulk change.
+     *
+     * @param world The world
+     * @param chunkX The chunk's x coordinate
+     * @param chunkZ The chunk's z coordinate
+     */
+    public static void invalidateChunk(@NotNull ServerWorld world, int chunkX, int chunkZ) {
+        Long2ObjectOpenHashMap<Columns> chunks = WORLDS.get(world.getRegistryKey());
+        if (chunks != null) {
+            chunks.remove(ChunkPos.toLong(chunkX, chunkZ));
+        }
+    }
+
+    @Nullable
+    private static Columns cached(@NotNull ServerWorld world, int chunkX, int chunkZ) {
+        Long2ObjectOpenHashMap<Columns> chunks = WORLDS.get(world.getRegistryKey());
+        return chunks == null ? null : chunks.get(ChunkPos.toLong(chunkX, chunkZ));
+    }
+
+    @Nullable
+    private static Columns columns(@NotNull ServerWorld world, int chunkX, int chunkZ) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+        if (!world.getServer().isOnThread()) {
+            return null;
+        }
+
+        Long2ObjectOpenHashMap<Columns> chunks = WORLDS.computeIfAbsent(world.getRegistryKey(),
+                key -> new Long2ObjectOpenHashMap<>());
+        long key = ChunkPos.toLong(chunkX, chunkZ);
+        Columns columns = chunks.get(key);
+        if (columns == null) {
+            WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+            if (chunk == null) {
+                return null;
+            }
+            columns = new Columns(chunk);
+            chunks.put(key, columns);
+        }
+        return columns;
+    }
+
+    private static int index(int x, int z) {
+        return (z & 15) << 4 | (x & 15);
+    }
+
+    private static final class Columns {
+        private final WorldChunk chunk;
+        private final int[][] tops = new int[TYPES.length][];
+        private int[] skyY;
+
+        private Columns(@NotNull WorldChunk chunk) {
+            this.chunk = chunk;
+        }
+
+        private int topY(@NotNull Heightmap.Type type, int index) {
+            int[] values = tops[type.ordinal()];
+            if (values == null) {
+                values = tops[type.ordinal()] = unknown();
+            }
+
+            int value = values[index];
+            if (value == UNKNOWN) {
+                value = values[index] = chunk.sampleHeightmap(type, index & 15, index >> 4) + 1;
+            }
+            return value;
+        }
+
+        private int skyY(int index) {
+            if (skyY == null) {
+                skyY = unknown();
+            }
+
+            int value = skyY[index];
+            if (value == UNKNOWN) {
+                value = skyY[index] = chunk.getChunkSkyLight().get(index & 15, index >> 4);
+            }
+            return value;
+        }
+
+        private void reset(int index) {
+            for (int[] values : tops) {
+                if (values != null) {
+                    values[index] = UNKNOWN;
+                }
+            }
+            if (skyY != null) {
+                skyY[index] = UNKNOWN;
+            }
+        }
+
+        @NotNull
+        private static int[] unknown() {
+            int[] values = new int[COLUMNS];
+            Arrays.fill(values, UNKNOWN);
+            return values;
+        }
+    }
+}
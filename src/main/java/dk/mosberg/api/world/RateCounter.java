@@ -0,0 +1,58 @@
+package dk.mosberg.api.world;
+
+import java.util.Arrays;
+
+/**
+ * Event counter with per-second buckets over the last minute.
+ *
+ * <p>
+ * Each bucket is stamped with the second it counts, so buckets left over from an earlier minute
+ * are recognised and ignored without a sweep. Not thread-safe.
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class RateCounter {
+    static final int WINDOW_SECONDS = 60;
+
+    private final long[] counts = new long[WINDOW_SECONDS];
+    private final long[] stamps = new long[WINDOW_SECONDS];
+    private long total;
+
+    RateCounter() {
+        Arrays.fill(stamps, Long.MIN_VALUE);
+    }
+
+    void increment(long second) {
+        int slot = (int) Math.floorMod(second, WINDOW_SECONDS);
+        if (stamps[slot] != second) {
+            stamps[slot] = second;
+            counts[slot] = 0;
+        }
+        counts[slot]++;
+        total++;
+    }
+
+    /**
+     * Gets the average rate over the last complete seconds.
+     *
+     * @param second The current second
+     * @param window How many seconds to average, at most {@value #WINDOW_SECONDS} - 1
+     * @return Events per second
+     */
+    double perSecond(long second, int window) {
+        long sum = 0;
+        for (long s = second - window; s < second; s++) {
+            int slot = (int) Math.floorMod(s, WINDOW_SECONDS);
+            if (stamps[slot] == s) {
+                sum += counts[slot];
+            }
+        }
+        return (double) sum / window;
+    }
+
+    long getTotal() {
+        return total;
+    }
+}
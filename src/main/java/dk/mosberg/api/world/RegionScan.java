@@ -0,0 +1,246 @@
+package dk.mosberg.api.world;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import org.jetbrains.annotations.NotNull;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.ReadableContainer;
+
+/**
+ * Copied chunk sections of a region, ready to be matched off the server thread.
+ *
+ * <p>
+ * Created by {@link RegionScanner} on the server thread, a scan holds private copies of the
+ * paletted containers of every loaded section whose palette contains a matching value, so it can
+ * be run on any thread while the world keeps changing. Running it splits the sections across the
+ * common {@link ForkJoinPool} and merges the per-task counts.
+ *
+ * @param <T> The scanned value type, block states or biomes
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class RegionScan<T> {
+    private static final int SECTIONS_PER_TASK = 64;
+
+    private final BlockBox box;
+    private final Predicate<T> matcher;
+    private final List<Section<T>> sections;
+    private final int cellShift;
+    private final int sectionsSkipped;
+
+    RegionScan(@NotNull BlockBox box, @NotNull Predicate<T> matcher,
+            @NotNull List<Section<T>> sections, int cellShift, int sectionsSkipped) {
+        this.box = box;
+        this.matcher = matcher;
+        this.sections = sections;
+        this.cellShift = cellShift;
+        this.sectionsSkipped = sectionsSkipped;
+    }
+
+    /**
+     * Gets the number of copied sections whose palette contains a match.
+     */
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    /**
+     * Gets the number of loaded sections skipped because their palette has no match.
+     */
+    public int getSectionsSkipped() {
+        return sectionsSkipped;
+    }
+
+    /**
+     * Matches every copied section, blocking until done.
+     *
+     * @param maxPositions The most match positions to keep; counts are always complete
+     * @param cancelled Checked between sections; the scan throws once it returns true
+     * @return The aggregated result
+     * @throws CancellationException if the scan was cancelled
+     */
+    @NotNull
+    public RegionScanResult<T> run(int maxPositions, @NotNull BooleanSupplier cancelled) {
+        if (cancelled == null)
+            throw new NullPointerException("Cancelled cannot be null");
+
+        Partial<T> partial = ForkJoinPool.commonPool()
+                .invoke(new ScanTask(0, sections.size(), Math.max(0, maxPositions), cancelled));
+        return partial.toResult(sections.size(), sectionsSkipped, maxPositions);
+    }
+
+    /**
+     * Matches every copied section on the common {@link ForkJoinPool}.
+     *
+     * @param server The server to complete the future on
+     * @param maxPositions The most match positions to keep
+     * @return A future completed on the server thread with the result
+     */
+    @NotNull
+    public CompletableFuture<RegionScanResult<T>> runAsync(@NotNull MinecraftServer server,
+            int maxPositions) {
+        if (server == null)
+            throw new NullPointerException("Server cannot be null");
+
+        CompletableFuture<RegionScanResult<T>> future = new CompletableFuture<>();
+        ForkJoinPool.commonPool().execute(() -> {
+            try {
+                RegionScanResult<T> result = run(maxPositions, () -> future.isDone());
+                server.execute(() -> future.complete(result));
+            } catch (RuntimeException e) {
+                server.execute(() -> future.completeExceptionally(e));
+            }
+        });
+        return future;
+    }
+
+    @NotNull
+    private Partial<T> scan(int from, int to, int maxPositions,
+            @NotNull BooleanSupplier cancelled) {
+        Partial<T> partial = new Partial<>();
+        int cells = 16 >> cellShift;
+        int cellSize = 1 << cellShift;
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int i = from; i < to; i++) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("Region scan was cancelled");
+            }
+
+            Section<T> section = sections.get(i);
+            long chunk = ChunkPos.toLong(section.chunkX(), section.chunkZ());
+            int baseX = section.chunkX() << 4;
+            int baseY = section.sectionY() << 4;
+            int baseZ = section.chunkZ() << 4;
+            for (int y = 0; y < cells; y++) {
+                for (int z = 0; z < cells; z++) {
+                    for (int x = 0; x < cells; x++) {
+                        pos.set(baseX + (x << cellShift), baseY + (y << cellShift),
+                                baseZ + (z << cellShift));
+                        if (!intersects(pos, cellSize)) {
+                            continue;
+                        }
+
+                        T value = section.container().get(x, y, z);
+                        if (!matcher.test(value)) {
+                            continue;
+                        }
+
+                        partial.matches++;
+                        partial.byValue.addTo(value, 1);
+                        partial.byChunk.addTo(chunk, 1);
+                        if (partial.positions.size() < maxPositions) {
+                            partial.positions.add(pos.toImmutable());
+                        }
+                    }
+                }
+            }
+        }
+        return partial;
+    }
+
+    private boolean intersects(@NotNull BlockPos cell, int size) {
+        return cell.getX() + size > box.getMinX() && cell.getX() <= box.getMaxX()
+                && cell.getY() + size > box.getMinY() && cell.getY() <= box.getMaxY()
+                && cell.getZ() + size > box.getMinZ() && cell.getZ() <= box.getMaxZ();
+    }
+
+    /**
+     * A copied section.
+     *
+     * @param <T> The value type
+     * @param chunkX The chunk x coordinate
+     * @param sectionY The section y coordinate
+     * @param chunkZ The chunk z coordinate
+     * @param container The private copy of the section's container
+     */
+    record Section<T>(int chunkX, int sectionY, int chunkZ,
+            @NotNull ReadableContainer<T> container) {
+    }
+
+    private final class ScanTask extends RecursiveTask<Partial<T>> {
+        private final int from;
+        private final int to;
+        private final int maxPositions;
+        private final BooleanSupplier cancelled;
+
+        private ScanTask(int from, int to, int maxPositions, @NotNull BooleanSupplier cancelled) {
+            this.from = from;
+            this.to = to;
+            this.maxPositions = maxPositions;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected Partial<T> compute() {
+            if (to - from <= SECTIONS_PER_TASK) {
+                return scan(from, to, maxPositions, cancelled);
+            }
+
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(from, middle, maxPositions, cancelled);
+            left.fork();
+            Partial<T> right = new ScanTask(middle, to, maxPositions, cancelled).compute();
+            return left.join().merge(right, maxPositions);
+        }
+    }
+
+    private static final class Partial<T> {
+        private final Object2LongOpenHashMap<T> byValue = new Object2LongOpenHashMap<>();
+        private final Long2LongOpenHashMap byChunk = new Long2LongOpenHashMap();
+        private final List<BlockPos> positions = new ArrayList<>();
+        private long matches;
+
+        @NotNull
+        private Partial<T> merge(@NotNull Partial<T> other, int maxPositions) {
+            matches += other.matches;
+            for (Object2LongMap.Entry<T> entry : other.byValue.object2LongEntrySet()) {
+                byValue.addTo(entry.getKey(), entry.getLongValue());
+            }
+            for (Long2LongMap.Entry entry : other.byChunk.long2LongEntrySet()) {
+                byChunk.addTo(entry.getLongKey(), entry.getLongValue());
+            }
+            for (int i = 0; i < other.positions.size() && positions.size() < maxPositions; i++) {
+                positions.add(other.positions.get(i));
+            }
+            return this;
+        }
+
+        @NotNull
+        private RegionScanResult<T> toResult(int sectionsScanned, int sectionsSkipped,
+                int maxPositions) {
+            List<RegionScanResult.ValueCount<T>> values = new ArrayList<>(byValue.size());
+            for (Object2LongMap.Entry<T> entry : byValue.object2LongEntrySet()) {
+                values.add(new RegionScanResult.ValueCount<>(entry.getKey(),
+                        entry.getLongValue()));
+            }
+            values.sort(Comparator.comparingLong(RegionScanResult.ValueCount<T>::count)
+                    .reversed());
+
+            List<RegionScanResult.ChunkCount> chunks = new ArrayList<>(byChunk.size());
+            for (Long2LongMap.Entry entry : byChunk.long2LongEntrySet()) {
+                chunks.add(new RegionScanResult.ChunkCount(new ChunkPos(entry.getLongKey()),
+                        entry.getLongValue()));
+            }
+            chunks.sort(Comparator.comparingLong(RegionScanResult.ChunkCount::count).reversed());
+
+            return new RegionScanResult<>(matches, sectionsScanned, sectionsSkipped,
+                    List.copyOf(values), List.copyOf(chunks), List.copyOf(positions),
+                    matches > positions.size() && positions.size() >= maxPositions);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package dk.mosberg.api.world;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Aggregated matches of a {@link RegionScan}.
+ *
+ * <p>
+ * For biome scans each match is one 4x4x4 biome cell, and positions are the cells' lowest corners.
+ *
+ * @param <T> The scanned value type
+ * @param matches The number of matching positions
+ * @param sectionsScanned Sections whose contents were matched
+ * @param sectionsSkipped Loaded sections skipped because their palette had no match
+ * @param values Matches per distinct value, most common first
+ * @param chunks Matches per chunk, most first
+ * @param positions Match positions, up to the requested maximum
+ * @param truncated Whether there were more matches than positions kept
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public record RegionScanResult<T>(long matches, int sectionsScanned, int sectionsSkipped,
+        @NotNull List<ValueCount<T>> values, @NotNull List<ChunkCount> chunks,
+        @NotNull List<BlockPos> positions, boolean truncated) {
+
+    /**
+     * Gets the average number of matches per chunk that has any.
+     *
+     * @return The average, 0 if nothing matched
+     */
+    public double averagePerChunk() {
+        return chunks.isEmpty() ? 0.0 : (double) matches / chunks.size();
+    }
+
+    /**
+     * Merges the per-value counts by a coarser key, such as the block of each block state.
+     *
+     * @param <K> The key type
+     * @param key Maps each value to its key
+     * @return Matches per key, most common first
+     */
+    @NotNull
+    public <K> List<ValueCount<K>> valuesBy(@NotNull Function<? super T, ? extends K> key) {
+        if (key == null)
+            throw new NullPointerException("Key cannot be null");
+
+        Object2LongOpenHashMap<K> counts = new Object2LongOpenHashMap<>();
+        for (ValueCount<T> value : values) {
+            counts.addTo(key.apply(value.value()), value.count());
+        }
+
+        List<ValueCount<K>> result = new ArrayList<>(counts.size());
+        for (Object2LongMap.Entry<K> entry : counts.object2LongEntrySet()) {
+            result.add(new ValueCount<>(entry.getKey(), entry.getLongValue()));
+        }
+        result.sort(Comparator.comparingLong(ValueCount<K>::count).reversed());
+        return List.copyOf(result);
+    }
+
+    /**
+     * Number of matches of one value.
+     *
+     * @param <T> The value type
+     * @param value The value
+     * @param count The number of matches
+     */
+    public record ValueCount<T>(@NotNull T value, long count) {
+    }
+
+    /**
+     * Number of matches in one chunk.
+     *
+     * @param pos The chunk position
+     * @param count The number of matches
+     */
+    public record ChunkCount(@NotNull ChunkPos pos, long count) {
+    }
+}
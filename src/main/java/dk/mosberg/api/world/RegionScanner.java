@@ -0,0 +1,150 @@
+package dk.mosberg.api.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.jetbrains.annotations.NotNull;
+import net.minecraft.block.BlockState;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ReadableContainer;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Finds and counts block states or biomes across the loaded part of a region.
+ *
+ * <p>
+ * Scanning has two halves. On the server thread, each loaded section in the region is checked
+ * against its palette, which lists the distinct values the section holds, and only sections with a
+ * matching value are copied; the rest are skipped without reading a single position. The copies are
+ * then matched position by position on the common {@link java.util.concurrent.ForkJoinPool},
+ * without holding up the server. Unloaded chunks are not loaded and not scanned.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * RegionScan<BlockState> scan = RegionScanner.blocks(world,
+ *         RegionScanner.around(player.getBlockPos(), 2000, world),
+ *         state -> state.isOf(Blocks.SPAWNER));
+ * scan.runAsync(server, 100).thenAccept(result -> {
+ *     LOGGER.info("{} spawners in {} chunks", result.matches(), result.chunks().size());
+ * });
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class RegionScanner {
+    private static final int BIOME_CELL_SHIFT = 2;
+
+    private RegionScanner() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Copies the loaded sections of a region that may hold matching block states. Must be called
+     * on the server thread.
+     *
+     * @param world The world
+     * @param box The region
+     * @param matcher Matches the states to find; must be safe to call from any thread
+     * @return The scan, ready to run on any thread
+     */
+    @NotNull
+    public static RegionScan<BlockState> blocks(@NotNull ServerWorld world, @NotNull BlockBox box,
+            @NotNull Predicate<BlockState> matcher) {
+        return snapshot(world, box, matcher, 0, section -> section.getBlockStateContainer());
+    }
+
+    /**
+     * Copies the loaded sections of a region that may hold matching biomes. Biomes are stored per
+     * 4x4x4 cell, so each match is one cell. Must be called on the server thread.
+     *
+     * @param world The world
+     * @param box The region
+     * @param matcher Matches the biomes to find; must be safe to call from any thread
+     * @return The scan, ready to run on any thread
+     */
+    @NotNull
+    public static RegionScan<RegistryEntry<Biome>> biomes(@NotNull ServerWorld world,
+            @NotNull BlockBox box, @NotNull Predicate<RegistryEntry<Biome>> matcher) {
+        return snapshot(world, box, matcher, BIOME_CELL_SHIFT,
+                section -> section.getBiomeContainer());
+    }
+
+    /**
+     * Creates the full-height region within a horizontal radius of a position.
+     *
+     * @param center The center
+     * @param radius The radius in blocks
+     * @param world The world, for its height
+     * @return The region
+     */
+    @NotNull
+    public static BlockBox around(@NotNull BlockPos center, int radius,
+            @NotNull ServerWorld world) {
+        if (center == null)
+            throw new NullPointerException("Center cannot be null");
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+        if (radius < 0)
+            throw new IllegalArgumentException("Radius cannot be negative");
+
+        return new BlockBox(center.getX() - radius, world.getBottomY(), center.getZ() - radius,
+                center.getX() + radius, world.getTopYInclusive(), center.getZ() + radius);
+    }
+
+    @NotNull
+    private static <T> RegionScan<T> snapshot(@NotNull ServerWorld world, @NotNull BlockBox box,
+            @NotNull Predicate<T> matcher, int cellShift,
+            @NotNull Function<ChunkSection, ReadableContainer<T>> containerOf) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+        if (box == null)
+            throw new NullPointerException("Box cannot be null");
+        if (matcher == null)
+            throw new NullPointerException("Matcher cannot be null");
+
+        List<RegionScan.Section<T>> sections = new ArrayList<>();
+        int skipped = 0;
+        int minY = Math.max(box.getMinY(), world.getBottomY());
+        int maxY = Math.min(box.getMaxY(), world.getTopYInclusive());
+        if (minY > maxY) {
+            return new RegionScan<>(box, matcher, sections, cellShift, skipped);
+        }
+
+        int minSectionY = ChunkSectionPos.getSectionCoord(minY);
+        int maxSectionY = ChunkSectionPos.getSectionCoord(maxY);
+        int maxChunkX = ChunkSectionPos.getSectionCoord(box.getMaxX());
+        int maxChunkZ = ChunkSectionPos.getSectionCoord(box.getMaxZ());
+        for (int chunkX = ChunkSectionPos.getSectionCoord(box.getMinX()); chunkX <= maxChunkX;
+                chunkX++) {
+            for (int chunkZ = ChunkSectionPos.getSectionCoord(box.getMinZ()); chunkZ <= maxChunkZ;
+                    chunkZ++) {
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    continue;
+                }
+
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    ReadableContainer<T> container = containerOf
+                            .apply(chunk.getSection(chunk.sectionCoordToIndex(sectionY)));
+                    if (!container.hasAny(matcher)) {
+                        skipped++;
+                        continue;
+                    }
+                    sections.add(new RegionScan.Section<>(chunkX, sectionY, chunkZ,
+                            container.slice()));
+                }
+            }
+        }
+        return new RegionScan<>(box, matcher, sections, cellShift, skipped);
+    }
+}
@@ -0,0 +1,244 @@
+package dk.mosberg.api.world;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import dk.mosberg.api.entity.EntityCensus;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ChunkLevelType;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+
+/**
+ * Live chunk, block entity and entity statistics per world.
+ *
+ * <p>
+ * Counters are adjusted by one from the chunk, chunk level and block entity lifecycle events, so
+ * reading them costs the same however many chunks are loaded. Loaded chunks are broken down by
+ * chunk level type, from full-only to entity-ticking. Load, unload and generation rates are kept
+ * in per-second buckets over the last minute. Entity counts come from {@link EntityCensus}. All
+ * methods must be called on the server thread.
+ *
+ * @example
+ *
+ *          <pre>{@code
+ * WorldStats.Snapshot stats = WorldStats.get(world);
+ * LOGGER.info("{} chunks, {} loads/s", stats.loadedChunks(), stats.loadsPerSecond());
+ * String json = WorldStats.toJson(server).toString();
+ * }</pre>
+ *
+ * @author Mosberg
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class WorldStats {
+    private static final int RATE_WINDOW_SECONDS = 10;
+    private static final Map<RegistryKey<World>, Counters> WORLDS = new HashMap<>();
+
+    private WorldStats() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Hooks the statistics into chunk, block entity and world lifecycle events.
+     */
+    public static void initialize() {
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> counters(world).onLoad());
+        ServerChunkEvents.CHUNK_UNLOAD
+                .register((world, chunk) -> counters(world).onUnload());
+        ServerChunkEvents.CHUNK_GENERATE
+                .register((world, chunk) -> counters(world).generations.increment(now()));
+        ServerChunkEvents.CHUNK_LEVEL_TYPE_CHANGE.register((world, chunk, oldType,
+                newType) -> counters(world).onLevelTypeChange(oldType, newType));
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD
+                .register((blockEntity, world) -> counters(world).blockEntities++);
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD
+                .register((blockEntity, world) -> counters(world).blockEntities--);
+        ServerWorldEvents.UNLOAD.register((server, world) -> WORLDS.remove(world.getRegistryKey()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> WORLDS.clear());
+    }
+
+    /**
+     * Gets the current statistics of a world.
+     *
+     * @param world The world
+     * @return A snapshot of the counters
+     */
+    @NotNull
+    public static Snapshot get(@NotNull ServerWorld world) {
+        if (world == null)
+            throw new NullPointerException("World cannot be null");
+
+        Counters counters = counters(world);
+        long second = now();
+        Map<ChunkLevelType, Integer> byLevel = new EnumMap<>(ChunkLevelType.class);
+        for (ChunkLevelType type : ChunkLevelType.values()) {
+            if (type != ChunkLevelType.INACCESSIBLE) {
+                byLevel.put(type, counters.byLevel[type.ordinal()]);
+            }
+        }
+
+        return new Snapshot(world.getRegistryKey().getValue().toString(), counters.loaded,
+                byLevel, counters.blockEntities, EntityCensus.getTotal(world),
+                counters.loads.perSecond(second, RATE_WINDOW_SECONDS),
+                counters.unloads.perSecond(second, RATE_WINDOW_SECONDS),
+                counters.generations.perSecond(second, RATE_WINDOW_SECONDS),
+                counters.loads.getTotal(), counters.unloads.getTotal(),
+                counters.generations.getTotal());
+    }
+
+    /**
+     * Gets the statistics of every world.
+     *
+     * @param server The server
+     * @return One snapshot per world
+     */
+    @NotNull
+    public static List<Snapshot> getAll(@NotNull MinecraftServer server) {
+        if (server == null)
+            throw new NullPointerException("Server cannot be null");
+
+        List<Snapshot> result = new ArrayList<>();
+        for (ServerWorld world : server.getWorlds()) {
+            result.add(get(world));
+        }
+        return result;
+    }
+
+    /**
+     * Exports the statistics of every world as JSON, for scraping by monitoring tools.
+     *
+     * @param server The server
+     * @return An object with a {@code worlds} array
+     */
+    @NotNull
+    public static JsonObject toJson(@NotNull MinecraftServer server) {
+        JsonArray worlds = new JsonArray();
+        for (Snapshot snapshot : getAll(server)) {
+            worlds.add(snapshot.toJson());
+        }
+
+        JsonObject json = new JsonObject();
+        json.addProperty("timestamp", System.currentTimeMillis());
+        json.addProperty("rate_window_seconds", RATE_WINDOW_SECONDS);
+        json.add("worlds", worlds);
+        return json;
+    }
+
+    @NotNull
+    private static Counters counters(@NotNull ServerWorld world) {
+        return WORLDS.computeIfAbsent(world.getRegistryKey(), key -> new Counters());
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000_000L;
+    }
+
+    /**
+     * Statistics of one world at one moment.
+     *
+     * @param dimension The world's dimension id
+     * @param loadedChunks Chunks currently loaded
+     * @param chunksByLevel Loaded chunks per chunk level type
+     * @param blockEntities Block entities in loaded chunks
+     * @param entities Entities tracked by the world
+     * @param loadsPerSecond Chunk loads per second over the last ten seconds
+     * @param unloadsPerSecond Chunk unloads per second over the last ten seconds
+     * @param generationsPerSecond Chunk generations per second over the last ten seconds
+     * @param totalLoads Chunk loads since the world started
+     * @param totalUnloads Chunk unloads since the world started
+     * @param totalGenerations Chunk generations since the world started
+     */
+    public record Snapshot(@NotNull String dimension, int loadedChunks,
+            @NotNull Map<ChunkLevelType, Integer> chunksByLevel, int blockEntities, int entities,
+            double loadsPerSecond, double unloadsPerSecond, double generationsPerSecond,
+            long totalLoads, long totalUnloads, long totalGenerations) {
+
+        /**
+         * Gets the average number of block entities per loaded chunk.
+         */
+        public double blockEntitiesPerChunk() {
+            return loadedChunks == 0 ? 0.0 : (double) blockEntities / loadedChunks;
+        }
+
+        /**
+         * Gets the average number of entities per loaded chunk.
+         */
+        public double entitiesPerChunk() {
+            return loadedChunks == 0 ? 0.0 : (double) entities / loadedChunks;
+        }
+
+        /**
+         * Converts the snapshot to JSON.
+         *
+         * @return The snapshot as a JSON object
+         */
+        @NotNull
+        public JsonObject toJson() {
+            JsonObject levels = new JsonObject();
+            for (Map.Entry<ChunkLevelType, Integer> entry : chunksByLevel.entrySet()) {
+                levels.addProperty(entry.getKey().name().toLowerCase(Locale.ROOT),
+                        entry.getValue());
+            }
+
+            JsonObject chunks = new JsonObject();
+            chunks.addProperty("loaded", loadedChunks);
+            chunks.add("by_level", levels);
+            chunks.addProperty("loads_per_second", loadsPerSecond);
+            chunks.addProperty("unloads_per_second", unloadsPerSecond);
+            chunks.addProperty("generations_per_second", generationsPerSecond);
+            chunks.addProperty("total_loads", totalLoads);
+            chunks.addProperty("total_unloads", totalUnloads);
+            chunks.addProperty("total_generations", totalGenerations);
+
+            JsonObject json = new JsonObject();
+            json.addProperty("dimension", dimension);
+            json.add("chunks", chunks);
+            json.addProperty("block_entities", blockEntities);
+            json.addProperty("block_entities_per_chunk", blockEntitiesPerChunk());
+            json.addProperty("entities", entities);
+            json.addProperty("entities_per_chunk", entitiesPerChunk());
+            return json;
+        }
+    }
+
+    private static final class Counters {
+        private final int[] byLevel = new int[ChunkLevelType.values().length];
+        private final RateCounter loads = new RateCounter();
+        private final RateCounter unloads = new RateCounter();
+        private final RateCounter generations = new RateCounter();
+        private int loaded;
+        private int blockEntities;
+
+        private void onLoad() {
+            loaded++;
+            loads.increment(now());
+        }
+
+        private void onUnload() {
+            loaded = Math.max(0, loaded - 1);
+            unloads.increment(now());
+        }
+
+        private void onLevelTypeChange(@NotNull ChunkLevelType oldType,
+                @NotNull ChunkLevelType newType) {
+            if (oldType != ChunkLevelType.INACCESSIBLE) {
+                byLevel[oldType.ordinal()] = Math.max(0, byLevel[oldType.ordinal()] - 1);
+            }
+            if (newType != ChunkLevelType.INACCESSIBLE) {
+                byLevel[newType.ordinal()]++;
+            }
+        }
+    }
+}